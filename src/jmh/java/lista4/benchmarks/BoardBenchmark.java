@@ -0,0 +1,123 @@
+package lista4.benchmarks;
+
+import lista4.gameLogic.Board;
+import lista4.gameLogic.Move;
+import lista4.gameLogic.PlayerColor;
+import lista4.gameLogic.Stone;
+import lista4.gameLogic.StoneChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot paths of the reference {@link Board}.
+ * <p>
+ * Move benchmarks place the stone with {@link Board#play(Move)} and take it back
+ * with {@link Board#undo()}, so every invocation starts from the same position
+ * and the superko history does not grow. {@code play} runs the same placement
+ * code as {@link Board#putStone(int, int, Stone)}; the score includes the undo.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    /** Position after half of a pro-length game */
+    private Board midgame;
+    private Move quietMove;
+
+    /** Black surrounds a single white stone, the move takes it */
+    private Board capture;
+    private Move captureMove;
+
+    /** Two black chains of 18 stones, the move joins them */
+    private Board merge;
+    private Move mergeMove;
+    private StoneChain bigChain;
+
+    @Setup
+    public void setup() {
+        midgame = new Board();
+        RecordedGame.generate(19, RecordedGame.PRO_GAME_LENGTH, 1).replay(midgame, RecordedGame.PRO_GAME_LENGTH / 2);
+        quietMove = findQuietMove(midgame);
+
+        capture = new Board();
+        put(capture, 10, 10, PlayerColor.WHITE);
+        put(capture, 9, 10, PlayerColor.BLACK);
+        put(capture, 11, 10, PlayerColor.BLACK);
+        put(capture, 10, 9, PlayerColor.BLACK);
+        captureMove = new Move(10, 11, PlayerColor.BLACK);
+
+        merge = new Board();
+        for (int x = 0; x < 19; x++) {
+            if (x == 9)
+                continue;
+            put(merge, x, 3, PlayerColor.BLACK);
+            put(merge, x, 4, PlayerColor.BLACK);
+        }
+        mergeMove = new Move(9, 3, PlayerColor.BLACK);
+        bigChain = merge.getStone(0, 3).getChain();
+    }
+
+    @Benchmark
+    public long putStoneQuiet() {
+        midgame.play(quietMove);
+        long hash = midgame.getHash();
+        midgame.undo();
+        return hash;
+    }
+
+    @Benchmark
+    public long putStoneCapture() {
+        capture.play(captureMove);
+        long hash = capture.getHash();
+        capture.undo();
+        return hash;
+    }
+
+    @Benchmark
+    public long putStoneMerge() {
+        merge.play(mergeMove);
+        long hash = merge.getHash();
+        merge.undo();
+        return hash;
+    }
+
+    @Benchmark
+    public int getBreathCount() {
+        return bigChain.getBreathCount();
+    }
+
+    @Benchmark
+    public int[][] getMatrix() {
+        return midgame.getMatrix();
+    }
+
+    private static void put(Board board, int x, int y, PlayerColor color) {
+        board.putStone(x, y, new Stone(x, y, color, board));
+    }
+
+    /** Finds an empty point with no stones around, so the move neither merges nor captures */
+    private static Move findQuietMove(Board board) {
+        for (int y = 1; y < 18; y++) {
+            for (int x = 1; x < 18; x++) {
+                if (board.isEmpty(x, y) && board.isEmpty(x - 1, y) && board.isEmpty(x + 1, y)
+                        && board.isEmpty(x, y - 1) && board.isEmpty(x, y + 1))
+                    return new Move(x, y, PlayerColor.BLACK);
+            }
+        }
+        throw new IllegalStateException("Brak wolnego punktu na spokojny ruch");
+    }
+}
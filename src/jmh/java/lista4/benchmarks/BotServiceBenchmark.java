@@ -0,0 +1,45 @@
+package lista4.benchmarks;
+
+import lista4.backend.BotService;
+import lista4.gameLogic.Board;
+import lista4.gameLogic.PlayerColor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move selection of the influence-map bot on a middle-game position.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BotServiceBenchmark {
+
+    private BotService botService;
+    private int[][] matrix;
+
+    @Setup
+    public void setup() {
+        botService = new BotService();
+        Board board = new Board();
+        RecordedGame.generate(19, RecordedGame.PRO_GAME_LENGTH, 1).replay(board, RecordedGame.PRO_GAME_LENGTH / 2);
+        matrix = board.getMatrix();
+    }
+
+    @Benchmark
+    public String calculateBestMove() {
+        return botService.calculateBestMove(matrix, PlayerColor.BLACK);
+    }
+}
@@ -0,0 +1,139 @@
+package lista4.benchmarks;
+
+import lista4.backend.NioServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One command and its reply on every open connection, served by a platform
+ * thread per connection (as {@code go.server.transport=blocking}), a virtual
+ * thread per connection ({@code virtual}) or the {@link NioServer} event loops
+ * ({@code nio}). The server echoes lines, so the score is the cost of the
+ * transport alone. 1024 connections need about 2100 open files
+ * ({@code ulimit -n}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConnectionBenchmark {
+
+    @Param({ "platform", "virtual", "nio" })
+    public String transport;
+
+    @Param({ "64", "1024" })
+    public int connections;
+
+    private ServerSocket listener;
+    private ExecutorService pool;
+    private NioServer nioServer;
+    private Socket[] sockets;
+    private PrintWriter[] writers;
+    private BufferedReader[] readers;
+
+    @Setup
+    public void setup() throws IOException {
+        int port;
+        if (transport.equals("nio")) {
+            nioServer = new NioServer(0, NioServer.DEFAULT_EVENT_LOOPS, out -> new NioServer.LineHandler() {
+                @Override
+                public boolean onLine(String line) {
+                    out.println(line);
+                    return true;
+                }
+
+                @Override
+                public void onClose() {
+                }
+            });
+            nioServer.start();
+            port = nioServer.getPort();
+        } else {
+            pool = transport.equals("virtual") ? Executors.newVirtualThreadPerTaskExecutor()
+                    : Executors.newCachedThreadPool();
+            listener = new ServerSocket(0);
+            port = listener.getLocalPort();
+            pool.execute(this::acceptLoop);
+        }
+
+        sockets = new Socket[connections];
+        writers = new PrintWriter[connections];
+        readers = new BufferedReader[connections];
+        for (int i = 0; i < connections; i++) {
+            sockets[i] = new Socket("127.0.0.1", port);
+            writers[i] = new PrintWriter(sockets[i].getOutputStream(), true, StandardCharsets.UTF_8);
+            readers[i] = new BufferedReader(new InputStreamReader(sockets[i].getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+
+    /** Ten sam schemat co ClientThread: blokujące Scanner i PrintWriter na wątek */
+    private void acceptLoop() {
+        while (!listener.isClosed()) {
+            try {
+                Socket socket = listener.accept();
+                pool.execute(() -> {
+                    try (socket; Scanner in = new Scanner(socket.getInputStream(), StandardCharsets.UTF_8);
+                            PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+                        while (in.hasNextLine()) {
+                            out.println(in.nextLine());
+                        }
+                    } catch (IOException ignored) {
+                        // Klient się rozłączył
+                    }
+                });
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+        if (nioServer != null)
+            nioServer.close();
+        if (listener != null)
+            listener.close();
+        if (pool != null)
+            pool.shutdownNow();
+    }
+
+    @Benchmark
+    public int roundTrip() throws IOException {
+        for (PrintWriter writer : writers) {
+            writer.println("GETBOARD");
+        }
+        int replies = 0;
+        for (BufferedReader reader : readers) {
+            if (reader.readLine() != null)
+                replies++;
+        }
+        return replies;
+    }
+}
@@ -0,0 +1,49 @@
+package lista4.benchmarks;
+
+import lista4.gameLogic.BoardEngine;
+import lista4.gameLogic.BoardEngineType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a whole pro-length game on a new board, for every board engine.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameReplayBenchmark {
+
+    @Param({ "REFERENCE", "BITBOARD" })
+    public BoardEngineType engine;
+
+    @Param({ "1", "2", "3" })
+    public long seed;
+
+    private RecordedGame game;
+
+    @Setup
+    public void setup() {
+        game = RecordedGame.generate(19, RecordedGame.PRO_GAME_LENGTH, seed);
+    }
+
+    @Benchmark
+    public long replay() {
+        BoardEngine board = engine.create(game.size);
+        game.replay(board, RecordedGame.PRO_GAME_LENGTH);
+        return board.getHash();
+    }
+}
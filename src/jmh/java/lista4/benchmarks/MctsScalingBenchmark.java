@@ -0,0 +1,59 @@
+package lista4.benchmarks;
+
+import lista4.backend.bot.MctsEngine;
+import lista4.backend.bot.TreeParallelMcts;
+import lista4.gameLogic.Board;
+import lista4.gameLogic.PlayerColor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tree-parallel search of a 19x19 {@link Board} with a fixed playout budget.
+ * Comparing the scores for different thread counts shows how the search
+ * scales with cores (one operation is {@value #PLAYOUTS} playouts).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MctsScalingBenchmark {
+
+    private static final int PLAYOUTS = 1000;
+
+    @Param({ "1", "2", "4", "8" })
+    public int threads;
+
+    private TreeParallelMcts engine;
+    private Board board;
+
+    @Setup
+    public void setup() {
+        engine = new TreeParallelMcts(threads, MctsEngine.DEFAULT_KOMI, TreeParallelMcts.DEFAULT_CAPACITY);
+        board = new Board();
+        RecordedGame.generate(19, RecordedGame.PRO_GAME_LENGTH, 1).replay(board, 60);
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    @Benchmark
+    public int search() {
+        return engine.search(board, PlayerColor.BLACK, 0, PLAYOUTS).getVisits();
+    }
+}
@@ -0,0 +1,53 @@
+package lista4.benchmarks;
+
+import lista4.backend.bot.MctsEngine;
+import lista4.backend.bot.Playout;
+import lista4.gameLogic.BitBoard;
+import lista4.gameLogic.PlayerColor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Random playouts of one thread; the score is playouts per second per core.
+ * Run with {@code -t N} to see how the throughput scales over N cores.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayoutBenchmark {
+
+    @Param({ "9", "19" })
+    public int size;
+
+    /** Number of moves played before the playouts start */
+    @Param({ "0", "40" })
+    public int opening;
+
+    private Playout playout;
+
+    @Setup
+    public void setup() {
+        BitBoard board = new BitBoard(size);
+        RecordedGame.generate(size, opening, 1).replay(board, opening);
+        playout = new Playout(board, MctsEngine.DEFAULT_KOMI, 1);
+    }
+
+    @Benchmark
+    public double playout() {
+        return playout.run(PlayerColor.BLACK, false);
+    }
+}
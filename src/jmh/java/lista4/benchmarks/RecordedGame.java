@@ -0,0 +1,73 @@
+package lista4.benchmarks;
+
+import lista4.gameLogic.Board;
+import lista4.gameLogic.BoardEngine;
+import lista4.gameLogic.PlayerColor;
+import lista4.gameLogic.Stone;
+
+import java.util.Random;
+
+/**
+ * Sequence of legal moves used as benchmark input.
+ * <p>
+ * Games are generated from a fixed seed (random legal moves, alternating
+ * colors), so every run replays exactly the same positions. The default length
+ * matches a typical professional game on 19x19.
+ */
+final class RecordedGame {
+
+    /** Typical number of moves in a professional 19x19 game */
+    static final int PRO_GAME_LENGTH = 250;
+
+    final int size;
+    final int[] x;
+    final int[] y;
+    final PlayerColor[] color;
+
+    private RecordedGame(int size, int length) {
+        this.size = size;
+        this.x = new int[length];
+        this.y = new int[length];
+        this.color = new PlayerColor[length];
+    }
+
+    /**
+     * Generates a game of legal moves on the reference board.
+     *
+     * @param size   Board size
+     * @param length Number of moves
+     * @param seed   Seed of the move generator
+     * @return Recorded game
+     */
+    static RecordedGame generate(int size, int length, long seed) {
+        RecordedGame game = new RecordedGame(size, length);
+        Board board = new Board(size);
+        Random random = new Random(seed);
+        PlayerColor turn = PlayerColor.BLACK;
+        for (int i = 0; i < length; i++) {
+            int px, py;
+            do {
+                px = random.nextInt(size);
+                py = random.nextInt(size);
+            } while (!board.checkLegal(px, py, turn).isLegal());
+            board.putStone(px, py, new Stone(px, py, turn, board));
+            game.x[i] = px;
+            game.y[i] = py;
+            game.color[i] = turn;
+            turn = turn.other();
+        }
+        return game;
+    }
+
+    /**
+     * Plays the first moves of the game on a board.
+     *
+     * @param board Board to play on
+     * @param moves Number of moves to play
+     */
+    void replay(BoardEngine board, int moves) {
+        for (int i = 0; i < moves; i++) {
+            board.place(x[i], y[i], color[i]);
+        }
+    }
+}
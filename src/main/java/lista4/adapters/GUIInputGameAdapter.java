@@ -66,8 +66,8 @@ public class GUIInputGameAdapter implements GameInputAdapter<String> {
      *                         coordinate format.
      */
     public void makeMove(String input, PlayerColor color) throws WrongMoveFormat {
-        // Regex validates ranges: A-S (case insensitive) and 1-19
-        if (input.matches("[a-sA-S] [1-9]") || input.matches("[a-sA-S] 1[0-9]")) {
+        // Regex validates ranges for the board size: A-S (case insensitive) and 1-19 on 19x19
+        if (input.matches(MoveNotation.fieldRegex(gameManager.getBoardSize()))) {
             int base = (int) 'a';
             // Parse Y: "1" becomes index 0
             int y = Integer.parseInt(input.substring(2)) - 1;
@@ -106,7 +106,8 @@ public class GUIInputGameAdapter implements GameInputAdapter<String> {
      * @throws WrongMoveFormat If the command format is invalid.
      */
     public void sendChangingTeritory(String input, PlayerColor color) {
-        if (input.matches("PROP [+-] [a-sA-S] [1-9]") || input.matches("PROP [+-] [a-sA-S] 1[0-9]")) {
+        int size = gameManager.getBoardSize();
+        if (input.matches("PROP [+-] " + MoveNotation.fieldRegex(size))) {
             String[] parts = input.split(" ");
             String sign = parts[1];
             int base = (int) 'a';
@@ -120,7 +121,7 @@ public class GUIInputGameAdapter implements GameInputAdapter<String> {
             System.out.println("wysłano");
         } else {
             throw new WrongMoveFormat(
-                    "zła komenda podaj w formacie \"PROP -/+ A-S 1-19\" (+ - oznacza że chcesz dodać, - usunąć propozycje)");
+                    "zła komenda podaj w formacie \"PROP -/+ " + MoveNotation.range(size) + "\" (+ - oznacza że chcesz dodać, - usunąć propozycje)");
         }
     }
 
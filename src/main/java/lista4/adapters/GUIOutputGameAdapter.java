@@ -7,10 +7,9 @@ import java.util.concurrent.ConcurrentMap;
 
 import lista4.dbModel.GameEntity;
 import lista4.gameInterface.GameOutputAdapter;
-import lista4.gameLogic.Board;
+import lista4.gameLogic.BoardEngine;
 import lista4.gameLogic.state.GameState;
 import lista4.gameLogic.PlayerColor;
-import lista4.gameLogic.Stone;
 
 /**
  * An implementation of {@link GameOutputAdapter} designed for GUI clients.
@@ -26,15 +25,31 @@ import lista4.gameLogic.Stone;
  * <ul>
  * <li>Managing connection streams for GUI clients.</li>
  * <li>Sending state updates via protocol messages.</li>
- * <li>Iterating through the board and sending {@code UPDATE} commands for every
- * stone.</li>
+ * <li>Sending the board as {@code UPDATE} commands: after a change only the
+ * changed intersections, on request the whole board.</li>
  * </ul>
  * </p>
+ * <p>
+ * Every broadcast change of the board gets the next version number. A change
+ * is sent as {@code DELTA [version] [count]} followed by {@code count}
+ * {@code UPDATE} lines, the whole board as {@code SNAPSHOT [version]} followed
+ * by an {@code UPDATE} line for every intersection. A client that sees a
+ * version other than its last one plus one asks for {@code GETBOARD} again.
+ * </p>
  */
 public class GUIOutputGameAdapter implements GameOutputAdapter<String> {
 
-    /** Map of active writers for connected GUI clients. */
-    private static final ConcurrentMap<PlayerColor, PrintWriter> activeWriters = new ConcurrentHashMap<>();
+    /** Map of active writers for connected GUI clients of one game. */
+    private final ConcurrentMap<PlayerColor, PrintWriter> activeWriters = new ConcurrentHashMap<>();
+
+    /**
+     * Board as last sent to the clients, {@code null} before the first send.
+     * Used only by the commands of the game, which run one at a time.
+     */
+    private PlayerColor[][] sentBoard;
+
+    /** Version of {@link #sentBoard}, raised by every broadcast change. */
+    private long boardVersion;
 
     /**
      * Registers a player and their output stream.
@@ -86,28 +101,101 @@ public class GUIOutputGameAdapter implements GameOutputAdapter<String> {
     /**
      * Synchronizes the client's board view with the server's board state.
      * <p>
-     * This method iterates over the entire board and calls
-     * {@link #sendSpecificStoneUpdates}
-     * to send individual update commands for each stone found on the board.
-     * This allows the GUI to redraw or update its internal model.
+     * A broadcast sends only the intersections changed since the last send (the
+     * placed stone and the captured ones) as a new version. A single player
+     * asks with {@code GETBOARD} for the whole board, e.g. after connecting or
+     * missing a version, and gets it as a snapshot of the current version.
      * </p>
      *
      * @param board  The current game board.
      * @param target The recipient (Specific player or BOTH).
      */
-    public void sendBoard(Board board, PlayerColor target) {
-        if (target == PlayerColor.BOTH) {
-            for (PrintWriter out : activeWriters.values()) {
-                if (out != null) {
-                    sendSpecificStoneUpdates(out, board); // GUI
-                }
-            }
-        } else {
+    public void sendBoard(BoardEngine board, PlayerColor target) {
+        // Zmiany niewysłane jeszcze nikomu idą do wszystkich, także przed migawką, żeby wersje się zgadzały
+        String delta = collectChanges(board);
+        if (delta != null)
+            sendBlock(delta, activeWriters.values());
+        if (target != PlayerColor.BOTH) {
             PrintWriter out = activeWriters.get(target);
-            sendSpecificStoneUpdates(out, board); // GUI
+            if (out != null)
+                sendBlock(snapshot(board), List.of(out));
         }
     };
 
+    /**
+     * Compares the board with {@link #sentBoard}, takes over the changes and
+     * raises the version.
+     *
+     * @param board The current game board.
+     * @return {@code DELTA} block of the changes, {@code null} if none
+     */
+    private String collectChanges(BoardEngine board) {
+        int size = board.getSize();
+        // Nowy rozmiar planszy: klient po BOARDSIZE zaczyna od pustej
+        if (sentBoard == null || sentBoard.length != size)
+            sentBoard = new PlayerColor[size][size];
+
+        StringBuilder updates = new StringBuilder();
+        int count = 0;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                PlayerColor stone = board.getStoneColor(x, y);
+                if (stone != sentBoard[y][x]) {
+                    sentBoard[y][x] = stone;
+                    appendUpdate(updates, stone, x, y);
+                    count++;
+                }
+            }
+        }
+        if (count == 0)
+            return null;
+        boardVersion++;
+        return "DELTA " + boardVersion + " " + count + System.lineSeparator() + updates;
+    }
+
+    /**
+     * Builds the {@code SNAPSHOT} block of the whole board.
+     * <p>
+     * The protocol format of every intersection is:
+     * {@code UPDATE [COLOR] [X] [Y]}
+     * </p>
+     *
+     * @param board The board data to serialize into commands.
+     * @return The snapshot with the current version
+     */
+    private String snapshot(BoardEngine board) {
+        StringBuilder block = new StringBuilder("SNAPSHOT ").append(boardVersion).append(System.lineSeparator());
+        for (int y = 0; y < board.getSize(); y++) {
+            for (int x = 0; x < board.getSize(); x++) {
+                appendUpdate(block, board.getStoneColor(x, y), x, y);
+            }
+        }
+        return block.toString();
+    }
+
+    private static void appendUpdate(StringBuilder block, PlayerColor stone, int x, int y) {
+        // Format: UPDATE [COLOR] [X] [Y] wysyła do GUI aby wiedziało jak kolorować
+        String color = stone == null ? "BLANK" : (stone == PlayerColor.WHITE) ? "WHITE" : "BLACK";
+        block.append("UPDATE ").append(color).append(' ').append(x).append(' ').append(y)
+                .append(System.lineSeparator());
+    }
+
+    /**
+     * Writes a block of lines with one flush per client instead of one per
+     * line.
+     *
+     * @param block   Lines ending with line separators.
+     * @param writers The recipients.
+     */
+    private static void sendBlock(String block, Iterable<PrintWriter> writers) {
+        for (PrintWriter out : writers) {
+            if (out != null) {
+                out.print(block);
+                out.flush();
+            }
+        }
+    }
+
     /**
      * Sends an error message to a client.
      *
@@ -136,34 +224,6 @@ public class GUIOutputGameAdapter implements GameOutputAdapter<String> {
         }
     }
 
-    /**
-     * Iterates through the board and sends protocol commands to update stones.
-     * <p>
-     * The protocol format sent to the client is:
-     * {@code UPDATE [COLOR] [X] [Y]}
-     * </p>
-     *
-     * @param out   The output stream to send commands to.
-     * @param board The board data to serialize into commands.
-     */
-    private void sendSpecificStoneUpdates(PrintWriter out, Board board) {
-        // Najpierw czyścimy widok u klienta (opcjonalnie, zależy od logiki GUI)
-        // out.println("CLEAR_BOARD");
-
-        for (int y = 0; y < board.getSize(); y++) {
-            for (int x = 0; x < board.getSize(); x++) {
-                Stone stone = board.getStone(x, y);
-                if (stone != null) {
-                    String color = (stone.getPlayerColor() == PlayerColor.WHITE) ? "WHITE" : "BLACK";
-                    // Format: UPDATE [COLOR] [X] [Y] wysyła do GUI aby wiedziało jak kolorować
-                    out.println("UPDATE " + color + " " + x + " " + y);
-                } else {
-                    out.println("UPDATE BLANK " + x + " " + y);
-                }
-            }
-        }
-    }
-
     /**
      * Broadcasts the final result of the game.
      *
@@ -232,7 +292,7 @@ public class GUIOutputGameAdapter implements GameOutputAdapter<String> {
      *
      * @param board The current game board.
      */
-    public void resumeGame(Board board) {
+    public void resumeGame(BoardEngine board) {
         sendBoard(board, PlayerColor.BOTH);
     }
 
@@ -248,4 +308,14 @@ public class GUIOutputGameAdapter implements GameOutputAdapter<String> {
         }
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Sends the board size as a {@code BOARDSIZE [n]} command.
+     *
+     * @param size   Number of fields per side.
+     * @param target The recipient (Specific player or BOTH).
+     */
+    public void sendBoardSize(int size, PlayerColor target) {
+        sendToTarget("BOARDSIZE " + size, target);
+    }
+}
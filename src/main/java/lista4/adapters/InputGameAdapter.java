@@ -57,7 +57,8 @@ public class InputGameAdapter implements GameInputAdapter<String> {
     /**
      * Interprets a text command as a game move.
      * <p>
-     * Accepted format: <code>[A-S] [1-19]</code> (case insensitive).<br>
+     * Accepted format: <code>[A-S] [1-19]</code> (case insensitive) on 19x19,
+     * with the ranges narrowed to the size of the current board.<br>
      * Example: "a 1" translates to (0,0). "s 19" translates to (18,18).
      * </p>
      *
@@ -67,14 +68,15 @@ public class InputGameAdapter implements GameInputAdapter<String> {
      *                         bounds or wrong format).
      */
     public void makeMove(String input, PlayerColor color) throws WrongMoveFormat {
-        if (input.matches("[a-sA-S] [1-9]") || input.matches("[a-sA-S] 1[0-9]")) {
+        int size = gameManager.getBoardSize();
+        if (input.matches(MoveNotation.fieldRegex(size))) {
             int base = (int) 'a';
             int y = Integer.parseInt(input.substring(2)) - 1;
             int x = (int) input.toLowerCase().charAt(0) - base;
 
             gameManager.makeMove(new Move(x, y, color));
         } else {
-            throw new WrongMoveFormat("zła komenda podaj w formacie A-S 1-19");
+            throw new WrongMoveFormat("zła komenda podaj w formacie " + MoveNotation.range(size));
         }
     };
 
@@ -97,7 +99,8 @@ public class InputGameAdapter implements GameInputAdapter<String> {
      * @param color The player sending the proposal.
      */
     public void sendChangingTeritory(String input, PlayerColor color) {
-        if (input.matches("PROP [+-] [a-sA-S] [1-9]") || input.matches("PROP [+-] [a-sA-S] 1[0-9]")) {
+        int size = gameManager.getBoardSize();
+        if (input.matches("PROP [+-] " + MoveNotation.fieldRegex(size))) {
             String[] parts = input.split(" ");
             String sign = parts[1];
             int base = (int) 'a';
@@ -111,7 +114,7 @@ public class InputGameAdapter implements GameInputAdapter<String> {
             System.out.println("wysłano");
         } else {
             throw new WrongMoveFormat(
-                    "zła komenda podaj w formacie \"PROP -/+ A-S 1-19\" (+ - oznacza że chcesz dodać, - usunąć propozycje)");
+                    "zła komenda podaj w formacie \"PROP -/+ " + MoveNotation.range(size) + "\" (+ - oznacza że chcesz dodać, - usunąć propozycje)");
         }
     }
 
@@ -0,0 +1,36 @@
+package lista4.adapters;
+
+/**
+ * Helpers for the text notation of board fields used by the input adapters,
+ * e.g. "D 4": a column letter (A = first column) and a row number (1 = first
+ * row). Both ranges depend on the size of the board.
+ */
+final class MoveNotation {
+
+    private MoveNotation() {
+    }
+
+    /**
+     * Returns a regular expression matching a field of a board of the given
+     * size, e.g. {@code [a-iA-I] [1-9]} for 9x9.
+     *
+     * @param size Number of fields per side
+     * @return Regular expression for "[letter] [number]"
+     */
+    static String fieldRegex(int size) {
+        char last = (char) ('a' + size - 1);
+        String columns = "[a-" + last + "A-" + Character.toUpperCase(last) + "]";
+        String rows = size <= 9 ? "[1-" + size + "]" : "([1-9]|1[0-" + (size - 10) + "])";
+        return columns + " " + rows;
+    }
+
+    /**
+     * Returns the human-readable range of fields, e.g. "A-S 1-19".
+     *
+     * @param size Number of fields per side
+     * @return Range used in error messages
+     */
+    static String range(int size) {
+        return "A-" + (char) ('A' + size - 1) + " 1-" + size;
+    }
+}
@@ -7,10 +7,9 @@ import java.util.concurrent.ConcurrentMap;
 
 import lista4.dbModel.GameEntity;
 import lista4.gameInterface.GameOutputAdapter;
-import lista4.gameLogic.Board;
+import lista4.gameLogic.BoardEngine;
 import lista4.gameLogic.state.GameState;
 import lista4.gameLogic.PlayerColor;
-import lista4.gameLogic.Stone;
 
 /**
  * An implementation of {@link GameOutputAdapter} designed for Console-based
@@ -29,8 +28,8 @@ import lista4.gameLogic.Stone;
  */
 public class OutputGameAdapter implements GameOutputAdapter<String> {
 
-    /** A thread-safe map associating player colors with their output streams. */
-    private static final ConcurrentMap<PlayerColor, PrintWriter> activeWriters = new ConcurrentHashMap<>();
+    /** A thread-safe map associating player colors of one game with their output streams. */
+    private final ConcurrentMap<PlayerColor, PrintWriter> activeWriters = new ConcurrentHashMap<>();
 
     /**
      * Registers a player's output stream, enabling the server to send messages to
@@ -79,14 +78,14 @@ public class OutputGameAdapter implements GameOutputAdapter<String> {
     /**
      * Generates an ASCII representation of the board and sends it to the target(s).
      * <p>
-     * This method converts the {@link Board} object into a formatted string grid
+     * This method converts the {@link BoardEngine} into a formatted string grid
      * (with coordinates and stone markers) suitable for display in a terminal.
      * </p>
      *
      * @param board  The current game board.
      * @param target The recipient (Specific player or BOTH).
      */
-    public void sendBoard(Board board, PlayerColor target) {
+    public void sendBoard(BoardEngine board, PlayerColor target) {
         if (target == PlayerColor.BOTH) {
             for (PrintWriter out : activeWriters.values()) {
                 if (out != null) {
@@ -95,7 +94,8 @@ public class OutputGameAdapter implements GameOutputAdapter<String> {
             }
         } else {
             PrintWriter out = activeWriters.get(target);
-            out.println(boardToString(board));
+            if (out != null)
+                out.println(boardToString(board));
         }
     };
 
@@ -118,16 +118,20 @@ public class OutputGameAdapter implements GameOutputAdapter<String> {
      * @param board The board to convert.
      * @return A multi-line string representing the grid, coordinates, and stones.
      */
-    private String boardToString(Board board) {
-        String result = "   A  B  C  D  E  F  G  H  I  J  K  L  M  N  O  P  Q  R  S";
+    private String boardToString(BoardEngine board) {
+        String result = "  ";
+        for (int x = 0; x < board.getSize(); x++) {
+            result = result.concat(" " + (char) ('A' + x) + " ");
+        }
+        result = result.stripTrailing();
         for (int y = 0; y < board.getSize(); y++) {
             result = result.concat("\n");
             result = result.concat(String.format("%2d", y + 1) + "");
             for (int x = 0; x < board.getSize(); x++) {
-                Stone stone = board.getStone(x, y);
+                PlayerColor stone = board.getStoneColor(x, y);
                 if (stone == null) {
                     result = result.concat(" . ");
-                } else if (stone.getPlayerColor() == PlayerColor.WHITE) {
+                } else if (stone == PlayerColor.WHITE) {
                     result = result.concat(" W ");
                 } else {
                     result = result.concat(" B ");
@@ -233,7 +237,7 @@ public class OutputGameAdapter implements GameOutputAdapter<String> {
      *
      * @param board The current state of the board.
      */
-    public void resumeGame(Board board) {
+    public void resumeGame(BoardEngine board) {
         sendBoard(board, PlayerColor.BOTH);
     }
 
@@ -250,4 +254,14 @@ public class OutputGameAdapter implements GameOutputAdapter<String> {
         }
 
     }
+
+    /**
+     * Sends the board size as a {@code BOARDSIZE [n]} command.
+     *
+     * @param size   Number of fields per side.
+     * @param target The recipient (Specific player or BOTH).
+     */
+    public void sendBoardSize(int size, PlayerColor target) {
+        sendToTarget("BOARDSIZE " + size, target);
+    }
 }
@@ -0,0 +1,27 @@
+package lista4.backend;
+
+import lista4.backend.bot.BotMetrics;
+import lista4.gameLogic.GameManager;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Exposes the load of the bot scheduler over HTTP (JSON), e.g.
+ * {@code GET /api/bot/metrics}: queue depth, waiting times, rejected and late
+ * jobs and the current shortening of the thinking time.
+ */
+@RestController
+@RequestMapping("/api/bot")
+public class BotMetricsController {
+
+    /**
+     * Returns the metrics of the executor computing bot moves.
+     *
+     * @return Current snapshot
+     */
+    @GetMapping("/metrics")
+    public BotMetrics metrics() {
+        return GameManager.getInstance().getBotExecutor().getMetrics();
+    }
+}
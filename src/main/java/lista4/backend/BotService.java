@@ -1,6 +1,13 @@
 package lista4.backend; // Upewnij się, że paczka się zgadza
 
 import org.springframework.stereotype.Service;
+import lista4.backend.bot.MctsEngine;
+import lista4.backend.bot.MctsResult;
+import lista4.backend.bot.OpeningBook;
+import lista4.backend.bot.SearchPool;
+import lista4.backend.bot.TranspositionTable;
+import lista4.backend.bot.TreeParallelMcts;
+import lista4.gameLogic.BoardEngine;
 import lista4.gameLogic.PlayerColor;
 import java.math.*;
 
@@ -8,10 +15,246 @@ import java.math.*;
  * Service responsible for calculating the bot's moves.
  * It uses an influence map algorithm to evaluate territory control on the board
  * and select the most strategic position.
+ * <p>
+ * With the {@link BotStrategy#MCTS} strategy the move is searched by
+ * {@link MctsEngine} within a time or playout budget instead, and with
+ * {@link BotStrategy#MCTS_TREE} by {@link TreeParallelMcts}.
+ * <p>
+ * With an {@link OpeningBook} every strategy first looks the position up in
+ * the book and plays the stored move if it is legal.
+ * <p>
+ * Moves are computed one at a time: a cancelled computation which is still
+ * running finishes before the next one starts using the same engines.
+ * <p>
+ * The MCTS engines search on the threads of a {@link SearchPool} shared with
+ * the bots of other games (see {@link #setSearchPool}), or else on their own.
  */
 @Service
 public class BotService {
 
+    /** Default thinking time of the MCTS strategy */
+    public static final long DEFAULT_MOVE_TIME_MILLIS = 1000;
+
+    /** Longest pondering during one opponent's turn */
+    public static final long MAX_PONDER_MILLIS = 30_000;
+
+    private BotStrategy strategy = BotStrategy.INFLUENCE;
+    private long moveTimeMillis = DEFAULT_MOVE_TIME_MILLIS;
+    private int maxPlayouts;
+    private MctsEngine mctsEngine;
+    private volatile TreeParallelMcts treeEngine;
+    private SearchPool searchPool;
+    private TranspositionTable table;
+    private boolean pondering;
+    private volatile OpeningBook openingBook;
+    private MctsResult lastResult;
+
+    /** Influence map of the game, brought up to date after every move */
+    private final InfluenceMap influenceMap = new InfluenceMap();
+
+    /**
+     * Prints the influence map, the search statistics and book moves after
+     * every move (system property go.bot.debug)
+     */
+    private boolean debug = Boolean.getBoolean("go.bot.debug");
+
+    /**
+     * Sets the move selection algorithm.
+     *
+     * @param strategy Strategy to use
+     */
+    public void setStrategy(BotStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public BotStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Sets the budget of the MCTS strategy; 0 switches a limit off.
+     *
+     * @param moveTimeMillis Thinking time per move
+     * @param maxPlayouts    Maximum number of playouts per move
+     */
+    public void setBudget(long moveTimeMillis, int maxPlayouts) {
+        this.moveTimeMillis = moveTimeMillis;
+        this.maxPlayouts = maxPlayouts;
+    }
+
+    /**
+     * Sets the threads and statistics shared with the bots of other games;
+     * takes effect for engines created afterwards.
+     *
+     * @param searchPool Threads of the MCTS searches, null for engines with
+     *                   their own threads
+     * @param table      Statistics of {@link BotStrategy#MCTS_TREE}, used
+     *                   only with a shared pool
+     */
+    public synchronized void setSearchPool(SearchPool searchPool, TranspositionTable table) {
+        this.searchPool = searchPool;
+        this.table = table;
+    }
+
+    /**
+     * Switches thinking during the opponent's turn (only
+     * {@link BotStrategy#MCTS_TREE} can use it).
+     *
+     * @param pondering true to ponder
+     */
+    public void setPondering(boolean pondering) {
+        this.pondering = pondering;
+    }
+
+    /**
+     * Sets the book answering opening positions.
+     *
+     * @param openingBook Book, null for none
+     */
+    public void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    /**
+     * Checks whether {@link #ponder} would do anything: pondering is on, the
+     * strategy is {@link BotStrategy#MCTS_TREE} and its engine has searched.
+     *
+     * @return true if the bot can ponder
+     */
+    public boolean canPonder() {
+        return pondering && strategy == BotStrategy.MCTS_TREE && treeEngine != null;
+    }
+
+    /**
+     * Analyses the opponent's replies until {@link #stopPondering()}, an
+     * interrupt, the next move or {@link #MAX_PONDER_MILLIS}; the next move
+     * reuses the part of the tree matching the reply actually played. Does
+     * nothing unless {@link #canPonder()}.
+     *
+     * @param board    Board after the bot's move, not changed by the game
+     *                 meanwhile
+     * @param opponent Color of the player to move
+     * @param threads  Most search threads to use
+     */
+    public void ponder(BoardEngine board, PlayerColor opponent, int threads) {
+        TreeParallelMcts engine = treeEngine;
+        if (engine != null && canPonder())
+            engine.ponder(board, opponent, MAX_PONDER_MILLIS, threads);
+    }
+
+    /**
+     * Stops pondering, keeping its results for the next move.
+     */
+    public void stopPondering() {
+        TreeParallelMcts engine = treeEngine;
+        if (engine != null)
+            engine.stopPonder();
+    }
+
+    /**
+     * Returns the statistics of the last MCTS search.
+     *
+     * @return Last result, or null if MCTS has not been used
+     */
+    public MctsResult getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * Calculates the best move using the configured strategy.
+     *
+     * @param board    Current board, only read
+     * @param botColor The color of the player the bot is simulating
+     * @return A string representing the coordinates of the best move in "x y"
+     *         format, "-1 -1" for a pass
+     */
+    public String calculateBestMove(BoardEngine board, PlayerColor botColor) {
+        return calculateBestMove(board, botColor, moveTimeMillis);
+    }
+
+    /**
+     * Calculates the best move using the configured strategy, with the
+     * thinking time given for this move (e.g. shortened by the scheduler under
+     * load) instead of the configured one.
+     *
+     * @param board      Current board, only read
+     * @param botColor   The color of the player the bot is simulating
+     * @param timeMillis Thinking time of the MCTS strategies, 0 for no limit
+     * @return A string representing the coordinates of the best move in "x y"
+     *         format, "-1 -1" for a pass
+     */
+    public String calculateBestMove(BoardEngine board, PlayerColor botColor, long timeMillis) {
+        return calculateBestMove(board, botColor, timeMillis, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Calculates the best move with the thinking time and the number of search
+     * threads granted by the scheduler. An interrupt of the calling thread
+     * stops the search early.
+     *
+     * @param board      Current board, only read
+     * @param botColor   The color of the player the bot is simulating
+     * @param timeMillis Thinking time of the MCTS strategies, 0 for no limit
+     * @param threads    Most search threads, the calling one included
+     * @return A string representing the coordinates of the best move in "x y"
+     *         format, "-1 -1" for a pass
+     */
+    public synchronized String calculateBestMove(BoardEngine board, PlayerColor botColor, long timeMillis,
+            int threads) {
+        String bookMove = bookMove(board, botColor);
+        if (bookMove != null)
+            return bookMove;
+        if (strategy == BotStrategy.INFLUENCE)
+            return calculateBestMove(board.getMatrix(), botColor);
+        if (strategy == BotStrategy.MCTS_TREE) {
+            if (treeEngine == null)
+                treeEngine = searchPool != null
+                        ? new TreeParallelMcts(searchPool, MctsEngine.DEFAULT_KOMI, TreeParallelMcts.DEFAULT_CAPACITY,
+                                table)
+                        : new TreeParallelMcts();
+            lastResult = treeEngine.search(board, botColor, timeMillis, maxPlayouts, threads);
+            if (debug)
+                System.out.println("MCTS: drzewo z poprzednich ruchów " + treeEngine.getReusedPlayouts() + " symulacji");
+        } else {
+            if (mctsEngine == null)
+                mctsEngine = searchPool != null ? new MctsEngine(searchPool, MctsEngine.DEFAULT_KOMI)
+                        : new MctsEngine();
+            lastResult = mctsEngine.search(board, botColor, timeMillis, maxPlayouts, threads);
+        }
+        if (debug)
+            System.out.println("MCTS: " + lastResult);
+        return lastResult.toMoveString();
+    }
+
+    /** Legal move of the opening book for the position, or null */
+    private String bookMove(BoardEngine board, PlayerColor botColor) {
+        OpeningBook book = openingBook;
+        if (book == null)
+            return null;
+        int point = book.lookup(board, botColor);
+        if (point < 0)
+            return null;
+        int x = point % board.getSize();
+        int y = point / board.getSize();
+        if (!board.checkLegal(x, y, botColor).isLegal())
+            return null;
+        if (debug)
+            System.out.println("Ruch z książki otwarć: " + x + " " + y);
+        return x + " " + y;
+    }
+
+    /**
+     * Stops the threads of the MCTS engines, if they were started.
+     */
+    public void shutdown() {
+        if (mctsEngine != null)
+            mctsEngine.shutdown();
+        if (treeEngine != null)
+            treeEngine.shutdown();
+        mctsEngine = null;
+        treeEngine = null;
+    }
+
     /**
      * Calculates the best move for the bot based on the current board state.
      *
@@ -24,6 +267,10 @@ public class BotService {
      * 3. Move Selection: The bot scans for an empty cell with the highest
      * influence value favorable to its color.
      *
+     * The map is kept in reused flat int buffers (see {@link InfluenceMap})
+     * for the whole game, and after a move only the points within the reach of
+     * the placed and captured stones are computed again.
+     *
      * @param board    A 2D integer array representing the board, where 0 is empty,
      *                 1 is a black stone, and 2 is a white stone.
      * @param botColor The color of the player the bot is simulating (BLACK or
@@ -31,103 +278,24 @@ public class BotService {
      * @return A string representing the coordinates of the best move in "x y"
      *         format.
      */
-    public String calculateBestMove(int[][] board, PlayerColor botColor) {
-        int size = board.length;
-        double[][] influenceMap = new double[size][size];
-
-        // 1. Map initialization based on stones
-        // Black = 128, White = -128
-        for (int y = 0; y < size; y++) {
-            for (int x = 0; x < size; x++) {
-                if (board[x][y] == 1)
-                    influenceMap[x][y] = 128; // Czarny
-                else if (board[x][y] == 2)
-                    influenceMap[x][y] = -128; // Biały
-                // System.out.print("[" + influenceMap[x][y] + "]");
-            }
-            // System.out.print("\n");
-        }
-
-        // 2. Dylatacja - 5 iteracji
-        for (int iter = 0; iter < 8; iter++) {
-            influenceMap = dilate(influenceMap);
-            for (int i = 0; i < size; i++) {
-                for (int j = 0; j < size; j++) {
-                    if (board[j][i] == 1)
-                        influenceMap[j][i] = 128; // Czarny
-                    else if (board[j][i] == 2)
-                        influenceMap[j][i] = -128; // Biały
-                    // System.out.print("[" + influenceMap[i][j] + "]");
-                }
-                // System.out.print("\n");
-            }
-
-        }
-
-        // 3. Move selection: Bot looks for an empty spot with the highest influence
-        int bestX = -1, bestY = -1;
-        double maxInfluence = -Double.MAX_VALUE;
-
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                if (board[j][i] == 0) { // Tylko wolne pola
-                    double val = (botColor == PlayerColor.BLACK) ? influenceMap[j][i] : -influenceMap[j][i];
-                    if (val > maxInfluence) {
-                        maxInfluence = val;
-                        bestX = j;
-                        bestY = i;
-                    }
-                }
-            }
-        }
-        // Debugging output
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                System.out.print("[" + influenceMap[j][i] + "]");
-            }
-            System.out.print("\n");
-        }
-
-        return bestX + " " + bestY;
+    public synchronized String calculateBestMove(int[][] board, PlayerColor botColor) {
+        influenceMap.update(board);
+        if (debug)
+            influenceMap.dump(System.out);
+        int best = influenceMap.bestPoint(board, botColor);
+        if (best < 0)
+            return "-1 -1";
+        int size = influenceMap.getSize();
+        return (best % size) + " " + (best / size);
     }
 
     /**
-     * Performs a single iteration of dilation (blurring) on the influence map.
-     *
-     * Calculates the new value of each cell as the average of the cell itself
-     * and its immediate neighbors (up, down, left, right).
-     * The result is rounded to the nearest integer.
+     * Switches printing of the influence map, the search statistics and book
+     * moves after every move.
      *
-     * @param map The current influence map.
-     * @return A new 2D array containing the processed map values.
-     */
-    private double[][] dilate(double[][] map) {
-        int size = map.length;
-        double[][] newMap = new double[size][size];
-        for (int y = 0; y < size; y++) {
-            for (int x = 0; x < size; x++) {
-                // Średnia z sąsiadów
-                double sum = map[x][y];
-                int count = 1;
-                if (x > 0) {
-                    sum += map[x - 1][y];
-                    count++;
-                }
-                if (x < size - 1) {
-                    sum += map[x + 1][y];
-                    count++;
-                }
-                if (y > 0) {
-                    sum += map[x][y - 1];
-                    count++;
-                }
-                if (y < size - 1) {
-                    sum += map[x][y + 1];
-                    count++;
-                }
-                newMap[x][y] = Math.round(sum / count);
-            }
-        }
-        return newMap;
+     * @param debug true to print them
+     */
+    public void setDebug(boolean debug) {
+        this.debug = debug;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,38 @@
+package lista4.backend;
+
+import java.util.Locale;
+
+/**
+ * Move selection algorithms of {@link BotService}.
+ */
+public enum BotStrategy {
+    /** Empty point with the strongest own influence, no look-ahead */
+    INFLUENCE,
+
+    /** Monte Carlo Tree Search within a time or playout budget, one tree per thread */
+    MCTS,
+
+    /** Monte Carlo Tree Search with one tree shared by all threads */
+    MCTS_TREE;
+
+    /** Name of the configuration property choosing the strategy */
+    public static final String PROPERTY = "go.bot.strategy";
+
+    /**
+     * Finds the strategy by its configuration name (case insensitive).
+     *
+     * @param name "influence", "mcts" or "mcts-tree"
+     * @return Strategy
+     * @throws IllegalArgumentException if no strategy has that name
+     */
+    public static BotStrategy fromName(String name) {
+        for (BotStrategy strategy : values()) {
+            if (strategy.name().equalsIgnoreCase(name.trim().replace('-', '_')))
+                return strategy;
+        }
+        throw new IllegalArgumentException("Nieznana strategia bota: " + name
+                + " (dostępne: " + INFLUENCE.name().toLowerCase(Locale.ROOT)
+                + ", " + MCTS.name().toLowerCase(Locale.ROOT)
+                + ", " + MCTS_TREE.name().toLowerCase(Locale.ROOT).replace('_', '-') + ")");
+    }
+}
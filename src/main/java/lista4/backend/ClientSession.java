@@ -0,0 +1,305 @@
+package lista4.backend;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Lock;
+
+import lista4.gameInterface.GameInputAdapter;
+import lista4.gameInterface.GameOutputAdapter;
+import lista4.gameLogic.GameManager;
+import lista4.gameLogic.PlayerColor;
+
+/**
+ * The text protocol of a single connected client, independent of how its lines
+ * are read and written.
+ * <p>
+ * The first line is the handshake choosing the client type ("console" or
+ * "GUI", optionally followed by the board size), every following line is a
+ * command forwarded to the selected {@link GameInputAdapter}. Used by the
+ * blocking {@link ClientThread} and by the {@link NioServer} transport.
+ * </p>
+ * <p>
+ * The transport thread only reads lines: the handshake, the commands and the
+ * cleanup after disconnecting run in the mailbox of the game
+ * ({@link GameManager#getMailbox()}), in order with the commands of the
+ * opponent and the moves of the bot.
+ * </p>
+ */
+class ClientSession implements NioServer.LineHandler {
+
+    /** The stream to the client, registered with the output adapter. */
+    private final PrintWriter out;
+
+    /** The currently active input adapter (Console or GUI). */
+    GameInputAdapter inAdapter;
+
+    /** The currently active output adapter (Console or GUI). */
+    GameOutputAdapter outAdapter;
+
+    /** List of available input adapters to choose from. */
+    ArrayList<GameInputAdapter> inputAdapters;
+
+    /** List of available output adapters to choose from. */
+    ArrayList<GameOutputAdapter> outputAdapters;
+
+    /** The color assigned to this player (BLACK or WHITE). */
+    PlayerColor color;
+
+    /** Reference to the shared list of active players for connection management. */
+    ArrayList gamers;
+
+    /** Guards {@code gamers}, shared by all sessions of the game. */
+    private final Lock gamersLock;
+
+    /** Reference to the gameManager to start or change the state of game. */
+    GameManager gameManager;
+
+    /** Runs the commands of the game one at a time. */
+    private final Executor commands;
+
+    /** Whether the handshake line has been received. */
+    private boolean registered;
+
+    /** Whether this player added the bot occupying the other slot. */
+    private boolean botAdded;
+
+    /** Called after the player's slot is freed, may be {@code null}. */
+    private Runnable onLeave;
+
+    /**
+     * Constructs a new session.
+     *
+     * @param out         The stream to the client.
+     * @param inAdapters  A list of available {@link GameInputAdapter}s (e.g., [GUI,
+     *                    Console]).
+     * @param outAdapters A list of available {@link GameOutputAdapter}s (e.g.,
+     *                    [GUI, Console]).
+     * @param color       The {@link PlayerColor} assigned to this client.
+     * @param gamers      The shared list of connected players, used for cleanup on
+     *                    disconnect.
+     * @param gamersLock  The lock guarding {@code gamers}.
+     * @param gameManager The game of the session.
+     */
+    ClientSession(PrintWriter out, ArrayList inAdapters, ArrayList outAdapters,
+            PlayerColor color, ArrayList gamers, Lock gamersLock, GameManager gameManager) {
+        this.out = out;
+        this.inputAdapters = inAdapters;
+        this.outputAdapters = outAdapters;
+        this.color = color;
+        this.gamers = gamers;
+        this.gamersLock = gamersLock;
+        this.gameManager = gameManager;
+        this.commands = gameManager.getMailbox();
+    }
+
+    /**
+     * Queues one line from the client in the mailbox of the game: the handshake
+     * if none was received yet, a command otherwise.
+     *
+     * @param line The line without its terminator, {@code null} if the client
+     *             sent no handshake.
+     * @return {@code false} if the client asked to quit.
+     */
+    @Override
+    public boolean onLine(String line) {
+        if (!registered) {
+            registered = true;
+            commands.execute(() -> handshake(line));
+            return true;
+        }
+        if (line.equalsIgnoreCase("quit"))
+            return false;
+        commands.execute(() -> command(line));
+        return true;
+    }
+
+    /**
+     * Selects the adapters by the client type, registers the player's
+     * {@link PrintWriter} with the output adapter, sends the board size
+     * ("BOARDSIZE n") and starts the game once both players are connected.
+     *
+     * @param line The handshake line, {@code null} if the client sent none.
+     */
+    void handshake(String line) {
+        // Handshake: Determine client type and requested board size
+        int requestedSize = 0;
+        if (line != null) {
+            String[] handshake = line.trim().split(" +");
+            if (handshake.length > 1) {
+                try {
+                    requestedSize = Integer.parseInt(handshake[1]);
+                } catch (NumberFormatException e) {
+                    out.println("Niepoprawny rozmiar planszy: " + handshake[1]);
+                }
+            }
+            switch (handshake[0]) {
+                case "console":
+                    this.inAdapter = inputAdapters.get(1);
+                    this.outAdapter = outputAdapters.get(1);
+                    inAdapter.setOutAdapter(outAdapter);
+                    break;
+                case "GUI":
+                    this.inAdapter = inputAdapters.get(0);
+                    this.outAdapter = outputAdapters.get(0);
+                    inAdapter.setOutAdapter(outAdapter);
+                    break;
+                default:
+                    // Default to GUI if unknown
+                    this.inAdapter = inputAdapters.get(0);
+                    this.outAdapter = outputAdapters.get(0);
+                    inAdapter.setOutAdapter(outAdapter);
+                    break;
+            }
+        }
+
+        // Registration
+        out.println(color);
+        outAdapter.registerPlayer(color, out);
+        // Rozmiar planszy wybiera pierwszy podłączony gracz
+        if (requestedSize > 0 && gamers.size() <= 1) {
+            try {
+                if (!gameManager.setBoardSize(requestedSize)) {
+                    out.println("Gra już trwa, rozmiar planszy nie został zmieniony.");
+                }
+            } catch (IllegalArgumentException e) {
+                out.println(e.getMessage());
+            }
+        }
+        outAdapter.sendBoardSize(gameManager.getBoardSize(), color);
+        boolean full;
+        gamersLock.lock();
+        try {
+            full = gamers.size() == 2;
+        } finally {
+            gamersLock.unlock();
+        }
+        if (full) { // if we have 2 palyers then run the game
+            // Jedyne miejsce startu gry z dwoma graczami: powitanie idzie po rejestracji strumienia
+            if (gameManager.startGame())
+                System.out.println("Mamy 2 graczy! Uruchamiam grę.");
+            else
+                gameManager.sendState(color); // grę uruchomiło już powitanie drugiego gracza
+        } else {
+            out.println("WAIT Czekanie na drugiego gracza...");
+        }
+    }
+
+    /**
+     * Forwards one command to the game.
+     * <ul>
+     * <li>"quit": disconnects the client.</li>
+     * <li>"GETBOARD": requests a board update.</li>
+     * <li>Any other string is treated as a game move.</li>
+     * </ul>
+     *
+     * @param clientMessage The command line.
+     * @return {@code false} if the client asked to quit.
+     */
+    boolean command(String clientMessage) {
+        try {
+            if (clientMessage.equalsIgnoreCase("bot")) {
+                gamersLock.lock();
+                try {
+                    if (gamers.size() < 2) {
+                        System.out.println("Dodaję bota jako przeciwnika!");
+                        PlayerColor botColor = (color == PlayerColor.BLACK) ? PlayerColor.WHITE
+                                : PlayerColor.BLACK;
+                        gamers.add(botColor);
+                        botAdded = true;
+                        gameManager.activateBot(botColor);
+                        out.println("BOT_READY Przeciwnik bot został dodany.");
+                        gameManager.startGame();
+                        System.out.println("Mamy 2 graczy! Uruchamiam grę.");
+                        // Od teraz GameManager musi wiedzieć, że jeśli tura należy do botColor,
+                        // to należy wywołać botService.
+                    }
+                } finally {
+                    gamersLock.unlock();
+                }
+                return true;
+            } else if (clientMessage.contains("LOADGAMES")) {
+                inAdapter.sendGamesList(color);
+            } else if (clientMessage.startsWith("LOADBYID")) {
+                Long id = Long.parseLong(clientMessage.split(" ")[1]);
+                inAdapter.loadGameById(id);
+            }
+            if (clientMessage.equalsIgnoreCase("quit")) {
+                return false;
+            } else if (clientMessage.equals("GETBOARD")) {
+                inAdapter.sendBoardRequest(color);
+            } else if (clientMessage.equals("SKIP")) { // skip the move
+                inAdapter.sendPass(color);
+            } else if (clientMessage.equals("GIVE UP")) { // give up
+                inAdapter.sendGiveUp(color);
+            } else if (clientMessage.equals("PROPOSITION")) {
+                inAdapter.proposeFinishNegotiation(color); // Player want to end the negotiation
+            } else if (clientMessage.contains("PROP")) {
+                inAdapter.sendChangingTeritory(clientMessage, color);
+            } else if (clientMessage.equals("RESUME")) {
+                inAdapter.sendResumeGame(color); // resume the game
+            } else if (clientMessage.equals("ACCEPT")) {
+                inAdapter.acceptFinishNegotiation(color); // Player accepts the proposition
+            } else {
+                inAdapter.makeMove(clientMessage, color);
+            }
+        } catch (Exception wrongmove) {
+            out.println(wrongmove.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * Sets what is done after the player's slot is freed, e.g. removing an
+     * empty room.
+     *
+     * @param onLeave Action run at the end of the cleanup.
+     */
+    void setOnLeave(Runnable onLeave) {
+        this.onLeave = onLeave;
+    }
+
+    /**
+     * Queues the cleanup after the client has disconnected, see
+     * {@link #close()}.
+     */
+    @Override
+    public void onClose() {
+        close();
+    }
+
+    /**
+     * Queues the cleanup after the client has disconnected: frees the player's
+     * slot (and the slot of the bot the player added), stops sending to the
+     * player, pauses the game and removes the bot playing against this player.
+     * The cleanup runs after the commands the client sent before.
+     *
+     * @return Completed when the cleanup has run.
+     */
+    CompletableFuture<Void> close() {
+        return CompletableFuture.runAsync(this::leave, commands);
+    }
+
+    private void leave() {
+        PlayerColor botColor = (color == PlayerColor.BLACK) ? PlayerColor.WHITE
+                : PlayerColor.BLACK;
+        if (outAdapter != null)
+            outAdapter.unregisterPlayer(color);
+        gamersLock.lock();
+        try {
+            gamers.remove(color);
+            if (botAdded)
+                gamers.remove(botColor);
+        } finally {
+            gamersLock.unlock();
+        }
+        try {
+            gameManager.waitGame();
+            gameManager.deActivateBot(botColor);
+        } finally {
+            if (onLeave != null)
+                onLeave.run();
+        }
+    }
+}
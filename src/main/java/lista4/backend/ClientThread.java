@@ -6,6 +6,8 @@ import java.io.PrintWriter;
 import java.net.Socket;
 import java.util.Scanner;
 import java.util.ArrayList;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.Lock;
 
 import lista4.gameInterface.GameInputAdapter;
 import lista4.gameInterface.GameOutputAdapter;
@@ -13,11 +15,14 @@ import lista4.gameLogic.GameManager;
 import lista4.gameLogic.PlayerColor;
 
 /**
- * Handles the server-side communication for a single connected client.
+ * Handles the server-side communication for a single connected client over a
+ * blocking socket.
  * <p>
- * This class runs as a separate thread for each player. It is responsible for:
+ * This class runs as a separate thread for each player and reads lines for a
+ * {@link ClientSession}, which is responsible for:
  * <ul>
- * <li>Negotiating the client type (Console vs. GUI) upon connection.</li>
+ * <li>Negotiating the client type (Console vs. GUI) and the board size upon
+ * connection.</li>
  * <li>Registering the player's output stream with the
  * {@link GameOutputAdapter}.</li>
  * <li>Listening for incoming commands from the client.</li>
@@ -30,12 +35,6 @@ class ClientThread implements Runnable {
     /** The socket connection to the client. */
     private Socket socket;
 
-    /** The currently active input adapter (Console or GUI). */
-    GameInputAdapter inAdapter;
-
-    /** The currently active output adapter (Console or GUI). */
-    GameOutputAdapter outAdapter;
-
     /** List of available input adapters to choose from. */
     ArrayList<GameInputAdapter> inputAdapters = new ArrayList<>();
 
@@ -48,9 +47,28 @@ class ClientThread implements Runnable {
     /** Reference to the shared list of active players for connection management. */
     ArrayList gamers;
 
+    /** The lock guarding {@code gamers}. */
+    Lock gamersLock;
+
+    /** The room of the player, {@code null} if the parts were given directly. */
+    private GameRoom room;
+
     /** Reference to the gameManager to start or change the state of game. */
     GameManager gameManager;
 
+    /**
+     * Constructs a new ClientThread for a player who took a slot of a room.
+     *
+     * @param socket The socket connected to the client.
+     * @param room   The room of the player.
+     * @param color  The {@link PlayerColor} assigned to this client.
+     */
+    ClientThread(Socket socket, GameRoom room, PlayerColor color) {
+        this(socket, room.inputAdapters, room.outputAdapters, color, room.gamers, room.gamersLock,
+                room.gameManager);
+        this.room = room;
+    }
+
     /**
      * Constructs a new ClientThread.
      *
@@ -62,14 +80,16 @@ class ClientThread implements Runnable {
      * @param color       The {@link PlayerColor} assigned to this client.
      * @param gamers      The shared list of connected players, used for cleanup on
      *                    disconnect.
+     * @param gamersLock  The lock guarding {@code gamers}.
      */
     ClientThread(Socket socket, ArrayList inAdapters, ArrayList outAdapters,
-            PlayerColor color, ArrayList gamers, GameManager gameManager) {
+            PlayerColor color, ArrayList gamers, Lock gamersLock, GameManager gameManager) {
         this.socket = socket;
         this.inputAdapters = inAdapters;
         this.outputAdapters = outAdapters;
         this.color = color;
         this.gamers = gamers;
+        this.gamersLock = gamersLock;
         this.gameManager = gameManager;
     }
 
@@ -80,9 +100,11 @@ class ClientThread implements Runnable {
      * <ol>
      * <li>Initializes input and output streams.</li>
      * <li>Waits for the initial handshake message to determine client type
-     * ("console" or "GUI").</li>
+     * ("console" or "GUI"), optionally followed by the requested board size
+     * (e.g. "GUI 13").</li>
      * <li>Selects the appropriate adapters based on the handshake.</li>
-     * <li>Registers the player's {@link PrintWriter} with the output adapter.</li>
+     * <li>Registers the player's {@link PrintWriter} with the output adapter and
+     * sends the board size of the game ("BOARDSIZE n").</li>
      * <li>Enters a loop to listen for commands:
      * <ul>
      * <li>"quit": disconnects the client.</li>
@@ -99,103 +121,29 @@ class ClientThread implements Runnable {
 
         try (Scanner in = new Scanner(socket.getInputStream());
                 PrintWriter out = new PrintWriter(socket.getOutputStream(), true)) {
-
-            // Handshake: Determine client type
-            if (in.hasNextLine()) {
-                String clientMessage = in.nextLine();
-                switch (clientMessage) {
-                    case "console":
-                        this.inAdapter = inputAdapters.get(1);
-                        this.outAdapter = outputAdapters.get(1);
-                        inAdapter.setOutAdapter(outAdapter);
-                        break;
-                    case "GUI":
-                        this.inAdapter = inputAdapters.get(0);
-                        this.outAdapter = outputAdapters.get(0);
-                        inAdapter.setOutAdapter(outAdapter);
-                        break;
-                    default:
-                        // Default to GUI if unknown
-                        this.inAdapter = inputAdapters.get(0);
-                        this.outAdapter = outputAdapters.get(0);
-                        inAdapter.setOutAdapter(outAdapter);
-                        break;
-                }
-            }
-
-            // Registration
-            out.println(color);
-            outAdapter.registerPlayer(color, out);
-            if (gamers.size() == 2) { // if we have 2 palyers then run the game
-                synchronized (gamers) {
-                    System.out.println("Mamy 2 graczy! Uruchamiam grę.");
-                    gameManager.startGame();
-                }
-            } else {
-                out.println("WAIT Czekanie na drugiego gracza...");
-            }
-            // Command Loop
-            while (in.hasNextLine()) {
-                String clientMessage = in.nextLine();
-                try {
-                    if (clientMessage.equalsIgnoreCase("bot")) {
-                        synchronized (gamers) {
-                            if (gamers.size() < 2) {
-                                System.out.println("Dodaję bota jako przeciwnika!");
-                                PlayerColor botColor = (color == PlayerColor.BLACK) ? PlayerColor.WHITE
-                                        : PlayerColor.BLACK;
-                                gamers.add(botColor);
-                                gameManager.activateBot(botColor);
-                                out.println("BOT_READY Przeciwnik bot został dodany.");
-                                gameManager.startGame();
-                                System.out.println("Mamy 2 graczy! Uruchamiam grę.");
-                                // Od teraz GameManager musi wiedzieć, że jeśli tura należy do botColor,
-                                // to należy wywołać botService.
-                            }
-                        }
-                        continue;
-                    } else if (clientMessage.contains("LOADGAMES")) {
-                        inAdapter.sendGamesList(color);
-                    } else if (clientMessage.startsWith("LOADBYID")) {
-                        Long id = Long.parseLong(clientMessage.split(" ")[1]);
-                        inAdapter.loadGameById(id);
-                    }
-                    if (clientMessage.equalsIgnoreCase("quit")) {
+            ClientSession session = room != null ? room.openSession(out, color)
+                    : new ClientSession(out, inputAdapters, outputAdapters, color, gamers, gamersLock, gameManager);
+            try {
+                // Handshake: Determine client type and requested board size
+                session.onLine(in.hasNextLine() ? in.nextLine() : null);
+                // Command Loop
+                while (in.hasNextLine()) {
+                    if (!session.onLine(in.nextLine())) {
                         break;
-                    } else if (clientMessage.equals("GETBOARD")) {
-                        inAdapter.sendBoardRequest(color);
-                    } else if (clientMessage.equals("SKIP")) { // skip the move
-                        inAdapter.sendPass(color);
-                    } else if (clientMessage.equals("GIVE UP")) { // give up
-                        inAdapter.sendGiveUp(color);
-                    } else if (clientMessage.equals("PROPOSITION")) {
-                        inAdapter.proposeFinishNegotiation(color); // Player want to end the negotiation
-                    } else if (clientMessage.contains("PROP")) {
-                        inAdapter.sendChangingTeritory(clientMessage, color);
-                    } else if (clientMessage.equals("RESUME")) {
-                        inAdapter.sendResumeGame(color); // resume the game
-                    } else if (clientMessage.equals("ACCEPT")) {
-                        inAdapter.acceptFinishNegotiation(color); // Player accepts the proposition
-                    } else {
-                        inAdapter.makeMove(clientMessage, color);
                     }
-                } catch (Exception wrongmove) {
-                    out.println(wrongmove.getMessage());
                 }
-
-                if (clientMessage.equalsIgnoreCase("quit")) {
-                    break;
+            } finally {
+                // Gniazdo zamykamy dopiero po komendach wysłanych przed rozłączeniem
+                try {
+                    session.close().join();
+                } catch (CompletionException e) {
+                    System.err.println("Błąd zamykania sesji klienta: " + e.getCause().getMessage());
                 }
             }
         } catch (IOException e) {
             System.err.println("Błąd komunikacji z klientem " + socket.getInetAddress() + ": " + e.getMessage());
         } finally {
             try {
-                gamers.remove(color);
-                gameManager.waitGame();
-                PlayerColor botColor = (color == PlayerColor.BLACK) ? PlayerColor.WHITE
-                        : PlayerColor.BLACK;
-                gameManager.deActivateBot(botColor);
                 socket.close();
                 System.out.println(">> Połączenie zakończone z klientem: " + socket.getInetAddress());
             } catch (IOException e) {
@@ -0,0 +1,139 @@
+package lista4.backend;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import lista4.gameLogic.GameManager;
+import lista4.gameLogic.PlayerColor;
+
+/**
+ * Rooms of the games hosted by one server.
+ * <p>
+ * A connecting player joins the oldest room where a player waits for an
+ * opponent, else an empty room, else a new room; a room other than the
+ * default one is removed when its last player leaves. The default room plays
+ * {@link GameManager#getInstance()}, every other room a new
+ * {@link GameManager} with its settings.
+ * </p>
+ */
+public class GameRegistry {
+
+    /** Default maximum number of rooms. */
+    public static final int DEFAULT_MAX_ROOMS = 500;
+
+    /**
+     * A slot taken by a connecting player.
+     *
+     * @param room  Room of the game
+     * @param color Color of the player
+     */
+    public record Seat(GameRoom room, PlayerColor color) {
+    }
+
+    private final GameManager settings;
+    private final int maxRooms;
+    private final GameRoom defaultRoom;
+
+    /** Rooms by id, in the order of creation; guarded by {@link #lock} */
+    private final Map<Integer, GameRoom> rooms = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private int nextId = 1;
+
+    /**
+     * @param defaultGame Game of the default room and settings of the others
+     * @param maxRooms    Most rooms at a time, the default one included
+     */
+    public GameRegistry(GameManager defaultGame, int maxRooms) {
+        if (maxRooms < 1)
+            throw new IllegalArgumentException("Liczba pokojów musi być dodatnia: " + maxRooms);
+        this.settings = defaultGame;
+        this.maxRooms = maxRooms;
+        this.defaultRoom = new GameRoom(0, defaultGame, this);
+        rooms.put(0, defaultRoom);
+    }
+
+    /**
+     * Finds a slot for a connecting player.
+     *
+     * @return The room and color of the player, {@code null} if all rooms are
+     *         full and no new one may be created
+     */
+    public Seat join() {
+        lock.lock();
+        try {
+            // Najpierw gracz czekający na przeciwnika, potem pusty pokój
+            for (int wanted = 1; wanted >= 0; wanted--) {
+                for (GameRoom room : rooms.values()) {
+                    if (room.players() == wanted) {
+                        PlayerColor color = room.claimSlot();
+                        if (color != null)
+                            return new Seat(room, color);
+                    }
+                }
+            }
+            if (rooms.size() >= maxRooms)
+                return null;
+            GameRoom room = new GameRoom(nextId++, new GameManager(settings), this);
+            rooms.put(room.getId(), room);
+            System.out.println("Nowy pokój gry nr " + room.getId() + " (pokoi: " + rooms.size() + ")");
+            return new Seat(room, room.claimSlot());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the room if its last player has left; called after a player's
+     * session is closed.
+     *
+     * @param room Room the player has left
+     */
+    void leave(GameRoom room) {
+        lock.lock();
+        try {
+            if (room != defaultRoom && room.players() == 0)
+                rooms.remove(room.getId());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the room of {@link GameManager#getInstance()}.
+     *
+     * @return Default room
+     */
+    public GameRoom getDefaultRoom() {
+        return defaultRoom;
+    }
+
+    /**
+     * Finds a room by its number.
+     *
+     * @param id Room id
+     * @return The room, {@code null} if there is none
+     */
+    public GameRoom getRoom(int id) {
+        lock.lock();
+        try {
+            return rooms.get(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of rooms, the default one included.
+     *
+     * @return Rooms
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return rooms.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package lista4.backend;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+import lista4.adapters.GUIInputGameAdapter;
+import lista4.adapters.GUIOutputGameAdapter;
+import lista4.adapters.InputGameAdapter;
+import lista4.adapters.OutputGameAdapter;
+import lista4.gameInterface.GameInputAdapter;
+import lista4.gameInterface.GameOutputAdapter;
+import lista4.gameLogic.GameManager;
+import lista4.gameLogic.PlayerColor;
+
+/**
+ * One game hosted by the server: its {@link GameManager}, the adapters
+ * holding the streams of its players and the player slots.
+ * <p>
+ * Rooms share nothing with each other, so many games run in one process.
+ * Rooms are created and found by {@link GameRegistry}.
+ * </p>
+ */
+public class GameRoom {
+
+    /** The maximum number of players allowed in a room. */
+    static final int GAMERS_NUMBER = 2;
+
+    /** Number of the room, unique in its registry. */
+    private final int id;
+
+    /** The game of the room. */
+    final GameManager gameManager;
+
+    /** Registry told when a player leaves, {@code null} for a standalone room. */
+    private final GameRegistry registry;
+
+    /** Input adapters of the room (index 0: GUI, index 1: Console). */
+    final ArrayList<GameInputAdapter> inputAdapters = new ArrayList<>();
+
+    /** Output adapters of the room (index 0: GUI, index 1: Console). */
+    final ArrayList<GameOutputAdapter> outputAdapters = new ArrayList<>();
+
+    /** Colors of the players in the room, including a bot. */
+    final ArrayList<PlayerColor> gamers = new ArrayList<>();
+
+    /**
+     * Guards {@link #gamers}. A lock instead of the monitor of the list, because
+     * the game is started while holding it, which writes to sockets and the
+     * database and would pin the carrier of a virtual thread.
+     */
+    final ReentrantLock gamersLock = new ReentrantLock();
+
+    /**
+     * Creates a room with its own adapters.
+     *
+     * @param id          Number of the room.
+     * @param gameManager The game of the room.
+     * @param registry    Registry of the room, {@code null} for a standalone
+     *                    room.
+     */
+    GameRoom(int id, GameManager gameManager, GameRegistry registry) {
+        this.id = id;
+        this.gameManager = gameManager;
+        this.registry = registry;
+        GameOutputAdapter outAdapter = new OutputGameAdapter();
+        GameOutputAdapter guiOutAdapter = new GUIOutputGameAdapter();
+        inputAdapters.add(new GUIInputGameAdapter(gameManager, guiOutAdapter));
+        inputAdapters.add(new InputGameAdapter(gameManager, outAdapter));
+        outputAdapters.add(guiOutAdapter);
+        outputAdapters.add(outAdapter);
+        // Gra może wystartować, zanim pierwszy gracz wybierze interfejs
+        if (gameManager.getAdapter() == null)
+            gameManager.setAdapter(guiOutAdapter);
+    }
+
+    /**
+     * Returns the number of the room.
+     *
+     * @return Room id
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Returns the game of the room.
+     *
+     * @return Manager of the game
+     */
+    public GameManager getGameManager() {
+        return gameManager;
+    }
+
+    /**
+     * Assigns a free player slot. The game starts when the player of the
+     * second slot sends the handshake (see {@link ClientSession}).
+     *
+     * @return The assigned color, {@code null} if both slots are taken.
+     */
+    PlayerColor claimSlot() {
+        gamersLock.lock();
+        try {
+            if (gamers.size() < GAMERS_NUMBER && !gamers.contains(PlayerColor.BLACK)) {
+                // Assign Black Player
+                gamers.add(PlayerColor.BLACK);
+                return PlayerColor.BLACK;
+            } else if (gamers.size() < GAMERS_NUMBER && !gamers.contains(PlayerColor.WHITE)) {
+                // Assign White Player
+                gamers.add(PlayerColor.WHITE);
+                return PlayerColor.WHITE;
+            }
+            return null;
+        } finally {
+            gamersLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of taken slots, a bot included.
+     *
+     * @return Players in the room
+     */
+    int players() {
+        gamersLock.lock();
+        try {
+            return gamers.size();
+        } finally {
+            gamersLock.unlock();
+        }
+    }
+
+    /**
+     * Creates the protocol session of a player who took a slot of this room.
+     *
+     * @param out   The stream to the client.
+     * @param color The color returned by {@link #claimSlot()}.
+     * @return Session forwarding the client's commands to this room
+     */
+    ClientSession openSession(PrintWriter out, PlayerColor color) {
+        ClientSession session = new ClientSession(out, inputAdapters, outputAdapters, color, gamers, gamersLock,
+                gameManager);
+        if (registry != null)
+            session.setOnLeave(() -> registry.leave(this));
+        return session;
+    }
+}
@@ -0,0 +1,253 @@
+package lista4.backend;
+
+import lista4.gameLogic.PlayerColor;
+
+import java.io.PrintStream;
+
+/**
+ * Influence map of {@link BotService} kept in flat primitive arrays.
+ * <p>
+ * Points are indexed {@code y * size + x}. The map of every dilation step is
+ * kept ({@link #layers}), so after a move only the points whose value can
+ * change are computed again: a step spreads a change by one point, so step k
+ * changes at most the points within distance k of a changed stone. The first
+ * call, a new board size or a board that changed a lot computes all layers.
+ * Buffers are reused, so nothing is allocated after the first call for a board
+ * size.
+ * <p>
+ * All values stay whole numbers (stones are ±128 and every step rounds the
+ * neighbour average), so ints give exactly the results of the original
+ * {@code double[][]} version. An instance must not be used by several threads
+ * at once.
+ */
+final class InfluenceMap {
+
+    /** Influence of a black stone; white stones have the negated value */
+    static final int STONE_INFLUENCE = 128;
+
+    /** Number of dilation steps */
+    static final int ITERATIONS = 8;
+
+    private int size;
+
+    /** layers[0] holds the stones, layers[k] the map after k dilation steps */
+    private int[][] layers = new int[ITERATIONS + 1][0];
+
+    /** Stone influence of every point, as in the last board seen */
+    private int[] stones = new int[0];
+
+    // Punkty do przeliczenia: lista i znacznik "już na liście" (numer przebiegu)
+    private int[] region = new int[0];
+    private int[] inRegion = new int[0];
+    private int epoch;
+
+    private boolean valid;
+
+    /**
+     * Computes the influence of the stones of a board from scratch.
+     *
+     * @param board Matrix indexed [x][y]: 0 empty, 1 black, 2 white
+     */
+    void compute(int[][] board) {
+        resize(board.length);
+        int[] first = layers[0];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int p = y * size + x;
+                stones[p] = stoneValue(board[x][y]);
+                first[p] = stones[p];
+            }
+        }
+        for (int k = 1; k <= ITERATIONS; k++) {
+            int[] src = layers[k - 1];
+            int[] dst = layers[k];
+            for (int p = 0; p < stones.length; p++) {
+                dst[p] = stones[p] != 0 ? stones[p] : averageAt(src, p);
+            }
+        }
+        valid = true;
+    }
+
+    /**
+     * Brings the map up to date with a board which differs from the last one
+     * by a few stones (a move and its captures), computing again only the
+     * points a change can reach.
+     *
+     * @param board Matrix indexed [x][y]: 0 empty, 1 black, 2 white
+     * @return Number of points computed again
+     */
+    int update(int[][] board) {
+        if (!valid || board.length != size) {
+            compute(board);
+            return size * size * ITERATIONS;
+        }
+
+        // Zmienione kamienie (ruch i zbicia) są zarodkiem obszaru
+        epoch++;
+        int count = 0;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int p = y * size + x;
+                int value = stoneValue(board[x][y]);
+                if (value != stones[p]) {
+                    stones[p] = value;
+                    layers[0][p] = value;
+                    inRegion[p] = epoch;
+                    region[count++] = p;
+                }
+            }
+        }
+        if (count == 0)
+            return 0;
+
+        int computed = 0;
+        int frontierStart = 0;
+        for (int k = 1; k <= ITERATIONS; k++) {
+            // Obszar rośnie o jeden punkt w każdym kierunku
+            int frontierEnd = count;
+            for (int i = frontierStart; i < frontierEnd && count < region.length; i++) {
+                int p = region[i];
+                int x = p % size;
+                if (x > 0)
+                    count = mark(p - 1, count);
+                if (x < size - 1)
+                    count = mark(p + 1, count);
+                if (p >= size)
+                    count = mark(p - size, count);
+                if (p + size < region.length)
+                    count = mark(p + size, count);
+            }
+            frontierStart = frontierEnd;
+
+            int[] src = layers[k - 1];
+            int[] dst = layers[k];
+            for (int i = 0; i < count; i++) {
+                int p = region[i];
+                dst[p] = stones[p] != 0 ? stones[p] : averageAt(src, p);
+            }
+            computed += count;
+        }
+        return computed;
+    }
+
+    /**
+     * Finds the empty point with the strongest influence of the given color,
+     * scanning rows from the top and points from the left (first one wins).
+     *
+     * @param board Matrix used by the last update
+     * @param color BLACK or WHITE
+     * @return Point index, -1 if there is no empty point
+     */
+    int bestPoint(int[][] board, PlayerColor color) {
+        int[] map = layers[ITERATIONS];
+        int sign = color == PlayerColor.BLACK ? 1 : -1;
+        int best = -1;
+        int bestValue = Integer.MIN_VALUE;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                if (board[x][y] != 0)
+                    continue;
+                int value = sign * map[y * size + x];
+                if (best < 0 || value > bestValue) {
+                    bestValue = value;
+                    best = y * size + x;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the influence at a point after the last computation.
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return Positive for black influence, negative for white
+     */
+    int get(int x, int y) {
+        return layers[ITERATIONS][y * size + x];
+    }
+
+    int getSize() {
+        return size;
+    }
+
+    /**
+     * Prints the map row by row, in the format of the old debugging output.
+     *
+     * @param out Stream to print to
+     */
+    void dump(PrintStream out) {
+        int[] map = layers[ITERATIONS];
+        StringBuilder line = new StringBuilder();
+        for (int y = 0; y < size; y++) {
+            line.setLength(0);
+            for (int x = 0; x < size; x++) {
+                line.append('[').append((double) map[y * size + x]).append(']');
+            }
+            out.println(line);
+        }
+    }
+
+    private int mark(int p, int count) {
+        if (inRegion[p] != epoch) {
+            inRegion[p] = epoch;
+            region[count++] = p;
+        }
+        return count;
+    }
+
+    private void resize(int newSize) {
+        if (newSize == size)
+            return;
+        size = newSize;
+        int points = size * size;
+        for (int k = 0; k <= ITERATIONS; k++) {
+            layers[k] = new int[points];
+        }
+        stones = new int[points];
+        region = new int[points];
+        inRegion = new int[points];
+        epoch = 0;
+        valid = false;
+    }
+
+    private static int stoneValue(int field) {
+        return field == 1 ? STONE_INFLUENCE : field == 2 ? -STONE_INFLUENCE : 0;
+    }
+
+    /**
+     * Rounded average of the point and its neighbours on the board.
+     */
+    private int averageAt(int[] src, int p) {
+        int x = p % size;
+        int sum = src[p];
+        int count = 1;
+        if (x > 0) {
+            sum += src[p - 1];
+            count++;
+        }
+        if (x < size - 1) {
+            sum += src[p + 1];
+            count++;
+        }
+        if (p >= size) {
+            sum += src[p - size];
+            count++;
+        }
+        if (p + size < src.length) {
+            sum += src[p + size];
+            count++;
+        }
+        return average(sum, count);
+    }
+
+    /**
+     * Same as {@code Math.round((double) sum / count)} (halves rounded up), in
+     * integer arithmetic: the average of at most five points is never close
+     * enough to a half for the double division to round differently.
+     */
+    private static int average(int sum, int count) {
+        return Math.floorDiv(2 * sum + count, 2 * count);
+    }
+}
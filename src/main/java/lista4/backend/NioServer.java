@@ -0,0 +1,476 @@
+package lista4.backend;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Line-based TCP transport serving all connections from a few event-loop
+ * threads instead of one thread per socket.
+ * <p>
+ * One acceptor thread accepts connections and hands them round-robin to the
+ * event loops. Every event loop owns a {@link Selector} and one direct read
+ * buffer reused for all its connections; bytes are split into lines
+ * (terminated by "\n", an optional "\r" is dropped) and passed to the
+ * {@link LineHandler} of the connection on the loop thread, in order. A
+ * handler writes through an ordinary {@link PrintWriter}: flushed text is
+ * appended to the connection's output buffer and sent by its event loop when
+ * the socket accepts it, so a handler never blocks on a slow client. A client
+ * whose pending output or unfinished line grows past {@link #MAX_PENDING_BYTES}
+ * or {@link #MAX_LINE_BYTES} is disconnected.
+ * </p>
+ * <p>
+ * Handlers run on the event loop, so they should not block for long; other
+ * connections of the same loop wait meanwhile.
+ * </p>
+ */
+public class NioServer implements AutoCloseable {
+
+    /** Default number of event-loop threads. */
+    public static final int DEFAULT_EVENT_LOOPS = 2;
+
+    /** Longest accepted line in bytes, without the terminator. */
+    public static final int MAX_LINE_BYTES = 8 * 1024;
+
+    /** Most output waiting for a client before it is disconnected. */
+    public static final int MAX_PENDING_BYTES = 1024 * 1024;
+
+    private static final int READ_BUFFER_BYTES = 16 * 1024;
+
+    /**
+     * Protocol of one connection, called on its event loop.
+     */
+    public interface LineHandler {
+
+        /**
+         * Handles one received line.
+         *
+         * @param line The line without its terminator.
+         * @return {@code false} to close the connection after the pending output.
+         */
+        boolean onLine(String line);
+
+        /**
+         * Called once after the connection is closed, by either side.
+         */
+        void onClose();
+    }
+
+    /**
+     * Creates the handler of a new connection.
+     */
+    public interface HandlerFactory {
+
+        /**
+         * @param out Stream to the client, flushed automatically on println.
+         * @return Handler of the connection, or {@code null} to close it after
+         *         sending what was written to {@code out}.
+         */
+        LineHandler open(PrintWriter out);
+    }
+
+    private final int port;
+    private final HandlerFactory factory;
+    private final EventLoop[] loops;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private volatile ServerSocketChannel listener;
+    private volatile boolean closed;
+
+    /**
+     * @param port       Port to listen on, 0 for any free port.
+     * @param eventLoops Number of event-loop threads.
+     * @param factory    Creates the handler of every accepted connection.
+     */
+    public NioServer(int port, int eventLoops, HandlerFactory factory) {
+        if (eventLoops < 1)
+            throw new IllegalArgumentException("Liczba pętli zdarzeń musi być dodatnia: " + eventLoops);
+        this.port = port;
+        this.factory = factory;
+        this.loops = new EventLoop[eventLoops];
+    }
+
+    /**
+     * Binds the port and starts the acceptor and event-loop threads.
+     *
+     * @throws IOException if the port cannot be bound.
+     */
+    public void start() throws IOException {
+        if (listener != null)
+            throw new IllegalStateException("Serwer już działa");
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        try {
+            channel.bind(new InetSocketAddress(port));
+            for (int i = 0; i < loops.length; i++) {
+                loops[i] = new EventLoop(Selector.open());
+                Thread thread = new Thread(loops[i], "nio-loop-" + i);
+                thread.setDaemon(true);
+                thread.start();
+            }
+        } catch (IOException e) {
+            channel.close();
+            close();
+            throw e;
+        }
+        listener = channel;
+        Thread acceptor = new Thread(this::acceptLoop, "nio-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return Bound port, useful when started with port 0.
+     */
+    public int getPort() {
+        return listener.socket().getLocalPort();
+    }
+
+    /**
+     * Waits until the server is closed.
+     *
+     * @throws InterruptedException if the waiting thread is interrupted.
+     */
+    public void awaitTermination() throws InterruptedException {
+        stopped.await();
+    }
+
+    /**
+     * Stops accepting, closes all connections and stops the threads.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            if (listener != null)
+                listener.close();
+        } catch (IOException ignored) {
+            // Zamykamy mimo błędu
+        }
+        for (EventLoop loop : loops) {
+            if (loop != null)
+                loop.selector.wakeup();
+        }
+        stopped.countDown();
+    }
+
+    private void acceptLoop() {
+        int next = 0;
+        while (!closed) {
+            try {
+                SocketChannel channel = listener.accept();
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                loops[next].register(channel);
+                next = (next + 1) % loops.length;
+            } catch (AsynchronousCloseException e) {
+                break;
+            } catch (IOException e) {
+                System.err.println("Błąd przyjmowania połączenia: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * One selector thread with its connections.
+     */
+    private final class EventLoop implements Runnable {
+
+        private final Selector selector;
+        private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_BYTES);
+        private final Queue<SocketChannel> accepted = new ConcurrentLinkedQueue<>();
+        private final Queue<Connection> writable = new ConcurrentLinkedQueue<>();
+        private volatile Thread thread;
+
+        EventLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        void register(SocketChannel channel) {
+            accepted.add(channel);
+            selector.wakeup();
+        }
+
+        /** Asks the loop to send pending output of the connection. */
+        void wantWrite(Connection connection) {
+            if (Thread.currentThread() == thread) {
+                connection.updateInterest();
+            } else {
+                writable.add(connection);
+                selector.wakeup();
+            }
+        }
+
+        @Override
+        public void run() {
+            thread = Thread.currentThread();
+            try {
+                while (!closed) {
+                    selector.select();
+                    SocketChannel channel;
+                    while ((channel = accepted.poll()) != null) {
+                        open(channel);
+                    }
+                    Connection connection;
+                    while ((connection = writable.poll()) != null) {
+                        connection.updateInterest();
+                    }
+                    for (SelectionKey key : selector.selectedKeys()) {
+                        handle(key);
+                    }
+                    selector.selectedKeys().clear();
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                if (!closed)
+                    System.err.println("Błąd pętli zdarzeń: " + e.getMessage());
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    if (key.attachment() instanceof Connection connection)
+                        connection.close();
+                }
+                try {
+                    selector.close();
+                } catch (IOException ignored) {
+                    // Zamykamy mimo błędu
+                }
+            }
+        }
+
+        private void open(SocketChannel channel) {
+            Connection connection = new Connection(this, channel);
+            try {
+                connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            } catch (IOException e) {
+                connection.close();
+                return;
+            }
+            try {
+                connection.handler = factory.open(connection.out);
+            } catch (RuntimeException e) {
+                System.err.println("Błąd otwierania połączenia: " + e.getMessage());
+                connection.close();
+                return;
+            }
+            if (connection.handler == null)
+                connection.closeAfterWrite();
+        }
+
+        private void handle(SelectionKey key) {
+            Connection connection = (Connection) key.attachment();
+            try {
+                if (key.isValid() && key.isReadable())
+                    connection.read(readBuffer);
+                if (key.isValid() && key.isWritable())
+                    connection.write();
+            } catch (IOException | RuntimeException e) {
+                // Błąd jednego połączenia nie zatrzymuje pętli
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * State of one client socket: the unfinished input line and the pending
+     * output.
+     */
+    private static final class Connection {
+
+        private final EventLoop loop;
+        private final SocketChannel channel;
+        private final PrintWriter out;
+        private SelectionKey key;
+        private LineHandler handler;
+
+        /** Bytes of the line being received */
+        private byte[] line = new byte[256];
+        private int lineLength;
+
+        /** Pending output in write mode, guarded by the connection */
+        private ByteBuffer output = ByteBuffer.allocate(1024);
+        private volatile boolean closing;
+        private boolean closed;
+
+        Connection(EventLoop loop, SocketChannel channel) {
+            this.loop = loop;
+            this.channel = channel;
+            this.out = new PrintWriter(new ConnectionWriter(this), true);
+        }
+
+        void read(ByteBuffer buffer) throws IOException {
+            buffer.clear();
+            int read = channel.read(buffer);
+            if (read < 0) {
+                close();
+                return;
+            }
+            buffer.flip();
+            while (buffer.hasRemaining() && !closing && !closed) {
+                byte b = buffer.get();
+                if (b == '\n') {
+                    int length = lineLength > 0 && line[lineLength - 1] == '\r' ? lineLength - 1 : lineLength;
+                    String text = new String(line, 0, length, StandardCharsets.UTF_8);
+                    lineLength = 0;
+                    dispatch(text);
+                } else if (lineLength == MAX_LINE_BYTES) {
+                    out.println("Zbyt długa linia, rozłączam.");
+                    closeAfterWrite();
+                } else {
+                    if (lineLength == line.length)
+                        line = Arrays.copyOf(line, Math.min(line.length * 2, MAX_LINE_BYTES));
+                    line[lineLength++] = b;
+                }
+            }
+        }
+
+        private void dispatch(String text) {
+            if (handler == null)
+                return;
+            boolean keep;
+            try {
+                keep = handler.onLine(text);
+            } catch (RuntimeException e) {
+                System.err.println("Błąd obsługi komendy " + text + ": " + e.getMessage());
+                keep = true;
+            }
+            if (!keep)
+                closeAfterWrite();
+        }
+
+        /** Appends encoded text to the output; called from any thread. */
+        void enqueue(byte[] bytes) {
+            synchronized (this) {
+                if (closed)
+                    return;
+                if (output.position() + bytes.length > MAX_PENDING_BYTES) {
+                    // Klient nie odbiera danych, nie trzymamy ich bez końca
+                    closing = true;
+                    output.clear();
+                } else {
+                    if (output.remaining() < bytes.length) {
+                        int capacity = Math.max(output.capacity() * 2, output.position() + bytes.length);
+                        ByteBuffer bigger = ByteBuffer.allocate(Math.min(capacity, MAX_PENDING_BYTES));
+                        output.flip();
+                        output = bigger.put(output);
+                    }
+                    output.put(bytes);
+                }
+            }
+            loop.wantWrite(this);
+        }
+
+        void write() throws IOException {
+            boolean done;
+            synchronized (this) {
+                output.flip();
+                channel.write(output);
+                output.compact();
+                done = output.position() == 0;
+            }
+            if (done && closing)
+                close();
+            else
+                updateInterest();
+        }
+
+        /** Sets the interest to the pending output; called on the loop thread. */
+        void updateInterest() {
+            if (closed || key == null || !key.isValid())
+                return;
+            boolean pending;
+            synchronized (this) {
+                pending = output.position() > 0;
+            }
+            if (!pending && closing) {
+                close();
+                return;
+            }
+            key.interestOps(pending ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+
+        void closeAfterWrite() {
+            synchronized (this) {
+                closing = true;
+            }
+            loop.wantWrite(this);
+        }
+
+        void close() {
+            synchronized (this) {
+                if (closed)
+                    return;
+                closed = true;
+            }
+            if (key != null)
+                key.cancel();
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Zamykamy mimo błędu
+            }
+            if (handler != null) {
+                try {
+                    handler.onClose();
+                } catch (RuntimeException e) {
+                    System.err.println("Błąd zamykania połączenia: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects written characters and hands them to the connection on flush.
+     */
+    private static final class ConnectionWriter extends Writer {
+
+        private final Connection connection;
+        private final StringBuilder text = new StringBuilder();
+
+        ConnectionWriter(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            synchronized (text) {
+                text.append(chars, offset, length);
+            }
+        }
+
+        @Override
+        public void write(String string, int offset, int length) {
+            synchronized (text) {
+                text.append(string, offset, offset + length);
+            }
+        }
+
+        @Override
+        public void flush() {
+            byte[] bytes;
+            synchronized (text) {
+                if (text.length() == 0)
+                    return;
+                bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+                text.setLength(0);
+            }
+            connection.enqueue(bytes);
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
+    }
+}
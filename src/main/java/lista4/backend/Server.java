@@ -1,24 +1,14 @@
 package lista4.backend;
 
 import java.io.IOException;
+import java.io.PrintWriter;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.List;
-import java.util.ArrayList;
 
-import lista4.dbRepositories.GameRepository;
-import lista4.dbRepositories.MoveRepository;
 import lista4.gameLogic.GameManager;
 import lista4.gameLogic.PlayerColor;
-import lista4.gameInterface.GameInputAdapter;
-import lista4.gameInterface.GameOutputAdapter;
-import lista4.adapters.InputGameAdapter;
-import lista4.adapters.OutputGameAdapter;
-import lista4.adapters.GUIInputGameAdapter;
-import lista4.adapters.GUIOutputGameAdapter;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 /**
@@ -28,67 +18,87 @@ import org.springframework.stereotype.Component;
  * game.
  * Its primary responsibilities include:
  * <ul>
- * <li>Creating and maintaining the singleton instance of
- * {@link GameManager}.</li>
- * <li>Initializing communication adapters for both Console and GUI
- * clients.</li>
+ * <li>Hosting many games at once in the rooms of a {@link GameRegistry}; the
+ * default room plays the instance of {@link GameManager}.</li>
  * <li>Listening for incoming client connections on a specific port.</li>
- * <li>Managing a thread pool to handle multiple client connections
- * simultaneously.</li>
- * <li>Assigning {@link PlayerColor} (Black/White) to connecting players and
- * starting the game when the lobby is full.</li>
+ * <li>Serving client connections, either from a few {@link NioServer} event
+ * loops or with one {@link ClientThread} per client (see
+ * {@link ServerTransport}).</li>
+ * <li>Assigning a room and a {@link PlayerColor} (Black/White) to connecting
+ * players, starting the game when a room is full and turning away clients
+ * when no room is left.</li>
  * </ul>
  * </p>
  */
 @Component
 public class Server {
-    /** The maximum number of players allowed in a single game session. */
-    private static int GAMERS_NUMBER = 2;
 
     /** The network port on which the server listens for connections. */
     private static final int PORT = 12345;
 
-    /**
-     * A list tracking the currently connected players to prevent duplicate roles.
-     */
-    private static ArrayList<PlayerColor> gamers = new ArrayList<>();
+    /** Sent to a client connecting while no room has a free slot. */
+    static final String FULL_MESSAGE = "FULL Serwer jest pełny, spróbuj ponownie później.";
 
-    /** The singleton instance of the game logic manager. */
-    public static GameManager gameManager = GameManager.getInstance();
+    /** How client connections are served. */
+    private ServerTransport transport = ServerTransport.NIO;
 
-    // -- Adapters Initialization --
+    /** Number of event-loop threads of the NIO transport. */
+    private int eventLoops = NioServer.DEFAULT_EVENT_LOOPS;
 
-    /** Output adapter for Console clients. */
-    private static GameOutputAdapter outAdapter = new OutputGameAdapter();
+    /** Most rooms hosted at a time. */
+    private int maxRooms = GameRegistry.DEFAULT_MAX_ROOMS;
 
-    /** Input adapter for Console clients. */
-    private static GameInputAdapter inAdapter = new InputGameAdapter(gameManager, outAdapter);
+    /** Rooms of the running server. */
+    private GameRegistry registry;
 
-    /** Output adapter for GUI clients. */
-    private static GameOutputAdapter GUIoutAdapter = new GUIOutputGameAdapter();
+    /**
+     * Chooses how client connections are served; takes effect on
+     * {@link #start()}.
+     *
+     * @param transport  NIO event loops or a thread per client.
+     * @param eventLoops Number of event-loop threads of the NIO transport.
+     */
+    public void setTransport(ServerTransport transport, int eventLoops) {
+        if (eventLoops < 1)
+            throw new IllegalArgumentException("Liczba pętli zdarzeń musi być dodatnia: " + eventLoops);
+        this.transport = transport;
+        this.eventLoops = eventLoops;
+    }
 
-    /** Input adapter for GUI clients. */
-    private static GameInputAdapter GUIinAdapter = new GUIInputGameAdapter(gameManager, GUIoutAdapter);
+    /**
+     * Sets the most games hosted at a time; takes effect on {@link #start()}.
+     *
+     * @param maxRooms Number of rooms, the default one included.
+     */
+    public void setMaxRooms(int maxRooms) {
+        if (maxRooms < 1)
+            throw new IllegalArgumentException("Liczba pokojów musi być dodatnia: " + maxRooms);
+        this.maxRooms = maxRooms;
+    }
 
-    public static ArrayList<GameInputAdapter> inputAdapters = new ArrayList<>();
-    public static ArrayList<GameOutputAdapter> outputAdapters = new ArrayList<>();
+    /**
+     * Returns the rooms of the running server.
+     *
+     * @return Registry, {@code null} before {@link #start()}
+     */
+    public GameRegistry getRegistry() {
+        return registry;
+    }
 
     /**
      * The main method that starts the server.
      * <p>
      * It performs the following steps:
      * <ol>
-     * <li>Prepares lists of input/output adapters to be passed to client
-     * threads.</li>
-     * <li>Creates a fixed thread pool based on {@code GAMERS_NUMBER}.</li>
-     * <li>Opens a {@link ServerSocket} and enters an infinite loop to accept
-     * connections.</li>
+     * <li>Creates the {@link GameRegistry} with the default room.</li>
+     * <li>Listens on {@code PORT} with the chosen {@link ServerTransport} until
+     * the server stops.</li>
      * <li>When a client connects:
      * <ul>
-     * <li>If the BLACK slot is empty, assigns BLACK and starts a new
-     * {@link ClientThread}.</li>
-     * <li>If the WHITE slot is empty, assigns WHITE, starts a new
-     * {@link ClientThread}, and triggers {@code gameManager.startGame()}.</li>
+     * <li>Joins it to a room where a player waits, else to an empty or a new
+     * room, and starts a new {@link ClientSession} for it; the second player of
+     * a room starts its game.</li>
+     * <li>Otherwise sends {@link #FULL_MESSAGE} and closes the connection.</li>
      * </ul>
      * </li>
      * </ol>
@@ -101,32 +111,60 @@ public class Server {
     public void start() throws IOException {
         System.out.println("Wielowątkowy serwer jest uruchomiony na porcie " + PORT + "...");
 
-        // Prepare adapter lists to allow ClientThread to switch between Console/GUI
+        registry = new GameRegistry(GameManager.getInstance(), maxRooms);
 
-        inputAdapters.add(GUIinAdapter);
-        inputAdapters.add(inAdapter);
-        outputAdapters.add(GUIoutAdapter);
-        outputAdapters.add(outAdapter);
+        switch (transport) {
+            case NIO -> startNio();
+            case BLOCKING -> startBlocking(Executors.newCachedThreadPool());
+            // Wątek wirtualny na klienta: blokujące Scanner/PrintWriter nie zajmują wątku systemowego
+            case VIRTUAL -> startBlocking(Executors.newVirtualThreadPerTaskExecutor());
+        }
+    }
 
-        ExecutorService pool = Executors.newFixedThreadPool(GAMERS_NUMBER);
+    /**
+     * Serves all clients from {@code eventLoops} selector threads.
+     */
+    private void startNio() throws IOException {
+        try (NioServer server = new NioServer(PORT, eventLoops, out -> {
+            GameRegistry.Seat seat = registry.join();
+            if (seat == null) {
+                out.println(FULL_MESSAGE);
+                return null;
+            }
+            return seat.room().openSession(out, seat.color());
+        })) {
+            server.start();
+            System.out.println("Połączenia obsługuje " + eventLoops + " pętli zdarzeń NIO");
+            server.awaitTermination();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
+    /**
+     * Serves every client with its own blocking {@link ClientThread}.
+     *
+     * @param pool Threads running the clients.
+     */
+    private void startBlocking(ExecutorService pool) {
         try (ServerSocket listener = new ServerSocket(PORT)) {
             while (true) {
                 Socket clientSocket = listener.accept();
                 System.out.println(">> Połączono z klientem: " + clientSocket.getInetAddress());
 
-                if (gamers.size() < 2 && !gamers.contains(PlayerColor.BLACK)) {
-                    // Assign Black Player
-                    pool.execute(new ClientThread(clientSocket, inputAdapters,
-                            outputAdapters, PlayerColor.BLACK, gamers, gameManager));
-                    gamers.add(PlayerColor.BLACK);
-
-                } else if (gamers.size() < 2 && !gamers.contains(PlayerColor.WHITE)) {
-                    // Assign White Player and Start Game
-                    pool.execute(new ClientThread(clientSocket, inputAdapters,
-                            outputAdapters, PlayerColor.WHITE, gamers, gameManager));
-                    gamers.add(PlayerColor.WHITE);
-                    gameManager.startGame();
+                GameRegistry.Seat seat = null;
+                try {
+                    seat = registry.join();
+                } catch (RuntimeException e) {
+                    System.err.println("Nie udało się dołączyć klienta: " + e.getMessage());
+                }
+                if (seat != null) {
+                    pool.execute(new ClientThread(clientSocket, seat.room(), seat.color()));
+                } else {
+                    // Nie zostawiamy połączenia bez obsługi
+                    try (clientSocket; PrintWriter out = new PrintWriter(clientSocket.getOutputStream(), true)) {
+                        out.println(FULL_MESSAGE);
+                    }
                 }
             }
         } catch (Exception e) {
@@ -135,4 +173,4 @@ public class Server {
             pool.shutdown();
         }
     }
-}
\ No newline at end of file
+}
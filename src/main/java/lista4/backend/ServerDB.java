@@ -1,8 +1,18 @@
 package lista4.backend;
 
+import lista4.backend.bot.BotExecutor;
+import lista4.backend.bot.OpeningBook;
+import lista4.backend.bot.OpeningBookBuilder;
+import lista4.backend.bot.TreeParallelMcts;
+import lista4.dbModel.GameEntity;
+import lista4.dbModel.MoveEntity;
 import lista4.dbRepositories.GameRepository;
 import lista4.dbRepositories.MoveRepository;
+import lista4.gameLogic.BoardEngineType;
+import lista4.gameLogic.BoardGeometry;
 import lista4.gameLogic.GameManager;
+import lista4.gameLogic.Move;
+import lista4.gameLogic.PlayerColor;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
@@ -10,6 +20,10 @@ import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 @SpringBootApplication(scanBasePackages = "lista4") // Klucz do sukcesu!
 @EnableJpaRepositories(basePackages = "lista4.dbRepositories")
@@ -23,8 +37,78 @@ public class ServerDB {
 
         GameManager.getInstance().setRepositories(gameRepo, moveRepo);
 
+        // Silnik planszy wybierany w application.properties (reference / bitboard)
+        String engine = context.getEnvironment().getProperty(BoardEngineType.PROPERTY, "reference");
+        GameManager.getInstance().setBoardEngine(BoardEngineType.fromName(engine));
+
+        // Strategia bota (influence / mcts) i czas na ruch dla MCTS
+        String strategy = context.getEnvironment().getProperty(BotStrategy.PROPERTY, "influence");
+        long moveTime = context.getEnvironment().getProperty("go.bot.move-time-ms", Long.class,
+                BotService.DEFAULT_MOVE_TIME_MILLIS);
+        GameManager.getInstance().setBotSettings(BotStrategy.fromName(strategy), moveTime);
+
+        // Wątki liczące ruchy botów, opóźnienie odpowiedzi i termin, po którym bot pasuje
+        int botThreads = context.getEnvironment().getProperty("go.bot.threads", Integer.class,
+                Runtime.getRuntime().availableProcessors());
+        int botQueue = context.getEnvironment().getProperty("go.bot.queue-capacity", Integer.class,
+                BotExecutor.DEFAULT_QUEUE_CAPACITY);
+        long botDelay = context.getEnvironment().getProperty("go.bot.delay-ms", Long.class,
+                BotExecutor.DEFAULT_DELAY_MILLIS);
+        long botDeadline = context.getEnvironment().getProperty("go.bot.deadline-ms", Long.class,
+                BotExecutor.DEFAULT_DEADLINE_MILLIS);
+        GameManager.getInstance().setBotExecutor(new BotExecutor(botThreads, botQueue), botDelay, botDeadline);
+        GameManager.getInstance().setBotPondering(
+                context.getEnvironment().getProperty("go.bot.ponder", Boolean.class, false));
+
+        // Książka otwarć z zapisanych partii i gier bota z samym sobą, budowana przy braku pliku
+        String bookPath = context.getEnvironment().getProperty("go.bot.book");
+        if (bookPath != null && !bookPath.isBlank()) {
+            Path path = Path.of(bookPath);
+            boolean rebuild = context.getEnvironment().getProperty("go.bot.book.rebuild", Boolean.class, false);
+            if (rebuild || !Files.exists(path)) {
+                int selfPlayGames = context.getEnvironment().getProperty("go.bot.book.self-play-games",
+                        Integer.class, 0);
+                buildOpeningBook(gameRepo, moveRepo, selfPlayGames, path);
+            }
+            OpeningBook book = OpeningBook.open(path);
+            System.out.println("Książka otwarć: " + book.size() + " pozycji z ruchami");
+            GameManager.getInstance().setOpeningBook(book);
+        }
+
         Server server = context.getBean(Server.class);
+        // Obsługa połączeń: pętle zdarzeń NIO albo wątek (systemowy lub wirtualny) na klienta
+        String transport = context.getEnvironment().getProperty(ServerTransport.PROPERTY, "nio");
+        int eventLoops = context.getEnvironment().getProperty("go.server.event-loops", Integer.class,
+                NioServer.DEFAULT_EVENT_LOOPS);
+        server.setTransport(ServerTransport.fromName(transport), eventLoops);
+        // Najwięcej gier (pokojów) naraz w jednym procesie
+        server.setMaxRooms(context.getEnvironment().getProperty("go.server.max-rooms", Integer.class,
+                GameRegistry.DEFAULT_MAX_ROOMS));
 
         server.start();
     }
+
+    private static void buildOpeningBook(GameRepository gameRepo, MoveRepository moveRepo, int selfPlayGames,
+            Path path) throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder();
+        for (GameEntity game : gameRepo.findAll()) {
+            int size = game.getBoardSize() != null ? game.getBoardSize() : BoardGeometry.DEFAULT_SIZE;
+            List<Move> moves = new ArrayList<>();
+            for (MoveEntity move : moveRepo.findByGameOrderByMoveNumberAsc(game)) {
+                if (move.isPass())
+                    break;
+                moves.add(new Move(move.getX(), move.getY(), PlayerColor.valueOf(move.getColor())));
+            }
+            builder.addGame(size, moves);
+        }
+        if (selfPlayGames > 0) {
+            TreeParallelMcts engine = new TreeParallelMcts();
+            try {
+                builder.addSelfPlay(engine, BoardGeometry.DEFAULT_SIZE, selfPlayGames, 200);
+            } finally {
+                engine.shutdown();
+            }
+        }
+        builder.write(path);
+    }
 }
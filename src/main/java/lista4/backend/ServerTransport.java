@@ -0,0 +1,38 @@
+package lista4.backend;
+
+import java.util.Locale;
+
+/**
+ * Ways in which {@link Server} serves client connections.
+ */
+public enum ServerTransport {
+    /** Selector event loops shared by all connections ({@link NioServer}) */
+    NIO,
+
+    /** One blocking thread per connection ({@link ClientThread}) */
+    BLOCKING,
+
+    /** One blocking {@link ClientThread} per connection on a virtual thread */
+    VIRTUAL;
+
+    /** Name of the configuration property choosing the transport */
+    public static final String PROPERTY = "go.server.transport";
+
+    /**
+     * Finds the transport by its configuration name (case insensitive).
+     *
+     * @param name "nio", "blocking" or "virtual"
+     * @return Transport
+     * @throws IllegalArgumentException if no transport has that name
+     */
+    public static ServerTransport fromName(String name) {
+        for (ServerTransport transport : values()) {
+            if (transport.name().equalsIgnoreCase(name.trim()))
+                return transport;
+        }
+        throw new IllegalArgumentException("Nieznany sposób obsługi połączeń: " + name
+                + " (dostępne: " + NIO.name().toLowerCase(Locale.ROOT)
+                + ", " + BLOCKING.name().toLowerCase(Locale.ROOT)
+                + ", " + VIRTUAL.name().toLowerCase(Locale.ROOT) + ")");
+    }
+}
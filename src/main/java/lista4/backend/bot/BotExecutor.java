@@ -0,0 +1,358 @@
+package lista4.backend.bot;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Server-wide scheduler of bot moves: the thinking of the bots of all games
+ * shares a fixed number of threads.
+ * <p>
+ * A job waits an artificial delay, so that the bot does not answer
+ * instantly, then joins a queue ordered by due time (the moment it was ready
+ * plus its thinking time), so every game is served in turn and a game with a
+ * short time control is not stuck behind long searches. When there are more
+ * jobs than threads, each job gets a proportionally shorter thinking time,
+ * minus the time it waited, but at least {@link #MIN_THINK_MILLIS}; response
+ * times stay close to the requested ones instead of growing with the number
+ * of games. Jobs which do not fit in the bounded queue are rejected.
+ * <p>
+ * Searches of all games also share one {@link SearchPool} of the same size
+ * and one {@link TranspositionTable}. A job runs its search on its worker
+ * plus helper threads of the pool; it is granted the threads left when the
+ * running jobs share them evenly, so the bots of any number of games never
+ * use more than twice {@code threads} threads. Cancelling a job or passing its
+ * deadline interrupts the worker, which stops all threads of its search.
+ * <p>
+ * Background jobs, such as pondering during the opponent's turn, go through
+ * the same queue after all move jobs. A move job cancels the running
+ * background jobs when it starts, so they give back the search threads it
+ * needs, and also when it is queued with every worker busy, so they give back
+ * a worker; background work never delays a move.
+ * <p>
+ * Every job ends exactly once: with the move, or with null if it failed, was
+ * rejected or ran past its deadline. The result is handed to the executor of
+ * the game, which applies it in the game's own order; a cancelled job reports
+ * nothing.
+ */
+public class BotExecutor {
+
+    /** Default pause before the bot starts thinking */
+    public static final long DEFAULT_DELAY_MILLIS = 400;
+
+    /** Default time after which a computation is abandoned */
+    public static final long DEFAULT_DEADLINE_MILLIS = 10_000;
+
+    /** Default number of jobs waiting for a worker */
+    public static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+    /** Shortest thinking time granted under load */
+    public static final long MIN_THINK_MILLIS = 50;
+
+    private static volatile BotExecutor shared;
+
+    private final int threads;
+    private final int queueCapacity;
+    private final PriorityBlockingQueue<Runnable> queue = new PriorityBlockingQueue<>();
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService timer;
+    private final SearchPool searchPool;
+    private final Set<BotTask> background = ConcurrentHashMap.newKeySet();
+    private volatile TranspositionTable table;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong waits = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private volatile double thinkTimeScale = 1;
+
+    /**
+     * Creates an executor with one worker per available processor.
+     */
+    public BotExecutor() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param threads       Number of worker threads
+     * @param queueCapacity Number of jobs allowed to wait for a worker
+     */
+    public BotExecutor(int threads, int queueCapacity) {
+        if (threads < 1)
+            throw new IllegalArgumentException("Liczba wątków musi być dodatnia: " + threads);
+        if (queueCapacity < 1)
+            throw new IllegalArgumentException("Pojemność kolejki musi być dodatnia: " + queueCapacity);
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+        AtomicInteger counter = new AtomicInteger();
+        workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, queue, runnable -> {
+            Thread thread = new Thread(runnable, "bot-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Wszystkie zadania przechodzą przez kolejkę, więc obowiązuje jej kolejność
+        workers.prestartAllCoreThreads();
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "bot-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Anulowane opóźnienia i terminy nie zostają w kolejce timera
+        scheduler.setRemoveOnCancelPolicy(true);
+        timer = scheduler;
+        searchPool = new SearchPool(threads);
+    }
+
+    /**
+     * Returns the executor shared by games which were not given their own.
+     *
+     * @return Shared executor, created on first use
+     */
+    public static BotExecutor shared() {
+        if (shared == null) {
+            synchronized (BotExecutor.class) {
+                if (shared == null)
+                    shared = new BotExecutor();
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Returns the threads shared by the searches of all jobs.
+     *
+     * @return Search pool with as many threads as workers
+     */
+    public SearchPool getSearchPool() {
+        return searchPool;
+    }
+
+    /**
+     * Returns the statistics shared by the searches of all games.
+     *
+     * @return Table of {@link TranspositionTable#DEFAULT_ENTRIES}, created on
+     *         first use
+     */
+    public TranspositionTable getTranspositionTable() {
+        if (table == null) {
+            synchronized (this) {
+                if (table == null)
+                    table = new TranspositionTable(TranspositionTable.DEFAULT_ENTRIES);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Schedules the computation of a bot move.
+     *
+     * @param thinking       Computes the move
+     * @param thinkMillis    Requested thinking time, 0 if the job has no time
+     *                       limit (it is then never shortened)
+     * @param delayMillis    Pause before the job joins the queue
+     * @param deadlineMillis Time the job may take from joining the queue, 0 for
+     *                       no limit
+     * @param gameExecutor   Executor of the game, runs the callback
+     * @param onResult       Receives the move, or null if there is none
+     * @return Handle to cancel the job
+     */
+    public BotTask submit(BotJob thinking, long thinkMillis, long delayMillis, long deadlineMillis,
+            Executor gameExecutor, Consumer<String> onResult) {
+        BotTask task = new BotTask(gameExecutor, onResult);
+        task.delay = timer.schedule(() -> start(task, thinking, thinkMillis, deadlineMillis, false),
+                Math.max(0, delayMillis), TimeUnit.MILLISECONDS);
+        return task;
+    }
+
+    /**
+     * Schedules background work, run only when no move job waits for a
+     * worker. It is given no time limit and is cancelled as soon as a move
+     * job starts or waits for a worker, so it must stop promptly when
+     * interrupted. A full
+     * queue drops it silently; it is not counted in the metrics.
+     *
+     * @param thinking     Work to run; gets 0 as the time and its share of the
+     *                     search threads
+     * @param gameExecutor Executor of the game, runs the callback
+     * @param onResult     Receives the result, or null if there is none
+     * @return Handle to cancel the job
+     */
+    public BotTask submitBackground(BotJob thinking, Executor gameExecutor, Consumer<String> onResult) {
+        BotTask task = new BotTask(gameExecutor, onResult);
+        start(task, thinking, 0, 0, true);
+        return task;
+    }
+
+    private void start(BotTask task, BotJob thinking, long thinkMillis, long deadlineMillis,
+            boolean isBackground) {
+        if (task.isDone())
+            return;
+        if (!isBackground && workers.getActiveCount() >= threads)
+            preemptBackground();
+        if (deadlineMillis > 0) {
+            task.deadline = timer.schedule(() -> {
+                if (task.finish(null, true)) {
+                    timedOut.incrementAndGet();
+                    System.err.println("Bot nie zdążył przed terminem (" + deadlineMillis + " ms)");
+                }
+            }, deadlineMillis, TimeUnit.MILLISECONDS);
+        }
+        Job job = new Job(task, thinking, thinkMillis, isBackground, System.nanoTime(),
+                sequence.getAndIncrement());
+        boolean accepted;
+        synchronized (queue) {
+            accepted = queue.size() < queueCapacity && !workers.isShutdown();
+            if (accepted)
+                workers.execute(job);
+        }
+        if (!accepted && task.finish(null, false) && !isBackground) {
+            rejected.incrementAndGet();
+            System.err.println("Kolejka bota jest pełna, ruch odrzucony");
+        }
+    }
+
+    /**
+     * Cancels the running background jobs, freeing their workers and search
+     * threads for move jobs.
+     */
+    private void preemptBackground() {
+        for (BotTask task : background) {
+            task.cancel();
+        }
+    }
+
+    /**
+     * Thinking time for a job which waited the given time, shortened when
+     * more jobs are queued or running than there are threads.
+     */
+    private long grantedTime(long thinkMillis, long waitedNanos) {
+        if (thinkMillis <= 0)
+            return thinkMillis;
+        // Zadanie bieżące jest już wliczone w aktywne; zadania w tle ustąpią miejsca
+        double load = (double) (queue.size() + workers.getActiveCount() - background.size()) / threads;
+        double scaled = load > 1 ? thinkMillis / load : thinkMillis;
+        long granted = (long) scaled - TimeUnit.NANOSECONDS.toMillis(waitedNanos);
+        granted = Math.min(thinkMillis, Math.max(MIN_THINK_MILLIS, granted));
+        thinkTimeScale = (double) granted / thinkMillis;
+        return granted;
+    }
+
+    /**
+     * Search threads for a starting job: an even share of the threads among
+     * the running jobs, at least its own worker.
+     */
+    private int grantedThreads() {
+        // Anulowane zadania w tle zaraz zwolnią swoje wątki
+        return Math.max(1, threads / Math.max(1, workers.getActiveCount() - background.size()));
+    }
+
+    private void recordWait(long nanos) {
+        waits.incrementAndGet();
+        waitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Returns the number of jobs waiting for a worker.
+     *
+     * @return Queue length
+     */
+    public int getQueueLength() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the current load and the statistics since the start.
+     *
+     * @return Snapshot of the metrics
+     */
+    public BotMetrics getMetrics() {
+        long count = waits.get();
+        double averageWait = count == 0 ? 0 : waitNanos.get() / 1e6 / count;
+        return new BotMetrics(threads, queue.size(), workers.getActiveCount(), completed.get(),
+                rejected.get(), timedOut.get(), averageWait,
+                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()), thinkTimeScale);
+    }
+
+    /**
+     * Stops the threads; pending jobs are dropped without a result.
+     */
+    public void shutdown() {
+        timer.shutdownNow();
+        workers.shutdownNow();
+        searchPool.shutdown();
+    }
+
+    /**
+     * Queued job; move jobs run before background ones, jobs due earlier
+     * first, equal ones in the order they were queued.
+     */
+    private final class Job implements Runnable, Comparable<Job> {
+
+        private final BotTask task;
+        private final BotJob thinking;
+        private final long thinkMillis;
+        private final boolean isBackground;
+        private final long queuedNanos;
+        private final long dueNanos;
+        private final long sequence;
+
+        Job(BotTask task, BotJob thinking, long thinkMillis, boolean isBackground, long queuedNanos,
+                long sequence) {
+            this.task = task;
+            this.thinking = thinking;
+            this.thinkMillis = thinkMillis;
+            this.isBackground = isBackground;
+            this.queuedNanos = queuedNanos;
+            this.dueNanos = queuedNanos + TimeUnit.MILLISECONDS.toNanos(Math.max(0, thinkMillis));
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            long waited = System.nanoTime() - queuedNanos;
+            if (isBackground) {
+                background.add(task);
+            } else {
+                recordWait(waited);
+                // Zadania w tle oddają wątki wyszukiwania ruchowi
+                preemptBackground();
+            }
+            if (!task.begin()) {
+                background.remove(task);
+                return; // anulowane albo po terminie, zanim doszło do kolejki
+            }
+            String move;
+            try {
+                move = thinking.think(grantedTime(thinkMillis, waited), grantedThreads());
+            } catch (Exception e) {
+                System.err.println("Błąd obliczania ruchu bota: " + e.getMessage());
+                move = null;
+            } finally {
+                task.end();
+                background.remove(task);
+            }
+            if (task.finish(move, false) && !isBackground)
+                completed.incrementAndGet();
+        }
+
+        @Override
+        public int compareTo(Job other) {
+            if (isBackground != other.isBackground)
+                return isBackground ? 1 : -1;
+            int byDue = Long.compare(dueNanos, other.dueNanos);
+            return byDue != 0 ? byDue : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package lista4.backend.bot;
+
+/**
+ * Computation of a bot move scheduled on a {@link BotExecutor}.
+ */
+@FunctionalInterface
+public interface BotJob {
+
+    /**
+     * Computes the move.
+     *
+     * @param timeMillis Thinking time granted by the scheduler
+     * @param threads    Search threads granted by the scheduler, the calling
+     *                   one included (see {@link BotExecutor#getSearchPool()})
+     * @return Move in "x y" format, "-1 -1" for a pass
+     * @throws Exception if the move cannot be computed
+     */
+    String think(long timeMillis, int threads) throws Exception;
+}
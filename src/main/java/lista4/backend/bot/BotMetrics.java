@@ -0,0 +1,85 @@
+package lista4.backend.bot;
+
+/**
+ * Snapshot of the load of a {@link BotExecutor}.
+ */
+public final class BotMetrics {
+
+    private final int threads;
+    private final int queueDepth;
+    private final int activeJobs;
+    private final long completed;
+    private final long rejected;
+    private final long timedOut;
+    private final double averageWaitMillis;
+    private final long maxWaitMillis;
+    private final double thinkTimeScale;
+
+    /**
+     * @param threads           Number of worker threads
+     * @param queueDepth        Jobs waiting for a worker
+     * @param activeJobs        Jobs being computed
+     * @param completed         Jobs which reported a move
+     * @param rejected          Jobs rejected because the queue was full
+     * @param timedOut          Jobs abandoned at their deadline
+     * @param averageWaitMillis Average time a job waited for a worker
+     * @param maxWaitMillis     Longest time a job waited for a worker
+     * @param thinkTimeScale    Share of the requested thinking time granted to
+     *                          the last job
+     */
+    public BotMetrics(int threads, int queueDepth, int activeJobs, long completed, long rejected,
+            long timedOut, double averageWaitMillis, long maxWaitMillis, double thinkTimeScale) {
+        this.threads = threads;
+        this.queueDepth = queueDepth;
+        this.activeJobs = activeJobs;
+        this.completed = completed;
+        this.rejected = rejected;
+        this.timedOut = timedOut;
+        this.averageWaitMillis = averageWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+        this.thinkTimeScale = thinkTimeScale;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getActiveJobs() {
+        return activeJobs;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getTimedOut() {
+        return timedOut;
+    }
+
+    public double getAverageWaitMillis() {
+        return averageWaitMillis;
+    }
+
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    public double getThinkTimeScale() {
+        return thinkTimeScale;
+    }
+
+    public String toString() {
+        return String.format("kolejka %d, liczone %d/%d, gotowe %d, odrzucone %d, po terminie %d, "
+                + "czekanie śr. %.1f ms (max %d ms), czas myślenia x%.2f",
+                queueDepth, activeJobs, threads, completed, rejected, timedOut,
+                averageWaitMillis, maxWaitMillis, thinkTimeScale);
+    }
+}
@@ -0,0 +1,105 @@
+package lista4.backend.bot;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Handle of a bot move scheduled on a {@link BotExecutor}.
+ * <p>
+ * The first of completion, deadline, failure and {@link #cancel()} wins; the
+ * others do nothing, so the game gets at most one result per job.
+ */
+public final class BotTask {
+
+    private final AtomicBoolean done = new AtomicBoolean();
+    private final Executor gameExecutor;
+    private final Consumer<String> onResult;
+
+    // Ustawiane przez BotExecutor; volatile, bo anulować może dowolny wątek
+    volatile Future<?> delay;
+    volatile Future<?> deadline;
+
+    /** Worker computing the move, guarded by this */
+    private Thread runner;
+
+    BotTask(Executor gameExecutor, Consumer<String> onResult) {
+        this.gameExecutor = gameExecutor;
+        this.onResult = onResult;
+    }
+
+    /**
+     * Cancels the job; the computation is interrupted and no result is
+     * reported.
+     *
+     * @return true if the job had not ended before
+     */
+    public boolean cancel() {
+        if (!done.compareAndSet(false, true))
+            return false;
+        stop(true);
+        return true;
+    }
+
+    /**
+     * @return true if the job has reported a result or was cancelled
+     */
+    public boolean isDone() {
+        return done.get();
+    }
+
+    /**
+     * Ends the job with a result, unless it has already ended.
+     *
+     * @param move      Move to report, null for none
+     * @param interrupt Whether to interrupt a running computation
+     * @return true if this call ended the job
+     */
+    boolean finish(String move, boolean interrupt) {
+        if (!done.compareAndSet(false, true))
+            return false;
+        stop(interrupt);
+        gameExecutor.execute(() -> onResult.accept(move));
+        return true;
+    }
+
+    /**
+     * Marks the current thread as the one computing the move.
+     *
+     * @return false if the job has already ended
+     */
+    synchronized boolean begin() {
+        if (done.get())
+            return false;
+        runner = Thread.currentThread();
+        return true;
+    }
+
+    /**
+     * Ends the computation; an interrupt meant for it does not reach the next
+     * job of the worker.
+     */
+    synchronized void end() {
+        runner = null;
+        Thread.interrupted();
+    }
+
+    private void stop(boolean interrupt) {
+        // Timer przerywamy tylko przez cancel(false) - może to być bieżący wątek
+        cancel(delay, false);
+        cancel(deadline, false);
+        if (interrupt)
+            interruptRunner();
+    }
+
+    private synchronized void interruptRunner() {
+        if (runner != null)
+            runner.interrupt();
+    }
+
+    private static void cancel(Future<?> future, boolean interrupt) {
+        if (future != null)
+            future.cancel(interrupt);
+    }
+}
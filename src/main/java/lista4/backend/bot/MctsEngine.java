@@ -0,0 +1,152 @@
+package lista4.backend.bot;
+
+import lista4.gameLogic.BitBoard;
+import lista4.gameLogic.BoardEngine;
+import lista4.gameLogic.PlayerColor;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Monte Carlo Tree Search engine (UCT with light random playouts).
+ * <p>
+ * The search is root-parallel: every worker thread grows its own
+ * {@link SearchTree} on its own {@link BitBoard}, so the threads share nothing
+ * but the playout budget, and the visit counts of the root moves are summed
+ * at the end. The move with the most visits is played. The engine gets
+ * stronger with more time or more cores, as more playouts refine the counts.
+ * <p>
+ * The threads come from a {@link SearchPool}, either the engine's own or one
+ * shared with other engines.
+ */
+public class MctsEngine {
+
+    /** Komi used when none is given */
+    public static final double DEFAULT_KOMI = 7.5;
+
+    private final double komi;
+    private final SearchPool pool;
+    private final boolean ownsPool;
+
+    /**
+     * Creates an engine using all available processors.
+     */
+    public MctsEngine() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_KOMI);
+    }
+
+    /**
+     * @param threads Number of search threads
+     * @param komi    Points added to white's score
+     */
+    public MctsEngine(int threads, double komi) {
+        this(new SearchPool(threads), komi, true);
+    }
+
+    /**
+     * Creates an engine searching on shared threads.
+     *
+     * @param pool Threads shared with other engines, not stopped by
+     *             {@link #shutdown()}
+     * @param komi Points added to white's score
+     */
+    public MctsEngine(SearchPool pool, double komi) {
+        this(pool, komi, false);
+    }
+
+    private MctsEngine(SearchPool pool, double komi, boolean ownsPool) {
+        this.pool = pool;
+        this.komi = komi;
+        this.ownsPool = ownsPool;
+    }
+
+    /**
+     * Searches the best move of the given player.
+     *
+     * @param position    Current position; only read, moves are checked against
+     *                    its Ko and superko state
+     * @param color       Player to move
+     * @param timeMillis  Time budget, 0 for no time limit
+     * @param maxPlayouts Playout budget, 0 for no playout limit
+     * @return Chosen move with statistics; a pass if there is no legal move
+     * @throws IllegalArgumentException if neither budget is set
+     */
+    public MctsResult search(BoardEngine position, PlayerColor color, long timeMillis, int maxPlayouts) {
+        return search(position, color, timeMillis, maxPlayouts, pool.getThreads());
+    }
+
+    /**
+     * Searches the best move of the given player with at most the given number
+     * of threads, e.g. as granted by {@link BotExecutor}. An interrupt of the
+     * calling thread stops the search early.
+     *
+     * @param position    Current position; only read, moves are checked against
+     *                    its Ko and superko state
+     * @param color       Player to move
+     * @param timeMillis  Time budget, 0 for no time limit
+     * @param maxPlayouts Playout budget, 0 for no playout limit
+     * @param threads     Most threads of the search, the calling one included
+     * @return Chosen move with statistics; a pass if there is no legal move
+     * @throws IllegalArgumentException if neither budget is set
+     */
+    public MctsResult search(BoardEngine position, PlayerColor color, long timeMillis, int maxPlayouts,
+            int threads) {
+        if (timeMillis <= 0 && maxPlayouts <= 0)
+            throw new IllegalArgumentException("Wymagany limit czasu albo liczby symulacji");
+        long start = System.nanoTime();
+        long deadline = timeMillis > 0 ? start + timeMillis * 1_000_000 : Long.MAX_VALUE;
+        int size = position.getSize();
+        long[] rootMoves = new long[position.getMaskLength()];
+        if (position.legalMoves(color, rootMoves) == 0)
+            return new MctsResult(-1, -1, 0, 0, 0, 0);
+
+        AtomicInteger budget = new AtomicInteger(maxPlayouts > 0 ? maxPlayouts : Integer.MAX_VALUE);
+        long seed = System.nanoTime();
+        AtomicBoolean stop = new AtomicBoolean();
+        List<SearchTree> trees = pool.run(threads, stop, i -> {
+            Playout playout = new Playout(new BitBoard(size), komi, seed + i);
+            playout.setPosition(position);
+            SearchTree tree = new SearchTree(playout, color, rootMoves);
+            while (SearchPool.running(stop) && System.nanoTime() < deadline && budget.getAndDecrement() > 0) {
+                tree.iterate();
+            }
+            return tree;
+        });
+
+        // Sumowanie statystyk korzeni wszystkich drzew
+        int points = size * size;
+        int[] visits = new int[points + 1];
+        double[] wins = new double[points + 1];
+        int playouts = 0;
+        for (SearchTree tree : trees) {
+            Node root = tree.root;
+            playouts += root.visits;
+            for (int i = 0; i < root.childCount; i++) {
+                Node child = root.children[i];
+                visits[child.move] += child.visits;
+                wins[child.move] += child.wins;
+            }
+        }
+
+        int best = points;
+        for (int move = 0; move <= points; move++) {
+            if (visits[move] > visits[best])
+                best = move;
+        }
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        double winRate = visits[best] == 0 ? 0 : wins[best] / visits[best];
+        if (best == points)
+            return new MctsResult(-1, -1, visits[best], winRate, playouts, elapsed);
+        return new MctsResult(best % size, best / size, visits[best], winRate, playouts, elapsed);
+    }
+
+    /**
+     * Stops the worker threads, unless they are shared. The engine cannot be
+     * used afterwards.
+     */
+    public void shutdown() {
+        if (ownsPool)
+            pool.shutdown();
+    }
+}
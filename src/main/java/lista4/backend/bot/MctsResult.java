@@ -0,0 +1,88 @@
+package lista4.backend.bot;
+
+/**
+ * Move chosen by {@link MctsEngine} together with search statistics.
+ */
+public final class MctsResult {
+
+    private final int x;
+    private final int y;
+    private final int visits;
+    private final double winRate;
+    private final int playouts;
+    private final long elapsedMillis;
+
+    /**
+     * @param x             X coordinate of the move, -1 for a pass
+     * @param y             Y coordinate of the move, -1 for a pass
+     * @param visits        Number of simulations through the move
+     * @param winRate       Share of those simulations won by the searching player
+     * @param playouts      Number of simulations of the whole search
+     * @param elapsedMillis Time of the search
+     */
+    public MctsResult(int x, int y, int visits, double winRate, int playouts, long elapsedMillis) {
+        this.x = x;
+        this.y = y;
+        this.visits = visits;
+        this.winRate = winRate;
+        this.playouts = playouts;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Checks whether the engine decided to pass.
+     *
+     * @return true for a pass
+     */
+    public boolean isPass() {
+        return x < 0;
+    }
+
+    public int getVisits() {
+        return visits;
+    }
+
+    public double getWinRate() {
+        return winRate;
+    }
+
+    public int getPlayouts() {
+        return playouts;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Returns the number of simulations per second of the search.
+     *
+     * @return Playouts per second
+     */
+    public double getPlayoutsPerSecond() {
+        return elapsedMillis == 0 ? playouts : playouts * 1000.0 / elapsedMillis;
+    }
+
+    /**
+     * Returns the move in the "x y" format used by {@link lista4.backend.BotService}.
+     *
+     * @return Coordinates, "-1 -1" for a pass
+     */
+    public String toMoveString() {
+        return x + " " + y;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (wizyty %d, wygrane %.1f%%, symulacje %d w %d ms, %.0f/s)",
+                toMoveString(), visits, winRate * 100, playouts, elapsedMillis, getPlayoutsPerSecond());
+    }
+}
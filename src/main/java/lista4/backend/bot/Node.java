@@ -0,0 +1,69 @@
+package lista4.backend.bot;
+
+import lista4.gameLogic.PlayerColor;
+
+/**
+ * Node of a search tree owned by a single thread.
+ * <p>
+ * Statistics are kept from the point of view of {@link #color}, the player who
+ * made the move leading to the node.
+ */
+final class Node {
+
+    /** Move leading to the node, the pass index (the number of points) for a pass, -1 for the root */
+    final int move;
+    final PlayerColor color;
+    final Node parent;
+
+    Node[] children = new Node[4];
+    int childCount;
+
+    /** Moves not expanded yet, null until the node is reached for the first time */
+    int[] untried;
+    int untriedCount;
+
+    int visits;
+    double wins;
+
+    Node(int move, PlayerColor color, Node parent) {
+        this.move = move;
+        this.color = color;
+        this.parent = parent;
+    }
+
+    Node addChild(int childMove) {
+        if (childCount == children.length) {
+            Node[] grown = new Node[childCount * 2];
+            System.arraycopy(children, 0, grown, 0, childCount);
+            children = grown;
+        }
+        Node child = new Node(childMove, color.other(), this);
+        children[childCount++] = child;
+        return child;
+    }
+
+    /** Takes a random untried move out of the list */
+    int takeUntried(int index) {
+        int taken = untried[index];
+        untried[index] = untried[--untriedCount];
+        return taken;
+    }
+
+    /**
+     * Chooses the child with the highest UCT value.
+     */
+    Node select(double exploration) {
+        double logVisits = Math.log(visits);
+        Node best = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < childCount; i++) {
+            Node child = children[i];
+            double value = child.wins / child.visits + exploration * Math.sqrt(logVisits / child.visits);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+}
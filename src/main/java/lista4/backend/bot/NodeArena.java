@@ -0,0 +1,97 @@
+package lista4.backend.bot;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Preallocated store of search tree nodes shared by many threads.
+ * <p>
+ * Nodes are indices into parallel arrays, so growing the tree never calls the
+ * allocator. Children of a node take one contiguous block reserved with a
+ * single atomic bump of {@link #next}. Statistics are atomic counters; the
+ * plain arrays (move, first child, child count) are written by the expanding
+ * thread before it publishes {@link #EXPANDED} with a volatile write, and read
+ * only after seeing that state, so no locks are needed.
+ */
+final class NodeArena {
+
+    static final int UNEXPANDED = 0;
+    static final int EXPANDING = 1;
+    static final int EXPANDED = 2;
+    /** The arena had no room for the children, the node stays a leaf */
+    static final int LEAF = 3;
+
+    final int capacity;
+    final int[] move;
+    final int[] firstChild;
+    final int[] childCount;
+    final AtomicIntegerArray state;
+    final AtomicIntegerArray visits;
+    final AtomicIntegerArray wins;
+    final AtomicIntegerArray virtualLoss;
+    private final AtomicInteger next = new AtomicInteger();
+
+    NodeArena(int capacity) {
+        this.capacity = capacity;
+        move = new int[capacity];
+        firstChild = new int[capacity];
+        childCount = new int[capacity];
+        state = new AtomicIntegerArray(capacity);
+        visits = new AtomicIntegerArray(capacity);
+        wins = new AtomicIntegerArray(capacity);
+        virtualLoss = new AtomicIntegerArray(capacity);
+    }
+
+    /**
+     * Forgets all nodes and creates the root (index 0). Must not run during a
+     * search.
+     */
+    void reset() {
+        next.set(1);
+        init(0, -1);
+    }
+
+    /**
+     * Reserves a block of nodes.
+     *
+     * @param count Number of nodes
+     * @return Index of the first node, -1 if the arena is full
+     */
+    int allocate(int count) {
+        int start = next.getAndAdd(count);
+        return start + count <= capacity ? start : -1;
+    }
+
+    /**
+     * Returns the number of nodes in use.
+     *
+     * @return Used nodes
+     */
+    int size() {
+        return Math.min(next.get(), capacity);
+    }
+
+    /**
+     * Moves a node with its statistics and children to another index, e.g.
+     * into the new child block of a reused root. Must not run during a search.
+     */
+    void copy(int from, int to) {
+        move[to] = move[from];
+        firstChild[to] = firstChild[from];
+        childCount[to] = childCount[from];
+        visits.set(to, visits.get(from));
+        wins.set(to, wins.get(from));
+        virtualLoss.set(to, 0);
+        state.set(to, state.get(from));
+    }
+
+    void init(int node, int nodeMove) {
+        move[node] = nodeMove;
+        firstChild[node] = 0;
+        childCount[node] = 0;
+        visits.set(node, 0);
+        wins.set(node, 0);
+        virtualLoss.set(node, 0);
+        state.set(node, UNEXPANDED);
+    }
+}
@@ -0,0 +1,166 @@
+package lista4.backend.bot;
+
+import lista4.gameLogic.BoardEngine;
+import lista4.gameLogic.PlayerColor;
+import lista4.gameLogic.Zobrist;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Opening moves read from a memory-mapped file written by
+ * {@link OpeningBookBuilder}.
+ * <p>
+ * Positions are stored in canonical form: of the 8 rotations and reflections
+ * of the board the one with the smallest hash is used, so an opening played
+ * in any corner is found. The file is a header followed by 16-byte entries
+ * (key, canonical move, number of games) sorted by key and then by number of
+ * games, so a lookup is a binary search in the mapped pages without reading
+ * the file into the heap.
+ */
+public final class OpeningBook {
+
+    static final int MAGIC = 0x474F424B; // "GOBK"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int ENTRY_BYTES = 16;
+
+    /** Number of board symmetries (4 rotations, each optionally mirrored) */
+    static final int SYMMETRIES = 8;
+
+    private static final long SIZE_KEY = 0x9E3779B97F4A7C15L;
+
+    private final ByteBuffer entries;
+    private final int count;
+
+    private OpeningBook(ByteBuffer entries, int count) {
+        this.entries = entries;
+        this.count = count;
+    }
+
+    /**
+     * Maps a book file.
+     *
+     * @param path File written by {@link OpeningBookBuilder#write(Path)}
+     * @return Opened book
+     * @throws IOException if the file cannot be read or is not a book
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+                throw new IOException("To nie jest plik książki otwarć: " + path);
+            int count = buffer.getInt(8);
+            if (buffer.capacity() < HEADER_BYTES + (long) count * ENTRY_BYTES)
+                throw new IOException("Uszkodzony plik książki otwarć: " + path);
+            // Mapowanie zostaje ważne po zamknięciu kanału
+            return new OpeningBook(buffer.position(HEADER_BYTES).slice(), count);
+        }
+    }
+
+    /**
+     * Finds the move played most often in the position.
+     *
+     * @param board  Current position, only read
+     * @param toMove Player to move
+     * @return Point index (y * size + x) of the move, -1 if the position is not
+     *         in the book
+     */
+    public int lookup(BoardEngine board, PlayerColor toMove) {
+        int[] symmetry = new int[1];
+        long key = canonicalKey(board, toMove, symmetry);
+        int index = firstIndex(key);
+        if (index < 0)
+            return -1;
+        int size = board.getSize();
+        int point = entries.getShort(index * ENTRY_BYTES + 8);
+        // Ruch z postaci kanonicznej wraca na planszę przez odwrotną symetrię
+        int inverse = inverse(symmetry[0]);
+        return transform(inverse, point % size, point / size, size);
+    }
+
+    /**
+     * Returns the number of stored (position, move) pairs.
+     *
+     * @return Entries of the book
+     */
+    public int size() {
+        return count;
+    }
+
+    private int firstIndex(long key) {
+        int low = 0;
+        int high = count - 1;
+        int found = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleKey = entries.getLong(middle * ENTRY_BYTES);
+            if (middleKey < key) {
+                low = middle + 1;
+            } else {
+                if (middleKey == key)
+                    found = middle;
+                high = middle - 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Computes the key of the canonical form of a position: the smallest
+     * Zobrist hash of its 8 symmetric images, combined with the board size and
+     * the player to move.
+     *
+     * @param board    Position, only read
+     * @param toMove   Player to move
+     * @param symmetry Receives at [0] the symmetry giving the canonical form
+     * @return Key of the book
+     */
+    static long canonicalKey(BoardEngine board, PlayerColor toMove, int[] symmetry) {
+        int size = board.getSize();
+        long[] hashes = new long[SYMMETRIES];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                PlayerColor color = board.getStoneColor(x, y);
+                if (color == null)
+                    continue;
+                for (int s = 0; s < SYMMETRIES; s++) {
+                    int p = transform(s, x, y, size);
+                    hashes[s] ^= Zobrist.key(p % size, p / size, color);
+                }
+            }
+        }
+        int best = 0;
+        for (int s = 1; s < SYMMETRIES; s++) {
+            if (Long.compareUnsigned(hashes[s], hashes[best]) < 0)
+                best = s;
+        }
+        symmetry[0] = best;
+        return TranspositionTable.key(hashes[best], toMove) ^ size * SIZE_KEY;
+    }
+
+    /**
+     * Maps a point by one of the board symmetries: bit 2 of the symmetry swaps
+     * the axes, then bit 0 mirrors x and bit 1 mirrors y.
+     *
+     * @return Point index of the image
+     */
+    static int transform(int symmetry, int x, int y, int size) {
+        int last = size - 1;
+        int tx = (symmetry & 4) != 0 ? y : x;
+        int ty = (symmetry & 4) != 0 ? x : y;
+        if ((symmetry & 1) != 0)
+            tx = last - tx;
+        if ((symmetry & 2) != 0)
+            ty = last - ty;
+        return ty * size + tx;
+    }
+
+    /** Symmetry undoing the given one: the two quarter turns swap, the rest are their own inverse */
+    static int inverse(int symmetry) {
+        return symmetry == 5 ? 6 : symmetry == 6 ? 5 : symmetry;
+    }
+}
@@ -0,0 +1,161 @@
+package lista4.backend.bot;
+
+import lista4.gameLogic.BitBoard;
+import lista4.gameLogic.Move;
+import lista4.gameLogic.PlayerColor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects opening moves from stored games and self-play and writes them as
+ * an {@link OpeningBook} file.
+ * <p>
+ * Every game is replayed for its first {@link #getMaxPlies()} moves; each
+ * position and the move played in it are counted under the canonical key of
+ * the position, with the move mapped by the same symmetry. A game ends its
+ * contribution at the first pass or illegal move.
+ */
+public class OpeningBookBuilder {
+
+    /** Default number of moves of a game taken into the book */
+    public static final int DEFAULT_MAX_PLIES = 16;
+
+    private final int maxPlies;
+
+    /** Counts per key: canonical move point -> number of games */
+    private final Map<Long, Map<Integer, Integer>> counts = new HashMap<>();
+
+    public OpeningBookBuilder() {
+        this(DEFAULT_MAX_PLIES);
+    }
+
+    /**
+     * @param maxPlies Number of moves of every game taken into the book
+     */
+    public OpeningBookBuilder(int maxPlies) {
+        if (maxPlies < 1)
+            throw new IllegalArgumentException("Liczba ruchów musi być dodatnia: " + maxPlies);
+        this.maxPlies = maxPlies;
+    }
+
+    public int getMaxPlies() {
+        return maxPlies;
+    }
+
+    /**
+     * Adds the opening of a game.
+     *
+     * @param size  Board size of the game
+     * @param moves Moves in the order played; x = -1 marks a pass
+     * @return Number of moves added
+     */
+    public int addGame(int size, List<Move> moves) {
+        BitBoard board = new BitBoard(size);
+        int[] symmetry = new int[1];
+        int added = 0;
+        for (Move move : moves) {
+            int x = move.getX();
+            int y = move.getY();
+            PlayerColor color = move.getPlayerColor();
+            if (added == maxPlies || x < 0 || !board.checkLegal(x, y, color).isLegal())
+                break;
+            count(board, color, x, y, symmetry);
+            board.play(x, y, color);
+            added++;
+        }
+        return added;
+    }
+
+    /**
+     * Plays games of the engine against itself and adds their openings.
+     *
+     * @param engine   Engine choosing the moves
+     * @param size     Board size
+     * @param games    Number of games
+     * @param playouts Playouts per move
+     */
+    public void addSelfPlay(TreeParallelMcts engine, int size, int games, int playouts) {
+        for (int game = 0; game < games; game++) {
+            BitBoard board = new BitBoard(size);
+            List<Move> moves = new ArrayList<>();
+            PlayerColor color = PlayerColor.BLACK;
+            for (int ply = 0; ply < maxPlies; ply++) {
+                MctsResult result = engine.search(board, color, 0, playouts);
+                if (result.isPass())
+                    break;
+                moves.add(new Move(result.getX(), result.getY(), color));
+                board.play(result.getX(), result.getY(), color);
+                color = color.other();
+            }
+            addGame(size, moves);
+        }
+    }
+
+    private void count(BitBoard board, PlayerColor toMove, int x, int y, int[] symmetry) {
+        long key = OpeningBook.canonicalKey(board, toMove, symmetry);
+        int point = OpeningBook.transform(symmetry[0], x, y, board.getSize());
+        counts.computeIfAbsent(key, k -> new HashMap<>()).merge(point, 1, Integer::sum);
+    }
+
+    /**
+     * Returns the number of distinct (position, move) pairs collected.
+     *
+     * @return Entries the book will have
+     */
+    public int size() {
+        int size = 0;
+        for (Map<Integer, Integer> moves : counts.values()) {
+            size += moves.size();
+        }
+        return size;
+    }
+
+    /**
+     * Writes the book, replacing the file only when it is complete.
+     *
+     * @param path Target file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path path) throws IOException {
+        int entries = size();
+        ByteBuffer buffer = ByteBuffer.allocate(OpeningBook.HEADER_BYTES + entries * OpeningBook.ENTRY_BYTES);
+        buffer.putInt(OpeningBook.MAGIC).putInt(OpeningBook.VERSION).putInt(entries).putInt(0);
+
+        // Klucze rosnąco, w obrębie klucza najczęstszy ruch pierwszy
+        List<Long> keys = new ArrayList<>(counts.keySet());
+        keys.sort(Long::compare);
+        for (long key : keys) {
+            List<Map.Entry<Integer, Integer>> moves = new ArrayList<>(counts.get(key).entrySet());
+            moves.sort((a, b) -> a.getValue().equals(b.getValue())
+                    ? Integer.compare(a.getKey(), b.getKey())
+                    : Integer.compare(b.getValue(), a.getValue()));
+            for (Map.Entry<Integer, Integer> move : moves) {
+                buffer.putLong(key).putShort((short) (int) move.getKey()).putShort((short) 0)
+                        .putInt(move.getValue());
+            }
+        }
+        buffer.flip();
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null)
+            Files.createDirectories(parent);
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,189 @@
+package lista4.backend.bot;
+
+import lista4.gameLogic.BitBoard;
+import lista4.gameLogic.BoardEngine;
+import lista4.gameLogic.PlayerColor;
+
+import java.util.SplittableRandom;
+
+/**
+ * Light random playout on a reusable {@link BitBoard}.
+ * <p>
+ * A playout plays random legal moves from the current position until both
+ * players pass, never filling an own eye (an empty point whose all neighbours
+ * are own stones), scores the final position by area and takes all its moves
+ * back. Candidates are drawn from the empty points and checked one by one
+ * with {@link BitBoard#checkLegal(int, int, PlayerColor)}, which is cheaper
+ * than keeping the full legal move mask up to date. Nothing is allocated per
+ * playout; an instance must be used by one thread at a time.
+ */
+public final class Playout {
+
+    private final BitBoard board;
+    private final int size;
+    private final double komi;
+    private final long[] mask;
+    private final int moveLimit;
+    private SplittableRandom random;
+
+    /** Owner of every point after the last playout: 1 black, -1 white, 0 neutral */
+    private final int[] owner;
+
+    /**
+     * @param board Board the playouts start from, owned by this playout
+     * @param komi  Points added to white's score
+     * @param seed  Seed of the move generator
+     */
+    public Playout(BitBoard board, double komi, long seed) {
+        this.board = board;
+        this.size = board.getSize();
+        this.komi = komi;
+        this.mask = new long[board.getMaskLength()];
+        this.moveLimit = size * size * 3;
+        this.random = new SplittableRandom(seed);
+        this.owner = new int[size * size];
+    }
+
+    /**
+     * Returns the board the playouts start from.
+     *
+     * @return Board of this playout
+     */
+    public BitBoard getBoard() {
+        return board;
+    }
+
+    /**
+     * Sets up the starting position, copied with its Ko state and position
+     * history (see {@link BitBoard#copyFrom(BoardEngine)}).
+     *
+     * @param position Position to start the playouts from, only read
+     */
+    public void setPosition(BoardEngine position) {
+        board.copyFrom(position);
+    }
+
+    /**
+     * Changes the seed of the move generator.
+     *
+     * @param seed New seed
+     */
+    public void reseed(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Plays the game to the end and restores the starting position.
+     *
+     * @param toMove   Player to move
+     * @param lastPass Whether the previous move was a pass
+     * @return Area score: black points minus white points minus komi
+     */
+    public double run(PlayerColor toMove, boolean lastPass) {
+        int passes = lastPass ? 1 : 0;
+        int played = 0;
+        for (int moves = 0; passes < 2 && moves < moveLimit; moves++) {
+            int p = randomMove(toMove);
+            if (p < 0) {
+                passes++;
+            } else {
+                board.play(p % size, p / size, toMove);
+                played++;
+                passes = 0;
+            }
+            toMove = toMove.other();
+        }
+        double score = score();
+        for (int i = 0; i < played; i++) {
+            board.undo();
+        }
+        return score;
+    }
+
+    /**
+     * Returns a random number from the generator of this playout.
+     *
+     * @param bound Upper bound (exclusive)
+     * @return Number in [0, bound)
+     */
+    int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    /**
+     * Returns the owner of a point after the last playout.
+     *
+     * @param p Point index {@code y * size + x}
+     * @return 1 for black, -1 for white, 0 for a neutral point
+     */
+    public int getOwner(int p) {
+        return owner[p];
+    }
+
+    /**
+     * Area score of the current position; also fills {@link #owner}.
+     *
+     * @return Black points minus white points minus komi
+     */
+    double score() {
+        double score = -komi;
+        for (int p = 0; p < owner.length; p++) {
+            int x = p % size;
+            int y = p / size;
+            PlayerColor stone = board.getStoneColor(x, y);
+            if (stone == null) {
+                if (isOwnEye(p, PlayerColor.BLACK))
+                    stone = PlayerColor.BLACK;
+                else if (isOwnEye(p, PlayerColor.WHITE))
+                    stone = PlayerColor.WHITE;
+            }
+            owner[p] = stone == PlayerColor.BLACK ? 1 : stone == PlayerColor.WHITE ? -1 : 0;
+            score += owner[p];
+        }
+        return score;
+    }
+
+    /** Picks a random legal move that does not fill an own eye, -1 if there is none */
+    private int randomMove(PlayerColor color) {
+        int count = board.emptyPoints(mask);
+        while (count > 0) {
+            int p = nthBit(random.nextInt(count));
+            if (!isOwnEye(p, color) && board.checkLegal(p % size, p / size, color).isLegal())
+                return p;
+            mask[p >>> 6] &= ~(1L << p);
+            count--;
+        }
+        return -1;
+    }
+
+    private int nthBit(int n) {
+        for (int i = 0; ; i++) {
+            int bits = Long.bitCount(mask[i]);
+            if (n < bits) {
+                long word = mask[i];
+                for (int k = 0; k < n; k++) {
+                    word &= word - 1;
+                }
+                return (i << 6) + Long.numberOfTrailingZeros(word);
+            }
+            n -= bits;
+        }
+    }
+
+    /**
+     * Checks whether p is an empty point whose all neighbours are stones of the
+     * given color.
+     *
+     * @param p     Point index
+     * @param color BLACK or WHITE
+     * @return true for an own eye
+     */
+    boolean isOwnEye(int p, PlayerColor color) {
+        int x = p % size;
+        int y = p / size;
+        return (x == 0 || board.getStoneColor(x - 1, y) == color)
+                && (x == size - 1 || board.getStoneColor(x + 1, y) == color)
+                && (y == 0 || board.getStoneColor(x, y - 1) == color)
+                && (y == size - 1 || board.getStoneColor(x, y + 1) == color);
+    }
+}
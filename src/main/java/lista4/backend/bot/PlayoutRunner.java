@@ -0,0 +1,160 @@
+package lista4.backend.bot;
+
+import lista4.gameLogic.BitBoard;
+import lista4.gameLogic.BoardEngine;
+import lista4.gameLogic.PlayerColor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs random playouts from one position on the threads of a
+ * {@link SearchPool}, its own or one shared with other engines.
+ * <p>
+ * Every worker keeps its own {@link Playout} with a reusable {@link BitBoard}
+ * for the whole life of the runner, so a batch allocates only its result.
+ * The batch reports the mean area score, the win rate, the ownership of every
+ * point and the measured throughput (playouts per second, also per thread).
+ * Batches are run one at a time.
+ */
+public class PlayoutRunner {
+
+    private final double komi;
+    private final SearchPool pool;
+    private final boolean ownsPool;
+    private final Worker[] workers;
+
+    /**
+     * Creates a runner using all available processors.
+     */
+    public PlayoutRunner() {
+        this(Runtime.getRuntime().availableProcessors(), MctsEngine.DEFAULT_KOMI);
+    }
+
+    /**
+     * @param threads Number of worker threads
+     * @param komi    Points added to white's score
+     */
+    public PlayoutRunner(int threads, double komi) {
+        this(new SearchPool(threads), komi, true);
+    }
+
+    /**
+     * Creates a runner on shared threads.
+     *
+     * @param pool Threads shared with other engines, not stopped by
+     *             {@link #shutdown()}
+     * @param komi Points added to white's score
+     */
+    public PlayoutRunner(SearchPool pool, double komi) {
+        this(pool, komi, false);
+    }
+
+    private PlayoutRunner(SearchPool pool, double komi, boolean ownsPool) {
+        this.pool = pool;
+        this.komi = komi;
+        this.ownsPool = ownsPool;
+        this.workers = new Worker[pool.getThreads()];
+    }
+
+    /**
+     * Runs playouts from the position until a budget is used up or the
+     * calling thread is interrupted.
+     *
+     * @param position    Starting position, only read
+     * @param toMove      Player to move
+     * @param timeMillis  Time budget, 0 for no time limit
+     * @param maxPlayouts Playout budget, 0 for no playout limit
+     * @return Scores and throughput of the batch
+     * @throws IllegalArgumentException if neither budget is set
+     */
+    public synchronized PlayoutStats run(BoardEngine position, PlayerColor toMove, long timeMillis, int maxPlayouts) {
+        if (timeMillis <= 0 && maxPlayouts <= 0)
+            throw new IllegalArgumentException("Wymagany limit czasu albo liczby symulacji");
+        long start = System.nanoTime();
+        long deadline = timeMillis > 0 ? start + timeMillis * 1_000_000 : Long.MAX_VALUE;
+        AtomicInteger budget = new AtomicInteger(maxPlayouts > 0 ? maxPlayouts : Integer.MAX_VALUE);
+        int size = position.getSize();
+
+        for (int i = 0; i < workers.length; i++) {
+            if (workers[i] == null || workers[i].playout.getBoard().getSize() != size)
+                workers[i] = new Worker(new Playout(new BitBoard(size), komi, start + i));
+        }
+        AtomicBoolean stop = new AtomicBoolean();
+        List<Worker> done = pool.run(workers.length, stop, i -> {
+            Worker worker = workers[i];
+            worker.playout.setPosition(position);
+            worker.reset();
+            while (SearchPool.running(stop) && System.nanoTime() < deadline && budget.getAndDecrement() > 0) {
+                worker.add(worker.playout.run(toMove, false));
+            }
+            return worker;
+        });
+
+        int points = size * size;
+        double[] ownership = new double[points];
+        int playouts = 0;
+        int blackWins = 0;
+        double scoreSum = 0;
+        for (Worker worker : done) {
+            playouts += worker.playouts;
+            blackWins += worker.blackWins;
+            scoreSum += worker.scoreSum;
+            for (int p = 0; p < points; p++) {
+                ownership[p] += worker.ownership[p];
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (playouts > 0) {
+            for (int p = 0; p < points; p++) {
+                ownership[p] /= playouts;
+            }
+        }
+        return new PlayoutStats(size, playouts, done.size(), elapsed,
+                playouts == 0 ? 0 : scoreSum / playouts,
+                playouts == 0 ? 0 : (double) blackWins / playouts, ownership);
+    }
+
+    /**
+     * Stops the worker threads, unless they are shared. The runner cannot be
+     * used afterwards.
+     */
+    public void shutdown() {
+        if (ownsPool)
+            pool.shutdown();
+    }
+
+    /** Playout of one thread and its totals for the current batch */
+    private static final class Worker {
+        final Playout playout;
+        final int[] ownership;
+        int playouts;
+        int blackWins;
+        double scoreSum;
+
+        Worker(Playout playout) {
+            this.playout = playout;
+            int size = playout.getBoard().getSize();
+            this.ownership = new int[size * size];
+        }
+
+        void reset() {
+            playouts = 0;
+            blackWins = 0;
+            scoreSum = 0;
+            Arrays.fill(ownership, 0);
+        }
+
+        void add(double score) {
+            playouts++;
+            scoreSum += score;
+            if (score > 0)
+                blackWins++;
+            for (int p = 0; p < ownership.length; p++) {
+                ownership[p] += playout.getOwner(p);
+            }
+        }
+    }
+}
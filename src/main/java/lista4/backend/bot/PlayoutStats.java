@@ -0,0 +1,94 @@
+package lista4.backend.bot;
+
+/**
+ * Results and throughput of a batch of playouts run by {@link PlayoutRunner}.
+ */
+public final class PlayoutStats {
+
+    private final int size;
+    private final int playouts;
+    private final int threads;
+    private final long elapsedNanos;
+    private final double meanScore;
+    private final double blackWinRate;
+    private final double[] ownership;
+
+    PlayoutStats(int size, int playouts, int threads, long elapsedNanos, double meanScore,
+            double blackWinRate, double[] ownership) {
+        this.size = size;
+        this.playouts = playouts;
+        this.threads = threads;
+        this.elapsedNanos = elapsedNanos;
+        this.meanScore = meanScore;
+        this.blackWinRate = blackWinRate;
+        this.ownership = ownership;
+    }
+
+    public int getPlayouts() {
+        return playouts;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    /**
+     * Returns the average area score, positive when black is ahead (komi
+     * included).
+     *
+     * @return Mean of black points minus white points minus komi
+     */
+    public double getMeanScore() {
+        return meanScore;
+    }
+
+    /**
+     * Returns the share of playouts won by black.
+     *
+     * @return Win rate of black in [0, 1]
+     */
+    public double getBlackWinRate() {
+        return blackWinRate;
+    }
+
+    /**
+     * Returns how often a point ended as black or white area, e.g. to tell dead
+     * stones from alive ones.
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return Value in [-1, 1]: 1 always black, -1 always white
+     */
+    public double getOwnership(int x, int y) {
+        return ownership[y * size + x];
+    }
+
+    /**
+     * Returns the measured throughput of the whole batch.
+     *
+     * @return Playouts per second
+     */
+    public double getPlayoutsPerSecond() {
+        return elapsedNanos == 0 ? 0 : playouts * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Returns the measured throughput of one worker thread.
+     *
+     * @return Playouts per second and thread
+     */
+    public double getPlayoutsPerSecondPerThread() {
+        return getPlayoutsPerSecond() / threads;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d symulacji w %d ms (%.0f/s, %.0f/s na wątek, %d wątków), wynik %.1f, czarne %.1f%%",
+                playouts, getElapsedMillis(), getPlayoutsPerSecond(), getPlayoutsPerSecondPerThread(), threads,
+                meanScore, blackWinRate * 100);
+    }
+}
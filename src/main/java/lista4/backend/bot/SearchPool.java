@@ -0,0 +1,144 @@
+package lista4.backend.bot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Threads running the workers of searches, shared by any number of engines.
+ * <p>
+ * A search of {@code n} threads runs its first worker on the calling thread
+ * and the other {@code n - 1} on the helper threads of the pool, so it always
+ * makes progress even when all helpers are busy with other searches; helpers
+ * which start late work until the same limits, and those still waiting when
+ * the search ends never start. However many engines
+ * use the pool, the searches never run on more than the callers plus
+ * {@link #getThreads()} {@code - 1} helper threads.
+ * <p>
+ * All workers of a search watch one stop flag, which is also set when the
+ * calling thread is interrupted, so cancelling the caller stops the whole
+ * search.
+ */
+public final class SearchPool {
+
+    private final int threads;
+    private final ThreadPoolExecutor helpers;
+
+    /**
+     * @param threads Most threads of one search, the calling one included
+     */
+    public SearchPool(int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("Liczba wątków musi być dodatnia: " + threads);
+        this.threads = threads;
+        AtomicInteger counter = new AtomicInteger();
+        helpers = threads == 1 ? null : new ThreadPoolExecutor(threads - 1, threads - 1, 0L,
+                TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "bot-search-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Returns the most threads of one search.
+     *
+     * @return Helper threads plus the calling one
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Checks whether a worker should go on; an interrupt of the worker's thread
+     * stops all workers of the search.
+     *
+     * @param stop Stop flag of the search
+     * @return false if the search was stopped
+     */
+    static boolean running(AtomicBoolean stop) {
+        if (Thread.currentThread().isInterrupted())
+            stop.set(true);
+        return !stop.get();
+    }
+
+    /**
+     * Runs the workers of a search and waits for them. Workers share the limits
+     * of the search, so when the calling worker returns the search is over:
+     * helpers which have not started yet are dropped, only the running ones
+     * are waited for. An interrupt of the calling thread sets the stop flag;
+     * the running helpers are still waited for, so none of them uses the
+     * search state after the return, and the interrupt status is kept.
+     *
+     * @param count Number of workers, at most {@link #getThreads()}
+     * @param stop  Stop flag, checked by the workers with {@link #running}
+     * @param work  Worker of the given index, 0 runs on the calling thread
+     * @return Results of the workers which ran, the calling one first
+     * @throws IllegalStateException if a worker failed
+     */
+    <T> List<T> run(int count, AtomicBoolean stop, IntFunction<T> work) {
+        int workers = Math.max(1, Math.min(count, threads));
+        List<Future<T>> futures = new ArrayList<>(workers - 1);
+        List<AtomicBoolean> claims = new ArrayList<>(workers - 1);
+        for (int i = 1; i < workers; i++) {
+            int index = i;
+            AtomicBoolean claim = new AtomicBoolean();
+            claims.add(claim);
+            // Pomocnik zaczyna tylko, jeśli wołający nie zrezygnował z niego wcześniej
+            futures.add(helpers.submit(() -> claim.compareAndSet(false, true) ? work.apply(index) : null));
+        }
+        List<T> results = new ArrayList<>(workers);
+        RuntimeException failure = null;
+        try {
+            results.add(work.apply(0));
+        } catch (RuntimeException e) {
+            stop.set(true);
+            failure = e;
+        }
+        boolean interrupted = false;
+        for (int i = 0; i < futures.size(); i++) {
+            Future<T> future = futures.get(i);
+            if (claims.get(i).compareAndSet(false, true)) {
+                // Niezaczęty pomocnik nie czeka już na wolny wątek
+                future.cancel(false);
+                helpers.remove((Runnable) future);
+                continue;
+            }
+            while (true) {
+                try {
+                    results.add(future.get());
+                    break;
+                } catch (InterruptedException e) {
+                    // Przerwanie wołającego zatrzymuje wszystkie wątki wyszukiwania
+                    interrupted = true;
+                    stop.set(true);
+                } catch (ExecutionException e) {
+                    stop.set(true);
+                    if (failure == null)
+                        failure = new IllegalStateException("Błąd wątku wyszukiwania", e.getCause());
+                    break;
+                }
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+        if (failure != null)
+            throw failure;
+        return results;
+    }
+
+    /**
+     * Stops the helper threads. The pool cannot be used afterwards.
+     */
+    public void shutdown() {
+        if (helpers != null)
+            helpers.shutdownNow();
+    }
+}
@@ -0,0 +1,130 @@
+package lista4.backend.bot;
+
+import lista4.gameLogic.BitBoard;
+import lista4.gameLogic.PlayerColor;
+
+/**
+ * UCT search tree, used by one thread.
+ * <p>
+ * Every iteration walks down the tree playing moves on the {@link BitBoard} of
+ * its {@link Playout}, expands one node, finishes the game with a random
+ * playout and takes all moves back with {@link BitBoard#undo()}, so the board
+ * is never copied.
+ */
+final class SearchTree {
+
+    private static final double EXPLORATION = 0.7;
+
+    /** Move index used for a pass, one past the last point */
+    final int pass;
+
+    private final Playout playout;
+    private final BitBoard board;
+    private final int size;
+    private final int points;
+    private final long[] mask;
+
+    final Node root;
+
+    /**
+     * @param playout   Playout whose board holds the position to search
+     * @param toMove    Player to move in the position
+     * @param rootMoves Legal moves of the player to move, as a point mask
+     */
+    SearchTree(Playout playout, PlayerColor toMove, long[] rootMoves) {
+        this.playout = playout;
+        this.board = playout.getBoard();
+        this.size = board.getSize();
+        this.points = size * size;
+        this.pass = points;
+        this.mask = new long[board.getMaskLength()];
+        root = new Node(-1, toMove.other(), null);
+        System.arraycopy(rootMoves, 0, mask, 0, mask.length);
+        fillUntried(root, toMove);
+    }
+
+    /**
+     * Runs one selection, expansion, playout and backpropagation.
+     */
+    void iterate() {
+        Node node = root;
+        int played = 0;
+        boolean lastPass = false;
+        boolean finished = false;
+
+        // Selekcja: schodzimy, dopóki węzeł jest w pełni rozwinięty
+        while (node.untriedCount == 0 && node.childCount > 0) {
+            node = node.select(EXPLORATION);
+            if (apply(node.move, node.color))
+                played++;
+            finished = lastPass && node.move == pass;
+            lastPass = node.move == pass;
+            if (finished)
+                break;
+        }
+
+        // Rozwinięcie jednego nowego ruchu
+        if (!finished) {
+            if (node.untried == null) {
+                PlayerColor toMove = node.color.other();
+                board.emptyPoints(mask);
+                for (int i = 0; i < mask.length; i++) {
+                    long word = mask[i];
+                    while (word != 0) {
+                        int p = (i << 6) + Long.numberOfTrailingZeros(word);
+                        word &= word - 1;
+                        if (!board.checkLegal(p % size, p / size, toMove).isLegal())
+                            mask[i] &= ~(1L << p);
+                    }
+                }
+                fillUntried(node, toMove);
+            }
+            if (node.untriedCount > 0) {
+                int move = node.takeUntried(playout.nextInt(node.untriedCount));
+                node = node.addChild(move);
+                if (apply(move, node.color))
+                    played++;
+                finished = lastPass && move == pass;
+                lastPass = move == pass;
+            }
+        }
+
+        // Symulacja do końca gry
+        double score = finished ? playout.score() : playout.run(node.color.other(), lastPass);
+        PlayerColor winner = score > 0 ? PlayerColor.BLACK : PlayerColor.WHITE;
+        for (int i = 0; i < played; i++) {
+            board.undo();
+        }
+
+        for (Node n = node; n != null; n = n.parent) {
+            n.visits++;
+            if (n.color == winner)
+                n.wins++;
+        }
+    }
+
+    private void fillUntried(Node node, PlayerColor color) {
+        int count = 0;
+        int[] moves = new int[points + 1];
+        for (int i = 0; i < mask.length; i++) {
+            long word = mask[i];
+            while (word != 0) {
+                int p = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                if (!playout.isOwnEye(p, color))
+                    moves[count++] = p;
+            }
+        }
+        moves[count++] = pass;
+        node.untried = moves;
+        node.untriedCount = count;
+    }
+
+    /** Plays the move on the board, returns false for a pass */
+    private boolean apply(int move, PlayerColor color) {
+        if (move == pass)
+            return false;
+        board.play(move % size, move / size, color);
+        return true;
+    }
+}
@@ -0,0 +1,198 @@
+package lista4.backend.bot;
+
+import lista4.gameLogic.PlayerColor;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Fixed-size table of search statistics keyed by a 64-bit position hash,
+ * stored outside the Java heap and shared by search threads without locks.
+ * <p>
+ * An entry takes 16 bytes: the key XORed with the data, and the data (visits,
+ * wins and the generation of the search which wrote it). Four entries form a
+ * bucket of one cache line. Entries are read and written with opaque 64-bit
+ * accesses; a reader accepts an entry only if its two words XOR to the
+ * requested key, so an entry torn by a concurrent write is seen as a miss
+ * instead of wrong data. Storing replaces the entry of the same key, an empty
+ * one, or else the least useful one of the bucket: from an older generation
+ * first, then the one with the fewest visits.
+ * <p>
+ * Keys of positions with the same stones but a different player to move
+ * differ, see {@link #key(long, PlayerColor)}.
+ */
+public final class TranspositionTable {
+
+    /** Default number of entries (16 MB) */
+    public static final int DEFAULT_ENTRIES = 1 << 20;
+
+    /** Result of {@link #probe} for a position which is not in the table */
+    public static final long MISS = 0;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int BUCKET_ENTRIES = 4;
+    private static final int BUCKET_BYTES = ENTRY_BYTES * BUCKET_ENTRIES;
+
+    private static final int COUNT_BITS = 28;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final int GENERATION_SHIFT = 2 * COUNT_BITS;
+
+    /** Hashed with the stones when white is to move */
+    private static final long WHITE_TO_MOVE = 0x6A09E667F3BCC909L;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class,
+            ByteOrder.nativeOrder());
+
+    private final ByteBuffer memory;
+    private final int buckets;
+    private volatile int generation;
+
+    /**
+     * @param entries Number of entries, rounded up to a power of two (at least
+     *                one bucket, at most 2^26)
+     */
+    public TranspositionTable(int entries) {
+        if (entries < 1 || entries > 1 << 26)
+            throw new IllegalArgumentException("Niepoprawna liczba wpisów: " + entries);
+        int rounded = Math.max(BUCKET_ENTRIES, entries == 1 ? 1 : Integer.highestOneBit(entries - 1) << 1);
+        buckets = rounded / BUCKET_ENTRIES;
+        // Dostęp atomowy wymaga wyrównania do 8 bajtów
+        memory = ByteBuffer.allocateDirect(buckets * BUCKET_BYTES + 8).alignedSlice(8);
+    }
+
+    /**
+     * Combines the hash of the stones with the player to move.
+     *
+     * @param positionHash Zobrist hash of the stones
+     * @param toMove       Player to move
+     * @return Key of the table
+     */
+    public static long key(long positionHash, PlayerColor toMove) {
+        return toMove == PlayerColor.WHITE ? positionHash ^ WHITE_TO_MOVE : positionHash;
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param key Key of the position
+     * @return Packed data (see {@link #visits} and {@link #wins}), or
+     *         {@link #MISS}
+     */
+    public long probe(long key) {
+        int base = bucketOffset(key);
+        for (int offset = base; offset < base + BUCKET_BYTES; offset += ENTRY_BYTES) {
+            long check = (long) LONGS.getOpaque(memory, offset);
+            long data = (long) LONGS.getOpaque(memory, offset + 8);
+            if (data != MISS && (check ^ data) == key)
+                return data;
+        }
+        return MISS;
+    }
+
+    /**
+     * Stores the statistics of a position; nothing is stored for 0 visits.
+     *
+     * @param key    Key of the position
+     * @param visits Simulations through the position
+     * @param wins   Simulations won by the player who moved into it
+     */
+    public void store(long key, int visits, int wins) {
+        if (visits <= 0)
+            return;
+        int current = generation;
+        long data = pack(visits, wins, current);
+        int base = bucketOffset(key);
+        int victim = base;
+        long victimScore = Long.MAX_VALUE;
+        for (int offset = base; offset < base + BUCKET_ENTRIES * ENTRY_BYTES; offset += ENTRY_BYTES) {
+            long check = (long) LONGS.getOpaque(memory, offset);
+            long old = (long) LONGS.getOpaque(memory, offset + 8);
+            if (old == MISS || (check ^ old) == key) {
+                victim = offset;
+                break;
+            }
+            // Najpierw stare przebiegi, potem najmniej odwiedzane
+            long score = (generation(old) == current ? 1L << COUNT_BITS : 0) + visits(old);
+            if (score < victimScore) {
+                victimScore = score;
+                victim = offset;
+            }
+        }
+        LONGS.setOpaque(memory, victim, key ^ data);
+        LONGS.setOpaque(memory, victim + 8, data);
+    }
+
+    /**
+     * Starts a new generation: entries written before become the first to be
+     * replaced, but can still be found.
+     */
+    public void newGeneration() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * Empties the table.
+     */
+    public void clear() {
+        for (int offset = 0; offset < buckets * BUCKET_BYTES; offset += 8) {
+            LONGS.setOpaque(memory, offset, 0L);
+        }
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return Capacity of the table
+     */
+    public int capacity() {
+        return buckets * BUCKET_ENTRIES;
+    }
+
+    /**
+     * Counts the entries in use by scanning the whole table.
+     *
+     * @return Used entries
+     */
+    public int used() {
+        int used = 0;
+        for (int offset = 8; offset < buckets * BUCKET_BYTES; offset += ENTRY_BYTES) {
+            if ((long) LONGS.getOpaque(memory, offset) != MISS)
+                used++;
+        }
+        return used;
+    }
+
+    /**
+     * @param data Packed data returned by {@link #probe}
+     * @return Simulations through the position
+     */
+    public static int visits(long data) {
+        return (int) (data & COUNT_MASK);
+    }
+
+    /**
+     * @param data Packed data returned by {@link #probe}
+     * @return Simulations won by the player who moved into the position
+     */
+    public static int wins(long data) {
+        return (int) ((data >>> COUNT_BITS) & COUNT_MASK);
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> GENERATION_SHIFT);
+    }
+
+    private static long pack(int visits, int wins, int generation) {
+        long v = Math.min(visits, COUNT_MASK);
+        long w = Math.min(Math.max(wins, 0), v);
+        return v | w << COUNT_BITS | (long) (generation & 0xFF) << GENERATION_SHIFT;
+    }
+
+    private int bucketOffset(long key) {
+        // Obie połowy klucza, żeby kubeł zależał od wszystkich kamieni
+        int index = (int) ((key >>> 32) ^ key) & (buckets - 1);
+        return index * BUCKET_BYTES;
+    }
+}
@@ -0,0 +1,568 @@
+package lista4.backend.bot;
+
+import lista4.gameLogic.BitBoard;
+import lista4.gameLogic.BoardEngine;
+import lista4.gameLogic.PlayerColor;
+import lista4.gameLogic.Zobrist;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tree-parallel Monte Carlo Tree Search: all threads grow one shared tree.
+ * <p>
+ * Nodes live in a preallocated {@link NodeArena}, visits and wins are atomic
+ * counters, and a node is expanded by the one thread that wins a CAS on its
+ * state, so the search takes no locks and does not allocate while it runs.
+ * A thread descending through a node adds a virtual loss to it, which makes
+ * the other threads prefer different branches until the playout result is
+ * backed up. Every worker keeps its own {@link Playout} and board, reused
+ * between searches; the threads come from a {@link SearchPool}, the engine's
+ * own or one shared with other engines.
+ * <p>
+ * The tree outlives a search. When the next search starts from a position
+ * reached by up to {@link #MAX_REUSED_PLIES} moves from the last root, the
+ * node of that position becomes the new root with all its statistics and
+ * the rest of the tree is dropped. {@link #ponder} grows the tree while the
+ * opponent thinks, so the search after the opponent's move starts from the
+ * node of the move actually played.
+ * <p>
+ * With a {@link TranspositionTable} the statistics of every tree node are
+ * also stored under the hash of its position, and a new node reached through
+ * another move order (or created in an earlier search) starts from them, as
+ * at most {@link #PRIOR_VISITS} visits with the same win rate.
+ */
+public class TreeParallelMcts {
+
+    /** Default number of nodes of the arena */
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+
+    private static final double EXPLORATION = 0.7;
+    private static final int VIRTUAL_LOSS = 3;
+
+    /** Largest number of visits a node gets from the transposition table */
+    static final int PRIOR_VISITS = 16;
+
+    /** Moves between the last root and a new search position which keep the tree */
+    static final int MAX_REUSED_PLIES = 2;
+
+    private final double komi;
+    private final SearchPool pool;
+    private final boolean ownsPool;
+    private final NodeArena arena;
+    private final Playout[] workers;
+    private final TranspositionTable table;
+
+    /** Guards the arena and the workers: one search or ponder at a time */
+    private final ReentrantLock searchLock = new ReentrantLock();
+
+    /** Root node and its position, kept for the next search */
+    private int root;
+    private BitBoard rootBoard;
+    private BitBoard scratch;
+    private PlayerColor rootColor;
+    private int reusedPlayouts;
+
+    /** Stop flag of the running pondering, null if none */
+    private volatile AtomicBoolean ponderStop;
+
+    /**
+     * Creates an engine using all available processors.
+     */
+    public TreeParallelMcts() {
+        this(Runtime.getRuntime().availableProcessors(), MctsEngine.DEFAULT_KOMI, DEFAULT_CAPACITY,
+                new TranspositionTable(TranspositionTable.DEFAULT_ENTRIES));
+    }
+
+    /**
+     * Creates an engine without a transposition table.
+     *
+     * @param threads  Number of search threads
+     * @param komi     Points added to white's score
+     * @param capacity Maximum number of tree nodes
+     */
+    public TreeParallelMcts(int threads, double komi, int capacity) {
+        this(threads, komi, capacity, null);
+    }
+
+    /**
+     * @param threads  Number of search threads
+     * @param komi     Points added to white's score
+     * @param capacity Maximum number of tree nodes
+     * @param table    Statistics shared between transpositions and searches,
+     *                 null for none
+     */
+    public TreeParallelMcts(int threads, double komi, int capacity, TranspositionTable table) {
+        this(new SearchPool(threads), komi, capacity, table, true);
+    }
+
+    /**
+     * Creates an engine searching on shared threads.
+     *
+     * @param pool     Threads shared with other engines, not stopped by
+     *                 {@link #shutdown()}
+     * @param komi     Points added to white's score
+     * @param capacity Maximum number of tree nodes
+     * @param table    Statistics shared between transpositions and searches,
+     *                 null for none
+     */
+    public TreeParallelMcts(SearchPool pool, double komi, int capacity, TranspositionTable table) {
+        this(pool, komi, capacity, table, false);
+    }
+
+    private TreeParallelMcts(SearchPool pool, double komi, int capacity, TranspositionTable table,
+            boolean ownsPool) {
+        this.pool = pool;
+        this.komi = komi;
+        this.ownsPool = ownsPool;
+        this.arena = new NodeArena(capacity);
+        this.workers = new Playout[pool.getThreads()];
+        this.table = table;
+    }
+
+    /**
+     * Searches the best move of the given player.
+     *
+     * @param position    Current position; only read, moves are checked against
+     *                    its Ko and superko state
+     * @param color       Player to move
+     * @param timeMillis  Time budget, 0 for no time limit
+     * @param maxPlayouts Playout budget, 0 for no playout limit
+     * @return Chosen move with statistics; a pass if there is no legal move
+     * @throws IllegalArgumentException if neither budget is set
+     */
+    public MctsResult search(BoardEngine position, PlayerColor color, long timeMillis, int maxPlayouts) {
+        return search(position, color, timeMillis, maxPlayouts, pool.getThreads());
+    }
+
+    /**
+     * Searches the best move of the given player with at most the given number
+     * of threads, e.g. as granted by {@link BotExecutor}. An interrupt of the
+     * calling thread stops the search early.
+     *
+     * @param position    Current position; only read, moves are checked against
+     *                    its Ko and superko state
+     * @param color       Player to move
+     * @param timeMillis  Time budget, 0 for no time limit
+     * @param maxPlayouts Playout budget, 0 for no playout limit
+     * @param threads     Most threads of the search, the calling one included
+     * @return Chosen move with statistics; a pass if there is no legal move
+     * @throws IllegalArgumentException if neither budget is set
+     */
+    public MctsResult search(BoardEngine position, PlayerColor color, long timeMillis, int maxPlayouts,
+            int threads) {
+        if (timeMillis <= 0 && maxPlayouts <= 0)
+            throw new IllegalArgumentException("Wymagany limit czasu albo liczby symulacji");
+        // Rozważanie ustępuje czekającemu wyszukiwaniu
+        stopPonder();
+        searchLock.lock();
+        try {
+            long start = System.nanoTime();
+            long deadline = timeMillis > 0 ? start + timeMillis * 1_000_000 : Long.MAX_VALUE;
+            int size = position.getSize();
+            int points = size * size;
+            long[] rootMoves = new long[position.getMaskLength()];
+            if (position.legalMoves(color, rootMoves) == 0) {
+                rootBoard = null;
+                return new MctsResult(-1, -1, 0, 0, 0, 0);
+            }
+            int count = Math.max(1, Math.min(threads, workers.length));
+            prepare(position, color, rootMoves, start, count);
+
+            AtomicInteger budget = new AtomicInteger(maxPlayouts > 0 ? maxPlayouts : Integer.MAX_VALUE);
+            AtomicBoolean stop = new AtomicBoolean();
+            pool.run(count, stop, i -> {
+                Worker worker = new Worker(workers[i], color, points);
+                while (SearchPool.running(stop) && System.nanoTime() < deadline && budget.getAndDecrement() > 0) {
+                    worker.iterate();
+                }
+                return worker;
+            });
+
+            int best = -1;
+            int first = arena.firstChild[root];
+            for (int c = first; c < first + arena.childCount[root]; c++) {
+                if (best < 0 || arena.visits.get(c) > arena.visits.get(best))
+                    best = c;
+            }
+            int visits = arena.visits.get(best);
+            double winRate = visits == 0 ? 0 : (double) arena.wins.get(best) / visits;
+            int playouts = arena.visits.get(root) - reusedPlayouts;
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            int move = arena.move[best];
+            if (move == points)
+                return new MctsResult(-1, -1, visits, winRate, playouts, elapsed);
+            return new MctsResult(move % size, move / size, visits, winRate, playouts, elapsed);
+        } finally {
+            searchLock.unlock();
+        }
+    }
+
+    /**
+     * Grows the tree of the position until {@link #stopPonder()}, an interrupt
+     * of the calling thread, the next search or the time limit, e.g. while the
+     * opponent thinks. Does nothing if a search is running.
+     *
+     * @param position   Position after the engine's move; only read, moves are
+     *                   checked against its Ko and superko state
+     * @param color      Player to move (the opponent)
+     * @param timeMillis Longest time to ponder
+     * @param threads    Most threads of the pondering, the calling one included
+     * @return true if the tree was grown
+     */
+    public boolean ponder(BoardEngine position, PlayerColor color, long timeMillis, int threads) {
+        if (!searchLock.tryLock())
+            return false;
+        try {
+            long start = System.nanoTime();
+            long deadline = start + timeMillis * 1_000_000;
+            int points = position.getSize() * position.getSize();
+            long[] rootMoves = new long[position.getMaskLength()];
+            if (position.legalMoves(color, rootMoves) == 0)
+                return false;
+            int count = Math.max(1, Math.min(threads, workers.length));
+            prepare(position, color, rootMoves, start, count);
+
+            AtomicBoolean stop = new AtomicBoolean();
+            ponderStop = stop;
+            pool.run(count, stop, i -> {
+                Worker worker = new Worker(workers[i], color, points);
+                // Czekające wyszukiwanie ma pierwszeństwo, pełna arena nie daje już nic nowego
+                while (SearchPool.running(stop) && !searchLock.hasQueuedThreads()
+                        && System.nanoTime() < deadline && arena.size() < arena.capacity) {
+                    worker.iterate();
+                }
+                return worker;
+            });
+            return true;
+        } finally {
+            ponderStop = null;
+            searchLock.unlock();
+        }
+    }
+
+    /**
+     * Stops pondering; the tree is kept for the next search, which waits for
+     * the pondering threads to finish.
+     */
+    public void stopPonder() {
+        AtomicBoolean stop = ponderStop;
+        if (stop != null)
+            stop.set(true);
+    }
+
+    /**
+     * Returns the playouts of the tree reused by the last search or ponder.
+     *
+     * @return Visits of the root before the search started
+     */
+    public int getReusedPlayouts() {
+        return reusedPlayouts;
+    }
+
+    /** Sets up the workers and the root: a reused node or a new tree */
+    private void prepare(BoardEngine position, PlayerColor color, long[] rootMoves, long seed, int count) {
+        if (table != null)
+            table.newGeneration();
+        int size = position.getSize();
+        int points = size * size;
+        for (int i = 0; i < count; i++) {
+            if (workers[i] == null || workers[i].getBoard().getSize() != size)
+                workers[i] = new Playout(new BitBoard(size), komi, seed + i);
+            workers[i].setPosition(position);
+        }
+
+        // Przy zapełnionej ponad połowę arenie lepiej zacząć od nowa
+        int reused = arena.size() <= arena.capacity / 2 ? findReusable(position, color) : -1;
+        if (reused < 0 || !expandRoot(reused, workers[0], color, rootMoves, points)) {
+            arena.reset();
+            reused = 0;
+            expandRoot(0, workers[0], color, rootMoves, points);
+        }
+        root = reused;
+        reusedPlayouts = arena.visits.get(root);
+
+        if (rootBoard == null || rootBoard.getSize() != size) {
+            rootBoard = new BitBoard(size);
+            scratch = new BitBoard(size);
+        }
+        rootBoard.copyFrom(position);
+        rootColor = color;
+    }
+
+    /**
+     * Finds the node of the position by following the stones added since the
+     * last root, at most {@link #MAX_REUSED_PLIES} of them.
+     *
+     * @return Node index, -1 if the position is not in the tree
+     */
+    private int findReusable(BoardEngine position, PlayerColor color) {
+        if (rootBoard == null || rootBoard.getSize() != position.getSize())
+            return -1;
+        int size = position.getSize();
+        scratch.copyFrom(rootBoard);
+        int node = root;
+        PlayerColor toMove = rootColor;
+        for (int ply = 0;; ply++) {
+            if (toMove == color && scratch.getHash() == position.getHash())
+                return node;
+            if (ply == MAX_REUSED_PLIES || arena.state.get(node) != NodeArena.EXPANDED)
+                return -1;
+            // Pasy nie są dopasowywane: ta sama pozycja po pasie to inny stan gry
+            int move = newStone(position, toMove);
+            if (move < 0 || !scratch.checkLegal(move % size, move / size, toMove).isLegal())
+                return -1;
+            node = findChild(node, move);
+            if (node < 0)
+                return -1;
+            scratch.play(move % size, move / size, toMove);
+            toMove = toMove.other();
+        }
+    }
+
+    /** The only stone of the color on the position which is not on the scratch board, or -1 */
+    private int newStone(BoardEngine position, PlayerColor color) {
+        int size = position.getSize();
+        int found = -1;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                if (scratch.isEmpty(x, y) && position.getStoneColor(x, y) == color) {
+                    if (found >= 0)
+                        return -1;
+                    found = y * size + x;
+                }
+            }
+        }
+        return found;
+    }
+
+    private int findChild(int node, int move) {
+        int first = arena.firstChild[node];
+        for (int c = first; c < first + arena.childCount[node]; c++) {
+            if (arena.move[c] == move)
+                return c;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of tree nodes in use, including the nodes of
+     * earlier searches.
+     *
+     * @return Used nodes of the arena
+     */
+    public int getTreeSize() {
+        return arena.size();
+    }
+
+    /**
+     * Stops the worker threads, unless they are shared. The engine cannot be
+     * used afterwards.
+     */
+    public void shutdown() {
+        stopPonder();
+        if (ownsPool)
+            pool.shutdown();
+    }
+
+    /**
+     * Gives the root one child per legal move of the game's board, so Ko and
+     * superko are respected; children already in the tree keep their
+     * statistics and subtrees.
+     *
+     * @return false if the arena has no room for the children
+     */
+    private boolean expandRoot(int node, Playout playout, PlayerColor color, long[] rootMoves, int points) {
+        int count = 1;
+        for (long word : rootMoves) {
+            count += Long.bitCount(word);
+        }
+        int first = arena.allocate(count);
+        if (first < 0)
+            return false;
+        int c = first;
+        for (int i = 0; i < rootMoves.length; i++) {
+            long word = rootMoves[i];
+            while (word != 0) {
+                int p = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                if (!playout.isOwnEye(p, color))
+                    adoptChild(node, c++, p, playout.getBoard(), color);
+            }
+        }
+        adoptChild(node, c++, points, playout.getBoard(), color);
+        arena.firstChild[node] = first;
+        arena.childCount[node] = c - first;
+        arena.state.set(node, NodeArena.EXPANDED);
+        return true;
+    }
+
+    private void adoptChild(int node, int child, int move, BitBoard board, PlayerColor color) {
+        int old = findChild(node, move);
+        if (old >= 0) {
+            arena.copy(old, child);
+        } else {
+            arena.init(child, move);
+            seed(child, board, color);
+        }
+    }
+
+    /** Starts a new node from the table entry of its position, if there is one */
+    private void seed(int node, BitBoard board, PlayerColor color) {
+        if (table == null)
+            return;
+        int move = arena.move[node];
+        int size = board.getSize();
+        // Bez bić: pozycja z biciem po prostu nie zostanie znaleziona
+        long hash = move == size * size ? board.getHash()
+                : board.getHash() ^ Zobrist.key(move % size, move / size, color);
+        long data = table.probe(TranspositionTable.key(hash, color.other()));
+        if (data == TranspositionTable.MISS)
+            return;
+        int visits = TranspositionTable.visits(data);
+        int wins = TranspositionTable.wins(data);
+        if (visits > PRIOR_VISITS) {
+            wins = (int) ((long) wins * PRIOR_VISITS / visits);
+            visits = PRIOR_VISITS;
+        }
+        arena.visits.set(node, visits);
+        arena.wins.set(node, wins);
+    }
+
+    /** Search state of one thread: its board and the path of the current iteration */
+    private final class Worker {
+        private final Playout playout;
+        private final BitBoard board;
+        private final PlayerColor toMove;
+        private final int size;
+        private final int pass;
+        private final long[] mask;
+        private int[] path = new int[64];
+        private long[] keys = new long[64];
+
+        Worker(Playout playout, PlayerColor toMove, int points) {
+            this.playout = playout;
+            this.board = playout.getBoard();
+            this.toMove = toMove;
+            this.size = board.getSize();
+            this.pass = points;
+            this.mask = new long[board.getMaskLength()];
+        }
+
+        void iterate() {
+            int node = root;
+            int depth = 0;
+            int played = 0;
+            PlayerColor color = toMove.other();
+            boolean lastPass = false;
+            boolean finished = false;
+            path[0] = node;
+
+            while (!finished) {
+                int state = arena.state.get(node);
+                if (state == NodeArena.UNEXPANDED && arena.visits.get(node) > 0
+                        && arena.state.compareAndSet(node, NodeArena.UNEXPANDED, NodeArena.EXPANDING)) {
+                    state = expand(node, color.other());
+                }
+                if (state != NodeArena.EXPANDED)
+                    break;
+
+                node = select(node);
+                color = color.other();
+                int move = arena.move[node];
+                if (move != pass) {
+                    board.play(move % size, move / size, color);
+                    played++;
+                }
+                finished = lastPass && move == pass;
+                lastPass = move == pass;
+                if (++depth == path.length) {
+                    path = Arrays.copyOf(path, depth * 2);
+                    keys = Arrays.copyOf(keys, depth * 2);
+                }
+                path[depth] = node;
+                keys[depth] = TranspositionTable.key(board.getHash(), color.other());
+            }
+
+            double score = finished ? playout.score() : playout.run(color.other(), lastPass);
+            PlayerColor winner = score > 0 ? PlayerColor.BLACK : PlayerColor.WHITE;
+            for (int i = 0; i < played; i++) {
+                board.undo();
+            }
+
+            // Kolor węzła na głębokości k: ruch gracza toMove dla k nieparzystych
+            arena.visits.incrementAndGet(path[0]);
+            for (int k = 1; k <= depth; k++) {
+                int n = path[k];
+                int visits = arena.visits.incrementAndGet(n);
+                int wins = (k % 2 == 1 ? toMove : toMove.other()) == winner
+                        ? arena.wins.incrementAndGet(n)
+                        : arena.wins.get(n);
+                arena.virtualLoss.addAndGet(n, -VIRTUAL_LOSS);
+                if (table != null)
+                    table.store(keys[k], visits, wins);
+            }
+        }
+
+        /** Creates all children of the node; the caller owns the EXPANDING state */
+        private int expand(int node, PlayerColor color) {
+            int count = board.emptyPoints(mask);
+            for (int i = 0; i < mask.length; i++) {
+                long word = mask[i];
+                while (word != 0) {
+                    int p = (i << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    if (playout.isOwnEye(p, color) || !board.checkLegal(p % size, p / size, color).isLegal()) {
+                        mask[i] &= ~(1L << p);
+                        count--;
+                    }
+                }
+            }
+            int first = arena.allocate(count + 1);
+            if (first < 0) {
+                arena.state.set(node, NodeArena.LEAF);
+                return NodeArena.LEAF;
+            }
+            int c = first;
+            for (int i = 0; i < mask.length; i++) {
+                long word = mask[i];
+                while (word != 0) {
+                    arena.init(c, (i << 6) + Long.numberOfTrailingZeros(word));
+                    seed(c++, board, color);
+                    word &= word - 1;
+                }
+            }
+            arena.init(c, pass);
+            seed(c, board, color);
+            arena.firstChild[node] = first;
+            arena.childCount[node] = count + 1;
+            arena.state.set(node, NodeArena.EXPANDED);
+            return NodeArena.EXPANDED;
+        }
+
+        /** UCT choice counting virtual losses as lost visits; marks the child */
+        private int select(int node) {
+            int first = arena.firstChild[node];
+            int end = first + arena.childCount[node];
+            double logVisits = Math.log(arena.visits.get(node) + arena.virtualLoss.get(node) + 1);
+            int best = first;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int c = first; c < end; c++) {
+                int visits = arena.visits.get(c) + arena.virtualLoss.get(c);
+                if (visits == 0) {
+                    best = c;
+                    break;
+                }
+                double value = arena.wins.get(c) / (double) visits + EXPLORATION * Math.sqrt(logVisits / visits);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = c;
+                }
+            }
+            arena.virtualLoss.addAndGet(best, VIRTUAL_LOSS);
+            return best;
+        }
+    }
+}
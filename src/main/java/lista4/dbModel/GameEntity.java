@@ -11,6 +11,9 @@ public class GameEntity {
 
     private LocalDateTime startTime;
 
+    /** Number of fields per side, null for games saved before sizes were configurable (19) */
+    private Integer boardSize;
+
     public GameEntity() {}
 
     public Long getId() {
@@ -29,4 +32,12 @@ public class GameEntity {
         this.startTime = startTime;
     }
 
+    public Integer getBoardSize() {
+        return boardSize;
+    }
+
+    public void setBoardSize(Integer boardSize) {
+        this.boardSize = boardSize;
+    }
+
 }
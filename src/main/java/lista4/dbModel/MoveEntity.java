@@ -17,6 +17,7 @@ public class MoveEntity {
     private int y;          // Współrzędna Y na planszy
     private String color;   // "BLACK" lub "WHITE"
     private boolean isPass; // Czy to był ruch typu "pass"?
+    private Long positionHash; // Hash Zobrista pozycji po ruchu (indeks archiwum)
 
     public MoveEntity() {}
 
@@ -39,4 +40,7 @@ public class MoveEntity {
 
     public boolean isPass() { return isPass; }
     public void setPass(boolean pass) { isPass = pass; }
+
+    public Long getPositionHash() { return positionHash; }
+    public void setPositionHash(Long positionHash) { this.positionHash = positionHash; }
 }
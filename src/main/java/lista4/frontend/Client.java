@@ -18,7 +18,8 @@ import java.util.Scanner;
  * <ol>
  * <li>Connects to the server at {@code 127.0.0.1:12345}.</li>
  * <li>Starts a {@link ServerListener} thread to print incoming messages.</li>
- * <li>Sends the "console" handshake to identify itself to the server.</li>
+ * <li>Sends the "console" handshake to identify itself to the server,
+ * followed by the board size if one was given as the first argument.</li>
  * <li>Enters a loop reading from standard input and sending commands to the
  * server.</li>
  * </ol>
@@ -34,7 +35,8 @@ public class Client {
 
     /**
      * The main entry point for the console client.
-     * * @param args Command line arguments (unused).
+     * * @param args Command line arguments; the optional first one is the
+     * requested board size (9, 13 or 19).
      */
     public static void main(String[] args) {
         System.out.println("Łączenie z serwerem " + SERVER_ADDRESS + ":" + PORT + "...");
@@ -51,7 +53,7 @@ public class Client {
             String lineToSend;
 
             // Handshake: Identify as console client to receive ASCII board
-            out.println("console");
+            out.println(args.length > 0 ? "console " + args[0] : "console");
 
             // Main Input Loop
             while ((lineToSend = consoleIn.readLine()) != null) {
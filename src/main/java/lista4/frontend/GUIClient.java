@@ -75,7 +75,8 @@ public class GUIClient extends Application {
     private Button acceptProposalButton; // Accepts the opponent's territory arrangement
     private Button rejectProposalButton; // Rejects the opponent's arrangement
 
-    private final int BOARD_SIZE = 19;
+    private int boardSize = 19; // zmieniany komunikatem BOARDSIZE od serwera
+    private String requestedBoardSize; // rozmiar z parametru --size=9/13/19
     private final int CELL_SIZE = 30;
 
     private boolean isNegotiationMode = false;
@@ -85,7 +86,9 @@ public class GUIClient extends Application {
     private List<String> markedBlackFields = new ArrayList<>();
     private List<String> markedWhiteFields = new ArrayList<>();
     // Local cache of the board state to redraw cells correctly
-    private Color[][] boardState = new Color[BOARD_SIZE][BOARD_SIZE];
+    private Color[][] boardState = new Color[boardSize][boardSize];
+    // Wersja planszy z ostatniego DELTA/SNAPSHOT, -1 przed pierwszym
+    private long boardVersion = -1;
 
     /**
      * The main entry point for the JavaFX application.
@@ -95,6 +98,7 @@ public class GUIClient extends Application {
      */
     @Override
     public void start(Stage primaryStage) {
+        requestedBoardSize = getParameters().getNamed().get("size");
         initComponents();
         BorderPane root = new BorderPane();
         root.setTop(topBar);
@@ -220,14 +224,14 @@ public class GUIClient extends Application {
         logArea.setStyle("-fx-font-size: 13px;");
 
         // Game Board
-        boardCanvas = new Canvas(BOARD_SIZE * CELL_SIZE, BOARD_SIZE * CELL_SIZE);
+        boardCanvas = new Canvas(boardSize * CELL_SIZE, boardSize * CELL_SIZE);
         drawGrid();
 
         // Mouse Click Handler: Converts pixels to Grid Coordinates
         boardCanvas.setOnMouseClicked(event -> {
             int x = (int) (event.getX() / CELL_SIZE);
             int y = (int) (event.getY() / CELL_SIZE);
-            if (x >= BOARD_SIZE || y >= BOARD_SIZE)
+            if (x >= boardSize || y >= boardSize)
                 return;
 
             if (isNegotiationMode && isPuttingPossible) {
@@ -439,7 +443,8 @@ public class GUIClient extends Application {
                 listener.setDaemon(true); // Ensures thread dies when app closes
                 listener.start();
 
-                out.println("GUI"); // Handshake: Request GUI protocol
+                // Handshake: Request GUI protocol (and optionally the board size)
+                out.println(requestedBoardSize == null ? "GUI" : "GUI " + requestedBoardSize);
                 out.println("GETBOARD"); // Request initial state
 
             } catch (IOException e) {
@@ -472,20 +477,38 @@ public class GUIClient extends Application {
         gc.setStroke(Color.BLACK);
         gc.setLineWidth(1);
 
-        for (int i = 0; i < BOARD_SIZE; i++) {
+        for (int i = 0; i < boardSize; i++) {
             // Draw horizontal and vertical lines
-            gc.strokeLine(CELL_SIZE / 2.0, CELL_SIZE / 2.0 + i * CELL_SIZE, (BOARD_SIZE - 0.5) * CELL_SIZE,
+            gc.strokeLine(CELL_SIZE / 2.0, CELL_SIZE / 2.0 + i * CELL_SIZE, (boardSize - 0.5) * CELL_SIZE,
                     CELL_SIZE / 2.0 + i * CELL_SIZE);
             gc.strokeLine(CELL_SIZE / 2.0 + i * CELL_SIZE, CELL_SIZE / 2.0, CELL_SIZE / 2.0 + i * CELL_SIZE,
-                    (BOARD_SIZE - 0.5) * CELL_SIZE);
+                    (boardSize - 0.5) * CELL_SIZE);
+        }
+    }
+
+    /**
+     * Rebuilds the board view for a new size announced by the server.
+     *
+     * @param size Number of fields per side.
+     */
+    private void resizeBoard(int size) {
+        if (size == boardSize)
+            return;
+        boardSize = size;
+        boardState = new Color[size][size];
+        boardCanvas.setWidth(size * CELL_SIZE);
+        boardCanvas.setHeight(size * CELL_SIZE);
+        drawGrid();
+        if (boardCanvas.getScene() != null && boardCanvas.getScene().getWindow() != null) {
+            boardCanvas.getScene().getWindow().sizeToScene();
         }
     }
 
     /**
      * Renders a stone at specific grid coordinates.
      *
-     * @param x     The X grid coordinate (0-18).
-     * @param y     The Y grid coordinate (0-18).
+     * @param x     The X grid coordinate (0 to board size - 1).
+     * @param y     The Y grid coordinate (0 to board size - 1).
      * @param color The color of the stone (Black or White).
      */
     public void drawStone(int x, int y, Color color) {
@@ -566,6 +589,8 @@ public class GUIClient extends Application {
                             savedGames.setText(oldText + "\n" + "id: " + id + " data: " + date);
                             savedGamesStage.showAndWait();
 
+                        } else if (message.startsWith("BOARDSIZE")) {
+                            resizeBoard(Integer.parseInt(message.split(" ")[1]));
                         } else if (message.startsWith("BOT_READY")) { // bot ready, change button visibility
                             playWithBotButton.setManaged(false);
                             playWithBotButton.setVisible(false);
@@ -591,6 +616,15 @@ public class GUIClient extends Application {
                             System.out.println(message);
                             blackCapturedLabel.setText(parts[3]);
                             whiteCapturedLabel.setText(parts[7]);
+                        } else if (message.startsWith("SNAPSHOT")) { // cała plansza, kolejne UPDATE ją rysują
+                            boardVersion = Long.parseLong(message.split(" ")[1]);
+                        } else if (message.startsWith("DELTA")) { // tylko zmienione pola
+                            long version = Long.parseLong(message.split(" ")[1]);
+                            if (boardVersion >= 0 && version != boardVersion + 1) {
+                                // Brakuje wersji: prosimy o całą planszę
+                                sendCommand("GETBOARD");
+                            }
+                            boardVersion = version;
                         } else if (message.startsWith("UPDATE")) {
                             try {
                                 String[] parts = message.split(" ");
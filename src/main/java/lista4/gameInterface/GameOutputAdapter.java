@@ -1,7 +1,7 @@
 package lista4.gameInterface;
 
 import lista4.dbModel.GameEntity;
-import lista4.gameLogic.Board;
+import lista4.gameLogic.BoardEngine;
 import lista4.gameLogic.state.GameState;
 import lista4.gameLogic.PlayerColor;
 import java.io.PrintWriter;
@@ -57,12 +57,13 @@ public interface GameOutputAdapter<OutputType> {
      *
      * The implementation determines how the board is represented:
      * - Console adapter: Sends an ASCII art string.
-     * - GUI adapter: Sends protocol commands (e.g., "UPDATE BLACK 10 10").
+     * - GUI adapter: Sends protocol commands (e.g., "UPDATE BLACK 10 10"); a
+     *   broadcast carries only the intersections changed since the last one.
      *
      * @param board  The current game board object.
      * @param target The recipient (Specific player or BOTH).
      */
-    void sendBoard(Board board, PlayerColor target);
+    void sendBoard(BoardEngine board, PlayerColor target);
 
     /**
      * Sends an error or exception message to a specific player.
@@ -155,7 +156,7 @@ public interface GameOutputAdapter<OutputType> {
      *
      * @param board The current state of the board to be redrawn.
      */
-    void resumeGame(Board board);
+    void resumeGame(BoardEngine board);
 
     /**
      * Sends list of games to the user who asked
@@ -164,4 +165,15 @@ public interface GameOutputAdapter<OutputType> {
      * @param playerColor - player who will receive the list of games
      */
     void sendGamesList(List<GameEntity> gamesList, PlayerColor target);
+
+    /**
+     * Tells the client the size of the board used in the game.
+     *
+     * Sent after registration and whenever the size changes (e.g. a saved game
+     * of another size is loaded), so the client can rebuild its board view.
+     *
+     * @param size   Number of fields per side.
+     * @param target The recipient (Specific player or BOTH).
+     */
+    void sendBoardSize(int size, PlayerColor target);
 }
\ No newline at end of file
@@ -0,0 +1,869 @@
+package lista4.gameLogic;
+
+import lista4.gameLogic.gameExceptions.FieldNotAvailableException;
+
+import java.util.Arrays;
+
+/**
+ * Compact Go board backed by bitboards.
+ * <p>
+ * Black and white stones are kept as packed {@code long[]} masks, one bit per
+ * intersection (bit index {@code y * size + x}). Chains and their liberties are
+ * found by dilating masks instead of walking {@link Field}/{@link Stone} object
+ * graphs, so a move allocates nothing and a whole position fits in a few dozen
+ * longs.
+ * <p>
+ * Capture, suicide, Ko and positional superko rules follow
+ * {@link Board#putStone(int, int, Stone)} exactly, and {@link #getHash()} uses the
+ * same {@link Zobrist} keys as {@link Board#getHash()}. The board keeps scratch masks of its own, so a single instance must
+ * not be used by several threads at once. Adjacency tables come from the
+ * shared {@link BoardGeometry} of the board's size.
+ * <p>
+ * This is the fast {@link BoardEngine}; {@link Board} is the reference one.
+ * <p>
+ * {@link #play(Move)} and {@link #undo()} keep an undo stack in preallocated
+ * primitive arrays (captured stones are stored as masks), so search code can
+ * make and unmake moves without copying the board or allocating.
+ * <p>
+ * {@link #legalMoves(PlayerColor, long[])} returns all legal points as a mask.
+ * Once it has been called, the board keeps the per-point result up to date
+ * after every move: only points next to chains whose stones or breaths changed
+ * are evaluated again, and Ko and superko are applied when the mask is read.
+ */
+public class BitBoard implements BoardEngine {
+
+    private final BoardGeometry geometry;
+    private final int size;
+    private final int points;
+    private final int words;
+
+    private final long[] onBoard;
+    private final long[] notFirstColumn;
+    private final long[] notLastColumn;
+    private final long[][] neighbourMasks;
+    private final int[] neighbours;
+
+    private final long[] black;
+    private final long[] white;
+
+    /** Point of the stone that captured in Ko during the last move, -1 if none. */
+    private int koPoint = -1;
+
+    /** Zobrist hash of the current position */
+    private long hash;
+
+    /** Hashes of all positions reached in this game (positional superko) */
+    private final PositionHistory history = new PositionHistory();
+
+    // Scratch masks reused by every move
+    private final long[] group;
+    private final long[] grown;
+    private final long[] captured;
+    private final long[] probe;
+    private final long[] affected;
+    private final long[] dirty;
+
+    // Wynik ostatniego checkLegal(): hash i punkt KO po ruchu
+    private long nextHash;
+    private int nextKoPoint;
+
+    // Legalne punkty bez KO i superko dla [0] czarnych i [1] białych oraz hash
+    // kamieni zbijanych przez ruch w danym punkcie; tworzone przy pierwszym użyciu
+    private long[][] legalCache;
+    private long[][] captureHashes;
+    private boolean legalCacheValid;
+
+    /** Receives every stone removed by a capture, may be null */
+    private CaptureListener captureListener;
+
+    /** Whether the last move added a new hash to the history */
+    private boolean historyAdded;
+
+    // Stos cofania: stan sprzed ruchu, maski zbitych kamieni w undoCaptured[d * words ...]
+    private int undoDepth;
+    private int[] undoPoint = new int[64];
+    private int[] undoKo = new int[64];
+    private long[] undoHash = new long[64];
+    private boolean[] undoHistoryAdded = new boolean[64];
+    private long[] undoCaptured;
+
+    /**
+     * Initializes a new empty 19x19 board.
+     */
+    public BitBoard() {
+        this(BoardGeometry.DEFAULT_SIZE);
+    }
+
+    /**
+     * Initializes a new empty board of the given size.
+     *
+     * @param size Number of fields per side (9, 13 or 19)
+     * @throws IllegalArgumentException if the size is not supported
+     */
+    public BitBoard(int size) {
+        geometry = BoardGeometry.forSize(size);
+        this.size = size;
+        points = geometry.points;
+        words = geometry.words;
+        onBoard = geometry.onBoard;
+        notFirstColumn = geometry.notFirstColumn;
+        notLastColumn = geometry.notLastColumn;
+        neighbourMasks = geometry.neighbourMasks;
+        neighbours = geometry.neighbours;
+
+        black = new long[words];
+        white = new long[words];
+        group = new long[words];
+        grown = new long[words];
+        captured = new long[words];
+        probe = new long[words];
+        affected = new long[words];
+        dirty = new long[words];
+        undoCaptured = new long[64 * words];
+        history.add(hash);
+    }
+
+    /**
+     * Initializes a board with a copy of the position of another engine,
+     * including its Ko point and position history (see
+     * {@link #copyFrom(BoardEngine)}).
+     *
+     * @param position Board to copy, only read
+     */
+    public BitBoard(BoardEngine position) {
+        this(position.getSize());
+        copyFrom(position);
+    }
+
+    /**
+     * Checks whether the specified coordinates are inside the board.
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return true if coordinates are within board bounds
+     */
+    @Override
+    public boolean inBoardBoundries(int x, int y) {
+        return x >= 0 && y >= 0 && x < size && y < size;
+    }
+
+    /**
+     * Checks if the intersection at (x, y) is empty.
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return true if the point is on the board and holds no stone
+     */
+    @Override
+    public boolean isEmpty(int x, int y) {
+        if (!inBoardBoundries(x, y))
+            return false;
+        int p = y * size + x;
+        return !testBit(black, p) && !testBit(white, p);
+    }
+
+    /**
+     * Returns the color of the stone at the specified coordinates.
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return BLACK or WHITE, or null if the point is empty or out of bounds
+     */
+    @Override
+    public PlayerColor getStoneColor(int x, int y) {
+        if (!inBoardBoundries(x, y))
+            return null;
+        int p = y * size + x;
+        if (testBit(black, p))
+            return PlayerColor.BLACK;
+        if (testBit(white, p))
+            return PlayerColor.WHITE;
+        return null;
+    }
+
+    /**
+     * Places a stone of the given color, capturing dead enemy chains.
+     * <p>
+     * Rules are the same as in {@link Board#putStone(int, int, Stone)}: a move
+     * whose chain has no breaths is suicide unless it captures, and a move which
+     * would capture the chain holding the stone that has just captured in Ko, or
+     * would repeat an earlier position, is rejected. A rejected move leaves the
+     * board untouched.
+     *
+     * @param x     X coordinate
+     * @param y     Y coordinate
+     * @param color BLACK or WHITE
+     * @return number of captured enemy stones
+     * @throws FieldNotAvailableException if the field is occupied or the move is
+     *                                    illegal
+     */
+    public int putStone(int x, int y, PlayerColor color) throws FieldNotAvailableException {
+        int capturedCount = placeStone(x, y, color);
+        // Ruch spoza play() unieważnia stos cofania
+        undoDepth = 0;
+        return capturedCount;
+    }
+
+    /**
+     * Plays a move which can later be taken back with {@link #undo()}.
+     *
+     * @param move Move to play
+     * @return number of captured enemy stones
+     * @throws FieldNotAvailableException if the move is illegal; the board and
+     *                                    the undo stack stay unchanged
+     */
+    public int play(Move move) throws FieldNotAvailableException {
+        return play(move.x, move.y, move.playerColor);
+    }
+
+    /**
+     * Plays a move which can later be taken back with {@link #undo()}, without
+     * creating a {@link Move}.
+     *
+     * @param x     X coordinate
+     * @param y     Y coordinate
+     * @param color BLACK or WHITE
+     * @return number of captured enemy stones
+     * @throws FieldNotAvailableException if the move is illegal; the board and
+     *                                    the undo stack stay unchanged
+     */
+    public int play(int x, int y, PlayerColor color) throws FieldNotAvailableException {
+        int koBefore = koPoint;
+        long hashBefore = hash;
+        int capturedCount = placeStone(x, y, color);
+
+        if (undoDepth == undoPoint.length)
+            growUndoStack();
+        int d = undoDepth++;
+        undoPoint[d] = y * size + x;
+        undoKo[d] = koBefore;
+        undoHash[d] = hashBefore;
+        undoHistoryAdded[d] = historyAdded;
+        System.arraycopy(captured, 0, undoCaptured, d * words, words);
+        return capturedCount;
+    }
+
+    /**
+     * Takes back the last move made with {@link #play(Move)}, restoring
+     * captured stones, the Ko state, the hash and the position history.
+     *
+     * @throws IllegalStateException if there is no move to take back
+     */
+    public void undo() {
+        if (undoDepth == 0)
+            throw new IllegalStateException("Brak ruchu do cofnięcia");
+        int d = --undoDepth;
+        int p = undoPoint[d];
+        long[] own = testBit(black, p) ? black : white;
+        long[] enemy = own == black ? white : black;
+
+        if (undoHistoryAdded[d])
+            history.remove(hash);
+        clearBit(own, p);
+        int offset = d * words;
+        for (int i = 0; i < words; i++) {
+            enemy[i] |= undoCaptured[offset + i];
+        }
+        hash = undoHash[d];
+        koPoint = undoKo[d];
+
+        if (legalCacheValid) {
+            System.arraycopy(undoCaptured, offset, captured, 0, words);
+            refreshLegalMoves(p, captured);
+        }
+    }
+
+    /**
+     * Returns the number of moves that can be taken back with {@link #undo()}.
+     *
+     * @return Depth of the undo stack
+     */
+    public int getUndoDepth() {
+        return undoDepth;
+    }
+
+    private void growUndoStack() {
+        int capacity = undoPoint.length * 2;
+        undoPoint = Arrays.copyOf(undoPoint, capacity);
+        undoKo = Arrays.copyOf(undoKo, capacity);
+        undoHash = Arrays.copyOf(undoHash, capacity);
+        undoHistoryAdded = Arrays.copyOf(undoHistoryAdded, capacity);
+        undoCaptured = Arrays.copyOf(undoCaptured, capacity * words);
+    }
+
+    /**
+     * Checks whether a stone of the given color may be placed at (x, y), using
+     * the same rules as {@link #putStone(int, int, PlayerColor)}.
+     * <p>
+     * The position is not changed and nothing is allocated; only the board's
+     * scratch masks are used.
+     *
+     * @param x     X coordinate
+     * @param y     Y coordinate
+     * @param color BLACK or WHITE
+     * @return {@link MoveStatus#OK} or the reason the move is illegal
+     */
+    @Override
+    public MoveStatus checkLegal(int x, int y, PlayerColor color) {
+        if (!isEmpty(x, y)) {
+            Arrays.fill(captured, 0L);
+            return MoveStatus.OCCUPIED;
+        }
+
+        int p = y * size + x;
+        nextHash = hash ^ Zobrist.key(x, y, color);
+        nextKoPoint = -1;
+        boolean hasBreath = collectCaptures(p, stonesOf(color), stonesOf(color.other()), captured);
+
+        if (isZero(captured)) {
+            if (!hasBreath)
+                return MoveStatus.SUICIDE;
+            return history.contains(nextHash) ? MoveStatus.SUPERKO : MoveStatus.OK;
+        }
+        if (koPoint >= 0 && testBit(captured, koPoint))
+            return MoveStatus.KO;
+        nextHash ^= hashOf(captured, color.other());
+        if (!hasBreath)
+            nextKoPoint = p;
+        return history.contains(nextHash) ? MoveStatus.SUPERKO : MoveStatus.OK;
+    }
+
+    /**
+     * Fills {@code out} with enemy stones captured by a stone put at the empty
+     * point p and checks whether the stone's chain has a breath before the
+     * capture (suicide is judged before capture, as in Board.checkSuicide).
+     */
+    private boolean collectCaptures(int p, long[] own, long[] enemy, long[] out) {
+        Arrays.fill(out, 0L);
+        // Ruch bez żadnych sąsiednich kamieni nie może nic zbić ani być samobójczy
+        if (!hasStoneNeighbour(p))
+            return true;
+
+        boolean hasBreath = hasEmptyNeighbour(p);
+        for (int d = 0; d < 4; d++) {
+            int q = neighbours[p * 4 + d];
+            if (q < 0)
+                continue;
+            if (testBit(own, q)) {
+                if (!hasBreath)
+                    hasBreath = chainHasLibertyExcept(q, own, p);
+            } else if (testBit(enemy, q) && !testBit(out, q)) {
+                if (!chainHasLibertyExcept(q, enemy, p))
+                    or(out, group);
+            }
+        }
+        return hasBreath;
+    }
+
+    /**
+     * Writes all legal moves of the given color to {@code moves}, one bit per
+     * point (bit {@code y * size + x}), and returns their number.
+     * <p>
+     * The first call evaluates the whole board; later calls reuse the result
+     * kept up to date by the moves made in between, so the cost is proportional
+     * to the part of the board a move changed plus one superko lookup per
+     * candidate point.
+     *
+     * @param color BLACK or WHITE
+     * @param moves Mask of at least {@link #getMaskLength()} words, overwritten
+     * @return Number of legal moves
+     */
+    @Override
+    public int legalMoves(PlayerColor color, long[] moves) {
+        if (!legalCacheValid)
+            rebuildLegalMoves();
+        int c = color == PlayerColor.BLACK ? 0 : 1;
+        System.arraycopy(legalCache[c], 0, moves, 0, words);
+
+        // KO: odbić można tylko w ostatnim oddechu łańcucha, który właśnie bił w KO
+        if (koPoint >= 0) {
+            floodFill(koPoint, testBit(black, koPoint) ? black : white);
+            dilate(group, affected);
+            for (int i = 0; i < words; i++) {
+                long word = affected[i] & moves[i] & ~black[i] & ~white[i];
+                while (word != 0) {
+                    int p = (i << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    if (checkLegal(p % size, p / size, color) == MoveStatus.KO)
+                        clearBit(moves, p);
+                }
+            }
+        }
+
+        int count = 0;
+        long[] hashes = captureHashes[c];
+        for (int i = 0; i < words; i++) {
+            long word = moves[i];
+            while (word != 0) {
+                int p = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                long next = hash ^ Zobrist.key(p % size, p / size, color) ^ hashes[p];
+                if (history.contains(next))
+                    clearBit(moves, p);
+                else
+                    count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes all empty points to a mask and returns their number. Unlike
+     * {@link #legalMoves(PlayerColor, long[])} it does not start the legal move
+     * cache, so it suits callers that check only a few candidates with
+     * {@link #checkLegal(int, int, PlayerColor)}.
+     *
+     * @param moves Mask of at least {@link #getMaskLength()} words, overwritten
+     * @return Number of empty points
+     */
+    public int emptyPoints(long[] moves) {
+        int count = 0;
+        for (int i = 0; i < words; i++) {
+            moves[i] = onBoard[i] & ~black[i] & ~white[i];
+            count += Long.bitCount(moves[i]);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of words of a move mask, see
+     * {@link #legalMoves(PlayerColor, long[])}.
+     *
+     * @return Length of a mask covering the whole board
+     */
+    @Override
+    public int getMaskLength() {
+        return words;
+    }
+
+    private void rebuildLegalMoves() {
+        if (legalCache == null) {
+            legalCache = new long[2][words];
+            captureHashes = new long[2][points];
+        }
+        for (int p = 0; p < points; p++) {
+            updateLegal(p);
+        }
+        legalCacheValid = true;
+    }
+
+    /**
+     * Evaluates again the points whose legality could change after a stone was
+     * put on or taken from p and the stones in {@code changed} were captured or
+     * restored: the points next to p, to the changed stones and to every chain
+     * touching them.
+     */
+    private void refreshLegalMoves(int p, long[] changed) {
+        System.arraycopy(changed, 0, dirty, 0, words);
+        setBit(dirty, p);
+        dilate(dirty, grown);
+        for (int i = 0; i < words; i++) {
+            dirty[i] = grown[i];
+            affected[i] = grown[i] & black[i];
+            probe[i] = grown[i] & white[i];
+        }
+        fill(affected, black);
+        fill(probe, white);
+        or(affected, probe);
+        dilate(affected, grown);
+        or(dirty, grown);
+
+        for (int i = 0; i < words; i++) {
+            long word = dirty[i];
+            while (word != 0) {
+                updateLegal((i << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    private void updateLegal(int p) {
+        boolean occupied = testBit(black, p) || testBit(white, p);
+        for (int c = 0; c < 2; c++) {
+            long[] own = c == 0 ? black : white;
+            long[] enemy = c == 0 ? white : black;
+            boolean legal = false;
+            long capturedHash = 0;
+            if (!occupied) {
+                boolean hasBreath = collectCaptures(p, own, enemy, probe);
+                if (!isZero(probe)) {
+                    capturedHash = hashOf(probe, c == 0 ? PlayerColor.WHITE : PlayerColor.BLACK);
+                    legal = true;
+                } else {
+                    legal = hasBreath;
+                }
+            }
+            if (legal)
+                setBit(legalCache[c], p);
+            else
+                clearBit(legalCache[c], p);
+            captureHashes[c][p] = capturedHash;
+        }
+    }
+
+    /**
+     * Places a stone, same as {@link #putStone(int, int, PlayerColor)}.
+     *
+     * @param x     X coordinate
+     * @param y     Y coordinate
+     * @param color BLACK or WHITE
+     * @return number of captured enemy stones
+     * @throws FieldNotAvailableException if the move is illegal
+     */
+    @Override
+    public int place(int x, int y, PlayerColor color) throws FieldNotAvailableException {
+        return putStone(x, y, color);
+    }
+
+    /**
+     * Sets the listener notified about every captured stone.
+     *
+     * @param captureListener Listener, or null to ignore captures
+     */
+    @Override
+    public void setCaptureListener(CaptureListener captureListener) {
+        this.captureListener = captureListener;
+    }
+
+    private int placeStone(int x, int y, PlayerColor color) throws FieldNotAvailableException {
+        MoveStatus status = checkLegal(x, y, color);
+        if (!status.isLegal())
+            throw status.toException(new Move(x, y, color));
+
+        // checkLegal zostawił zbite kamienie w captured oraz hash i KO po ruchu
+        setBit(stonesOf(color), y * size + x);
+        long[] enemy = stonesOf(color.other());
+        int capturedCount = 0;
+        for (int i = 0; i < words; i++) {
+            enemy[i] &= ~captured[i];
+            capturedCount += Long.bitCount(captured[i]);
+        }
+
+        hash = nextHash;
+        historyAdded = history.add(hash);
+        koPoint = nextKoPoint;
+        if (legalCacheValid)
+            refreshLegalMoves(y * size + x, captured);
+        if (captureListener != null && capturedCount > 0)
+            notifyCaptured(color.other());
+        return capturedCount;
+    }
+
+    private void notifyCaptured(PlayerColor color) {
+        for (int i = 0; i < words; i++) {
+            long word = captured[i];
+            while (word != 0) {
+                int p = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                captureListener.stoneCaptured(p % size, p / size, color);
+            }
+        }
+    }
+
+    /**
+     * Removes the stone from the specified coordinates.
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     */
+    public void removeStone(int x, int y) {
+        if (!inBoardBoundries(x, y))
+            return;
+        PlayerColor color = getStoneColor(x, y);
+        if (color == null)
+            return;
+        clearBit(stonesOf(color), y * size + x);
+        hash ^= Zobrist.key(x, y, color);
+        legalCacheValid = false;
+    }
+
+    /**
+     * Removes all stones and forgets the Ko state.
+     */
+    @Override
+    public void clearBoard() {
+        Arrays.fill(black, 0L);
+        Arrays.fill(white, 0L);
+        koPoint = -1;
+        hash = 0;
+        history.clear();
+        history.add(hash);
+        undoDepth = 0;
+        legalCacheValid = false;
+    }
+
+    /**
+     * Copies the whole position of another board into this one without
+     * allocating.
+     *
+     * @param other board to copy from
+     * @throws IllegalArgumentException if the boards differ in size
+     */
+    public void copyFrom(BitBoard other) {
+        if (other.geometry != geometry)
+            throw new IllegalArgumentException("Plansze mają różne rozmiary");
+        System.arraycopy(other.black, 0, black, 0, words);
+        System.arraycopy(other.white, 0, white, 0, words);
+        koPoint = other.koPoint;
+        hash = other.hash;
+        history.copyFrom(other.history);
+        undoDepth = 0;
+        legalCacheValid = false;
+    }
+
+    /**
+     * Copies the position of any engine of the same size. A {@link BitBoard}
+     * or a {@link Board} is copied with its Ko point and position history, so
+     * moves on this board are legal exactly when they are legal in the game;
+     * other engines are copied stone by stone as by {@link #setPosition}.
+     *
+     * @param other board to copy from, only read
+     * @throws IllegalArgumentException if the boards differ in size
+     */
+    public void copyFrom(BoardEngine other) {
+        if (other instanceof BitBoard bitBoard) {
+            copyFrom(bitBoard);
+            return;
+        }
+        setPosition(other.getMatrix());
+        if (other instanceof Board board) {
+            koPoint = board.getKoPoint();
+            history.copyFrom(board.getHistory());
+        }
+    }
+
+    /**
+     * Sets up the stones of a matrix without applying captures, e.g. to search
+     * a position taken from another {@link BoardEngine}. The position history
+     * starts over with the new position and there is no Ko.
+     *
+     * @param matrix matrix indexed [x][y] as returned by {@link #getMatrix()}
+     * @throws IllegalArgumentException if the matrix has a different size
+     */
+    public void setPosition(int[][] matrix) {
+        if (matrix.length != size)
+            throw new IllegalArgumentException("Plansze mają różne rozmiary");
+        Arrays.fill(black, 0L);
+        Arrays.fill(white, 0L);
+        for (int p = 0; p < points; p++) {
+            int value = matrix[p % size][p / size];
+            if (value == 1)
+                setBit(black, p);
+            else if (value == 2)
+                setBit(white, p);
+        }
+        koPoint = -1;
+        hash = hashOf(black, PlayerColor.BLACK) ^ hashOf(white, PlayerColor.WHITE);
+        history.clear();
+        history.add(hash);
+        undoDepth = 0;
+        legalCacheValid = false;
+    }
+
+    /**
+     * Returns the Zobrist hash of the current position, equal to
+     * {@link Board#getHash()} for the same stones.
+     *
+     * @return 64-bit position hash
+     */
+    @Override
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Counts liberties of the chain containing the stone at (x, y).
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return number of distinct empty points adjacent to the chain, 0 if the
+     *         point is empty
+     */
+    public int getBreathCount(int x, int y) {
+        PlayerColor color = getStoneColor(x, y);
+        if (color == null)
+            return 0;
+        floodFill(y * size + x, stonesOf(color));
+        dilate(group, grown);
+        int count = 0;
+        for (int i = 0; i < words; i++) {
+            count += Long.bitCount(grown[i] & ~black[i] & ~white[i]);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the size of the board (number of fields per side).
+     *
+     * @return board size
+     */
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the board as a matrix where 0 is empty, 1 a black stone and 2 a
+     * white stone, in the same layout as {@link Board#getMatrix()}.
+     *
+     * @return matrix indexed [x][y]
+     */
+    @Override
+    public int[][] getMatrix() {
+        int[][] matrix = new int[size][size];
+        for (int p = 0; p < points; p++) {
+            int x = p % size;
+            int y = p / size;
+            if (testBit(black, p))
+                matrix[x][y] = 1;
+            else if (testBit(white, p))
+                matrix[x][y] = 2;
+        }
+        return matrix;
+    }
+
+    // ---------------------- Bit operations ------------------------------
+
+    private long[] stonesOf(PlayerColor color) {
+        return color == PlayerColor.BLACK ? black : white;
+    }
+
+    /**
+     * XOR of Zobrist keys of all stones of the given color in the mask.
+     */
+    private long hashOf(long[] mask, PlayerColor color) {
+        long result = 0;
+        for (int i = 0; i < words; i++) {
+            long word = mask[i];
+            while (word != 0) {
+                int p = (i << 6) + Long.numberOfTrailingZeros(word);
+                result ^= Zobrist.key(p % size, p / size, color);
+                word &= word - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Fills {@link #group} with the chain of {@code stones} containing point p.
+     */
+    private void floodFill(int p, long[] stones) {
+        Arrays.fill(group, 0L);
+        setBit(group, p);
+        fill(group, stones);
+    }
+
+    /**
+     * Grows {@code mask} (a subset of {@code stones}) to the whole chains of
+     * {@code stones} it touches.
+     */
+    private void fill(long[] mask, long[] stones) {
+        while (true) {
+            dilate(mask, grown);
+            boolean changed = false;
+            for (int i = 0; i < words; i++) {
+                long next = grown[i] & stones[i];
+                if (next != mask[i]) {
+                    mask[i] = next;
+                    changed = true;
+                }
+            }
+            if (!changed)
+                return;
+        }
+    }
+
+    /**
+     * Grows {@link #group} from q over {@code stones} and checks whether the
+     * chain has an empty neighbour other than p. Stops as soon as one is found,
+     * so {@link #group} holds the whole chain only when false is returned.
+     */
+    private boolean chainHasLibertyExcept(int q, long[] stones, int p) {
+        Arrays.fill(group, 0L);
+        setBit(group, q);
+        while (true) {
+            dilate(group, grown);
+            boolean changed = false;
+            for (int i = 0; i < words; i++) {
+                long free = grown[i] & ~black[i] & ~white[i];
+                if (i == p >> 6)
+                    free &= ~(1L << p);
+                if (free != 0)
+                    return true;
+                long next = grown[i] & stones[i];
+                if (next != group[i]) {
+                    group[i] = next;
+                    changed = true;
+                }
+            }
+            if (!changed)
+                return false;
+        }
+    }
+
+    private boolean hasStoneNeighbour(int p) {
+        long[] neighbours = neighbourMasks[p];
+        for (int i = 0; i < words; i++) {
+            if ((neighbours[i] & (black[i] | white[i])) != 0)
+                return true;
+        }
+        return false;
+    }
+
+    private boolean hasEmptyNeighbour(int p) {
+        long[] neighbours = neighbourMasks[p];
+        for (int i = 0; i < words; i++) {
+            if ((neighbours[i] & ~black[i] & ~white[i]) != 0)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Writes to {@code dst} the mask grown by one step in the four directions.
+     */
+    private void dilate(long[] src, long[] dst) {
+        for (int i = 0; i < words; i++) {
+            long cur = src[i];
+            long prev = i > 0 ? src[i - 1] : 0L;
+            long next = i < words - 1 ? src[i + 1] : 0L;
+
+            // x + 1 i x - 1 (bez przechodzenia przez krawędź planszy)
+            long right = ((cur & notLastColumn[i]) << 1)
+                    | (i > 0 ? (prev & notLastColumn[i - 1]) >>> 63 : 0L);
+            long left = ((cur & notFirstColumn[i]) >>> 1)
+                    | (i < words - 1 ? (next & notFirstColumn[i + 1]) << 63 : 0L);
+            // y + 1 i y - 1
+            long down = (cur << size) | (prev >>> (64 - size));
+            long up = (cur >>> size) | (next << (64 - size));
+
+            dst[i] = (cur | right | left | down | up) & onBoard[i];
+        }
+    }
+
+    private void or(long[] dst, long[] src) {
+        for (int i = 0; i < words; i++) {
+            dst[i] |= src[i];
+        }
+    }
+
+    private boolean isZero(long[] mask) {
+        for (long word : mask) {
+            if (word != 0)
+                return false;
+        }
+        return true;
+    }
+
+    private static boolean testBit(long[] mask, int p) {
+        return (mask[p >>> 6] & (1L << p)) != 0;
+    }
+
+    private static void setBit(long[] mask, int p) {
+        mask[p >>> 6] |= 1L << p;
+    }
+
+    private static void clearBit(long[] mask, int p) {
+        mask[p >>> 6] &= ~(1L << p);
+    }
+}
@@ -1,25 +1,44 @@
 package lista4.gameLogic;
 
-import lista4.gameLogic.gameExceptions.CaptureInKoException;
 import lista4.gameLogic.gameExceptions.FieldNotAvailableException;
-import lista4.gameLogic.gameExceptions.FieldOcupiedException;
-import lista4.gameLogic.gameExceptions.SuicideException;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
  * Represents the Go board and handles stone placement, capturing, and rule
  * enforcement.
  * Manages board state including Ko situations, suicides, and chains of stones.
+ * <p>
+ * The board keeps an incremental Zobrist hash of the position and the set of all
+ * positions reached so far, which is used to enforce positional superko.
+ * <p>
+ * Moves made with {@link #play(Move)} can be taken back with {@link #undo()},
+ * which lets search code walk a variation on one board instead of copying it.
+ * <p>
+ * This is the reference {@link BoardEngine}; {@link BitBoard} is the fast one.
  */
-public class Board {
+public class Board implements BoardEngine {
+    /**
+     * Removes all stones and resets the Ko state, the hash and the position
+     * history.
+     */
+    @Override
     public void clearBoard() {
         for (int row = 0; row < board.length; row++) {
             for (int col = 0; col < board[row].length; col++) {
                 board[row][col].putStone(null);
             }
         }
+        ko = false;
+        koStone = null;
+        hash = 0;
+        history.clear();
+        history.add(hash);
+        undoDepth = 0;
     }
 
     /**
@@ -53,14 +72,64 @@ public class Board {
     private boolean ko;
     private Stone koStone;
 
-    private final int boardSize = 19;
+    /** Zobrist hash of the current position */
+    private long hash;
+
+    /** Hashes of all positions reached in this game (positional superko) */
+    private final PositionHistory history = new PositionHistory();
+
+    /** Receives every stone removed by a capture, may be null */
+    private CaptureListener captureListener;
+
+    /** Stack of moves made with play(), frames are reused between moves */
+    private final List<UndoFrame> undoStack = new ArrayList<>();
+    private int undoDepth;
+
+    /**
+     * Everything needed to take back one move: the state before it and the
+     * chains it captured and merged.
+     */
+    private static final class UndoFrame {
+        Stone stone;
+        boolean ko;
+        Stone koStone;
+        long hash;
+        boolean historyAdded;
+        final List<StoneChain> captured = new ArrayList<>();
+        final List<StoneChain> merged = new ArrayList<>();
+        final List<Field> addedBreaths = new ArrayList<>();
+
+        void reset() {
+            captured.clear();
+            merged.clear();
+            addedBreaths.clear();
+        }
+    }
+
+    /** Scratch array of chains already counted by checkLegal() */
+    private final StoneChain[] seenChains = new StoneChain[4];
+
+    private final int boardSize;
     private final Field[][] board;
 
     /**
-     * Initializes a new empty board with {@code boardSize} x {@code boardSize}
-     * fields.
+     * Initializes a new empty 19x19 board.
      */
     public Board() {
+        this(BoardGeometry.DEFAULT_SIZE);
+    }
+
+    /**
+     * Initializes a new empty board with {@code size} x {@code size} fields.
+     * Neighbours of every field are wired once from the shared
+     * {@link BoardGeometry} of that size.
+     *
+     * @param size Number of fields per side (9, 13 or 19)
+     * @throws IllegalArgumentException if the size is not supported
+     */
+    public Board(int size) {
+        BoardGeometry geometry = BoardGeometry.forSize(size);
+        boardSize = size;
         ko = false;
         board = new Field[boardSize][boardSize];
         for (int y = 0; y < boardSize; y++) {
@@ -68,6 +137,18 @@ public class Board {
                 board[x][y] = new Field(x, y, this);
             }
         }
+        for (int y = 0; y < boardSize; y++) {
+            for (int x = 0; x < boardSize; x++) {
+                List<Field> neighbours = new ArrayList<>(4);
+                for (int d = 0; d < 4; d++) {
+                    int q = geometry.neighbour(y * boardSize + x, d);
+                    if (q >= 0)
+                        neighbours.add(board[q % boardSize][q / boardSize]);
+                }
+                board[x][y].setNeighbours(neighbours);
+            }
+        }
+        history.add(hash);
     }
 
     /**
@@ -77,6 +158,7 @@ public class Board {
      * @param y Y coordinate
      * @return true if coordinates are within board bounds
      */
+    @Override
     public boolean inBoardBoundries(int x, int y) {
         return x >= 0 && y >= 0 && x < boardSize && y < boardSize;
     }
@@ -88,6 +170,7 @@ public class Board {
      * @param y Y coordinate
      * @return true if the field is empty
      */
+    @Override
     public boolean isEmpty(int x, int y) {
         if (inBoardBoundries(x, y)) {
             return (board[x][y].getStone() == null);
@@ -126,21 +209,264 @@ public class Board {
      *                                    is illegal
      */
     public void putStone(int x, int y, Stone stone) throws FieldNotAvailableException {
+        requireLegal(x, y, stone.getPlayerColor());
+        placeStone(x, y, stone, null);
+        // Ruch spoza play() unieważnia stos cofania
+        undoDepth = 0;
+    }
+
+    /**
+     * Plays a move which can later be taken back with {@link #undo()}.
+     *
+     * @param move Move to play
+     * @throws FieldNotAvailableException if the move is illegal; the board and
+     *                                    the undo stack stay unchanged
+     */
+    public void play(Move move) throws FieldNotAvailableException {
+        requireLegal(move.x, move.y, move.playerColor);
+        if (undoDepth == undoStack.size())
+            undoStack.add(new UndoFrame());
+        UndoFrame frame = undoStack.get(undoDepth);
+        frame.reset();
+        placeStone(move.x, move.y, new Stone(move.x, move.y, move.playerColor, this), frame);
+        undoDepth++;
+    }
+
+    /**
+     * Takes back the last move made with {@link #play(Move)}: removes the
+     * stone, puts captured stones back and restores the Ko state, the hash
+     * and the position history.
+     *
+     * @throws IllegalStateException if there is no move to take back
+     */
+    public void undo() {
+        if (undoDepth == 0)
+            throw new IllegalStateException("Brak ruchu do cofnięcia");
+        UndoFrame frame = undoStack.get(--undoDepth);
+
+        // Scalenia cofamy w odwrotnej kolejności
+        for (int i = frame.merged.size() - 1; i >= 0; i--) {
+            frame.merged.get(i).unmerge(frame.addedBreaths);
+        }
+        if (frame.historyAdded)
+            history.remove(hash);
+        for (StoneChain chain : frame.captured) {
+            chain.restore();
+        }
+        removeStone(frame.stone.getX(), frame.stone.getY());
+
+        hash = frame.hash;
+        ko = frame.ko;
+        koStone = frame.koStone;
+        frame.reset();
+        frame.stone = null;
+        frame.koStone = null;
+    }
+
+    /**
+     * Returns the number of moves that can be taken back with {@link #undo()}.
+     *
+     * @return Depth of the undo stack
+     */
+    public int getUndoDepth() {
+        return undoDepth;
+    }
+
+    /**
+     * Sets the listener notified about every captured stone.
+     *
+     * @param captureListener Listener, or null to ignore captures
+     */
+    @Override
+    public void setCaptureListener(CaptureListener captureListener) {
+        this.captureListener = captureListener;
+    }
+
+    /**
+     * Returns the point {@code y * size + x} of the stone that has just
+     * captured in Ko, in the numbering of {@link BitBoard}.
+     *
+     * @return Ko point, or -1 if there is no Ko
+     */
+    int getKoPoint() {
+        return ko && koStone != null ? koStone.getY() * boardSize + koStone.getX() : -1;
+    }
+
+    /**
+     * Returns the positions reached so far, e.g. to copy them to a
+     * {@link BitBoard}.
+     *
+     * @return Position history of this board, not a copy
+     */
+    PositionHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Called by a captured {@link StoneChain} for each of its stones.
+     *
+     * @param stone The captured stone
+     */
+    void stoneCaptured(Stone stone) {
+        if (captureListener != null)
+            captureListener.stoneCaptured(stone.getX(), stone.getY(), stone.getPlayerColor());
+    }
+
+    /**
+     * Checks whether a stone of the given color may be placed at (x, y), using
+     * the same rules as {@link #putStone(int, int, Stone)}.
+     * <p>
+     * The board is not changed and nothing is allocated: the answer is read
+     * from breath counts of the neighbouring chains, the Ko state and the
+     * position history.
+     *
+     * @param x     X coordinate
+     * @param y     Y coordinate
+     * @param color Color of the stone to be placed (BLACK or WHITE)
+     * @return {@link MoveStatus#OK} or the reason the move is illegal
+     */
+    @Override
+    public MoveStatus checkLegal(int x, int y, PlayerColor color) {
+        if (!isEmpty(x, y))
+            return MoveStatus.OCCUPIED;
+
+        List<Field> neighbours = board[x][y].getNeighbours();
+        boolean hasBreath = false;
+        boolean captures = false;
+        long capturedHash = 0;
+        int seen = 0;
+        MoveStatus status = MoveStatus.OK;
+
+        for (int i = 0; i < neighbours.size(); i++) {
+            Stone neighbourStone = neighbours.get(i).getStone();
+            if (neighbourStone == null) {
+                hasBreath = true;
+                continue;
+            }
+            StoneChain chain = neighbourStone.getChain();
+            // Sprawdzane pole jest jednym z oddechów sąsiedniego łańcucha
+            if (neighbourStone.getPlayerColor() == color) {
+                if (chain.getBreathCount() > 1)
+                    hasBreath = true;
+                continue;
+            }
+            if (chain.getBreathCount() != 1 || isSeen(chain, seen))
+                continue;
+            if (ko && chain.contains(koStone)) {
+                status = MoveStatus.KO;
+                break;
+            }
+            seenChains[seen++] = chain;
+            captures = true;
+            capturedHash ^= chain.getHash();
+        }
+        Arrays.fill(seenChains, 0, seen, null);
+
+        if (status != MoveStatus.OK)
+            return status;
+        if (!captures && !hasBreath)
+            return MoveStatus.SUICIDE;
+        if (history.contains(hash ^ Zobrist.key(x, y, color) ^ capturedHash))
+            return MoveStatus.SUPERKO;
+        return MoveStatus.OK;
+    }
+
+    /**
+     * Writes all legal moves of the given color to {@code moves}, one bit per
+     * field (bit {@code y * size + x}, the layout used by
+     * {@link BitBoard#legalMoves(PlayerColor, long[])}), and returns their number.
+     * <p>
+     * Every field is checked once with {@link #checkLegal(int, int, PlayerColor)},
+     * so no stones are placed and no exceptions are thrown.
+     *
+     * @param color BLACK or WHITE
+     * @param moves Mask of at least {@link #getMaskLength()} words, overwritten
+     * @return Number of legal moves
+     */
+    @Override
+    public int legalMoves(PlayerColor color, long[] moves) {
+        Arrays.fill(moves, 0, getMaskLength(), 0L);
+        int count = 0;
+        for (int y = 0; y < boardSize; y++) {
+            for (int x = 0; x < boardSize; x++) {
+                if (checkLegal(x, y, color).isLegal()) {
+                    int p = y * boardSize + x;
+                    moves[p >>> 6] |= 1L << p;
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of words of a move mask, see
+     * {@link #legalMoves(PlayerColor, long[])}.
+     *
+     * @return Length of a mask covering the whole board
+     */
+    @Override
+    public int getMaskLength() {
+        return (boardSize * boardSize + 63) >>> 6;
+    }
+
+    private boolean isSeen(StoneChain chain, int seen) {
+        for (int i = 0; i < seen; i++) {
+            if (seenChains[i] == chain)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Places a new stone of the given color, see
+     * {@link #putStone(int, int, Stone)}.
+     *
+     * @param x     X coordinate
+     * @param y     Y coordinate
+     * @param color BLACK or WHITE
+     * @return number of captured stones
+     * @throws FieldNotAvailableException if the move is illegal
+     */
+    @Override
+    public int place(int x, int y, PlayerColor color) throws FieldNotAvailableException {
+        // Kamień i jego łańcuch powstają tylko dla legalnego ruchu
+        requireLegal(x, y, color);
+        int captured = placeStone(x, y, new Stone(x, y, color, this), null);
+        // Ruch spoza play() unieważnia stos cofania
+        undoDepth = 0;
+        return captured;
+    }
+
+    /**
+     * Rejects an illegal move before anything is allocated or put on the
+     * board.
+     */
+    private void requireLegal(int x, int y, PlayerColor color) throws FieldNotAvailableException {
+        MoveStatus status = checkLegal(x, y, color);
+        if (!status.isLegal())
+            throw status.toException(new Move(x, y, color));
+    }
+
+    // Ruch musi być już sprawdzony przez requireLegal()
+    private int placeStone(int x, int y, Stone stone, UndoFrame frame) {
         Set<StoneChain> friendlyNeighbourChain = new HashSet<>();
         Set<StoneChain> stonesChainsToCapture = new HashSet<>();
 
-        // Sprawdza czy pole na planszy jest puste
-        if (!isEmpty(x, y)) {
-            throw new FieldOcupiedException(new Move(x, y, stone.getPlayerColor()));
-        }
+        Field field = board[x][y];
+        field.putStone(stone);
+        hash ^= Zobrist.key(x, y, stone.getPlayerColor());
 
-        // Kładzie kamieńs na planszy(przy błędach zostanie on usunięty)
-        board[x][y].putStone(stone);
+        // Pole przestaje być oddechem sąsiednich łańcuchów
+        for (Field neighbour : field.getNeighbours()) {
+            if (neighbour.getStone() != null)
+                neighbour.getStone().getChain().removeBreath(field);
+        }
 
         // Sprawdza sąsiadów i liczy przyjazne kamienie, by potencjalnie połączyć się z
         // nimi w łańcuch
         // Szuka też łańcuchów kamieni przeciwnika, które straciły wszystkie oddechy
-        for (Field neighbour : board[x][y].getNeighbours()) {
+        for (Field neighbour : field.getNeighbours()) {
             if (neighbour.getStone() == null)
                 continue;
 
@@ -154,40 +480,27 @@ public class Board {
             }
         }
 
-        boolean hasCaptured = false;
+        // Ruch samobójczy przed zbiciem, który coś zbija, oznacza KO
+        boolean suicide = checkSuicide(friendlyNeighbourChain, stone);
 
-        // Jeżeli są kamienie do bicia, które są w KO (czyli wcześniej kamień, który tam
-        // był zbijał jak w ruchu samobójczym)
-        // to usuwa kamień wyrzuca błąd
-        if (!stonesChainsToCapture.isEmpty() && ko) {
-            for (StoneChain stonesChain : stonesChainsToCapture) {
-                if (stonesChain.getStones().contains(koStone)) {
-                    removeStone(x, y);
-                    throw new CaptureInKoException();
-                }
-            }
+        if (frame != null) {
+            frame.stone = stone;
+            frame.ko = ko;
+            frame.koStone = koStone;
+            frame.hash = hash ^ Zobrist.key(x, y, stone.getPlayerColor());
         }
 
-        // Sprawdza, czy postawiony kamień z sąsiadami tworzą łańcuch samobójczy przed
-        // zbiciem
-        boolean suicide = checkSuicide(friendlyNeighbourChain, stone);
-
-        // Sprawdziliśmy już wcześniej czy bicie jest w KO, więc skoro tu doszliśmy, to
-        // nie jest, czyli zbijamy
+        // Legalność (w tym KO) sprawdził już checkLegal, więc zbijamy
+        int capturedCount = 0;
         for (StoneChain stonesChain : stonesChainsToCapture) {
+            capturedCount += stonesChain.size();
             stonesChain.captureChain();
-            System.out.println("BICIE");
-            hasCaptured = true;
-        }
-
-        // Jeżeli ruch nic nie zbija i był samobójczy (co oznacza, że dalej jest, skoro
-        // nic nie zbił)
-        // to wyrzuca błąd i usuwa kamień
-        if (!hasCaptured && suicide) {
-            System.out.println("SAMOBÓJSTWO");
-            removeStone(x, y);
-            throw new SuicideException(new Move(x, y, stone.getPlayerColor()));
+            if (frame != null)
+                frame.captured.add(stonesChain);
         }
+        boolean historyAdded = history.add(hash);
+        if (frame != null)
+            frame.historyAdded = historyAdded;
 
         // Jeżeli ruch był samobójczy, ale zbił kamienie następuje KO
         ko = suicide;
@@ -198,19 +511,33 @@ public class Board {
 
         // Łączy łańcuchy w jeden łańcuch
         for (StoneChain stonesChain : friendlyNeighbourChain) {
-            stone.getChain().merge(stonesChain);
+            if (frame == null) {
+                stone.getChain().merge(stonesChain);
+                continue;
+            }
+            StoneChain merged = stone.getChain().merge(stonesChain, frame.addedBreaths);
+            if (merged != null)
+                frame.merged.add(merged);
         }
-
+        return capturedCount;
     }
 
     /**
      * Removes the stone from the specified coordinates.
+     * The emptied field becomes a breath of every neighbouring chain.
      *
      * @param x X coordinate
      * @param y Y coordinate
      */
     public void removeStone(int x, int y) {
-        getField(x, y).putStone(null);
+        Field field = getField(x, y);
+        if (field.getStone() != null)
+            hash ^= Zobrist.key(x, y, field.getStone().getPlayerColor());
+        field.putStone(null);
+        for (Field neighbour : field.getNeighbours()) {
+            if (neighbour.getStone() != null)
+                neighbour.getStone().getChain().addBreath(field);
+        }
     }
 
     /**
@@ -240,17 +567,52 @@ public class Board {
         return null;
     }
 
+    /**
+     * Returns the color of the stone at the specified coordinates.
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return BLACK or WHITE, or null if empty or out of bounds
+     */
+    @Override
+    public PlayerColor getStoneColor(int x, int y) {
+        Stone stone = getStone(x, y);
+        return stone == null ? null : stone.getPlayerColor();
+    }
+
+    /**
+     * Returns the Zobrist hash of the current position.
+     * <p>
+     * The hash is maintained incrementally and matches {@link BitBoard#getHash()}
+     * for the same stones, so it can be used as a key for transposition tables,
+     * opening books and archived positions.
+     *
+     * @return 64-bit position hash
+     */
+    @Override
+    public long getHash() {
+        return hash;
+    }
+
     /**
      * Returns the size of the board (number of fields per side).
      *
      * @return board size
      */
+    @Override
     public int getSize() {
         return this.boardSize;
     }
 
+    /**
+     * Returns the board as a matrix where 0 is empty, 1 a black stone and 2 a
+     * white stone.
+     *
+     * @return matrix indexed [x][y]
+     */
+    @Override
     public int[][] getMatrix() {
-        int size = 19; // lub Twoja zmienna rozmiaru
+        int size = boardSize;
         int[][] matrix = new int[size][size];
         for (int x = 0; x < size; x++) {
             for (int y = 0; y < size; y++) {
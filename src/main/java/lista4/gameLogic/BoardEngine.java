@@ -0,0 +1,118 @@
+package lista4.gameLogic;
+
+import lista4.gameLogic.gameExceptions.FieldNotAvailableException;
+
+/**
+ * Board engine used by the game: stone placement with Go rules, legality
+ * checks, point queries, capture events, the position hash and snapshots.
+ * <p>
+ * {@link Board} is the reference engine built from {@link Field}, {@link Stone}
+ * and {@link StoneChain} objects; {@link BitBoard} is the fast engine backed by
+ * bit masks. Both follow the same rules and use the same {@link Zobrist} keys,
+ * so they can be swapped by configuration (see {@link BoardEngineType}) and
+ * compared side by side. Points are indexed {@code y * size + x} in move masks.
+ */
+public interface BoardEngine {
+
+    /**
+     * Returns the size of the board (number of fields per side).
+     *
+     * @return board size
+     */
+    int getSize();
+
+    /**
+     * Checks whether the specified coordinates are inside the board.
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return true if coordinates are within board bounds
+     */
+    boolean inBoardBoundries(int x, int y);
+
+    /**
+     * Checks if the field at (x, y) is on the board and empty.
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return true if the field is empty
+     */
+    boolean isEmpty(int x, int y);
+
+    /**
+     * Returns the color of the stone at the specified coordinates.
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return BLACK or WHITE, or null if the field is empty or out of bounds
+     */
+    PlayerColor getStoneColor(int x, int y);
+
+    /**
+     * Checks whether a stone may be placed without changing the board.
+     *
+     * @param x     X coordinate
+     * @param y     Y coordinate
+     * @param color BLACK or WHITE
+     * @return {@link MoveStatus#OK} or the reason the move is illegal
+     */
+    MoveStatus checkLegal(int x, int y, PlayerColor color);
+
+    /**
+     * Places a stone, capturing dead enemy chains. Captured stones are reported
+     * to the {@link CaptureListener}.
+     *
+     * @param x     X coordinate
+     * @param y     Y coordinate
+     * @param color BLACK or WHITE
+     * @return number of captured stones
+     * @throws FieldNotAvailableException if the move is illegal; the board stays
+     *                                    unchanged
+     */
+    int place(int x, int y, PlayerColor color) throws FieldNotAvailableException;
+
+    /**
+     * Writes all legal moves of the given color to a mask and returns their
+     * number.
+     *
+     * @param color BLACK or WHITE
+     * @param moves Mask of at least {@link #getMaskLength()} words, overwritten
+     * @return Number of legal moves
+     */
+    int legalMoves(PlayerColor color, long[] moves);
+
+    /**
+     * Returns the number of words of a move mask.
+     *
+     * @return Length of a mask covering the whole board
+     */
+    int getMaskLength();
+
+    /**
+     * Sets the listener notified about every captured stone.
+     *
+     * @param captureListener Listener, or null to ignore captures
+     */
+    void setCaptureListener(CaptureListener captureListener);
+
+    /**
+     * Returns the Zobrist hash of the current position.
+     *
+     * @return 64-bit position hash
+     */
+    long getHash();
+
+    /**
+     * Returns a snapshot of the board where 0 is empty, 1 a black stone and 2 a
+     * white stone.
+     *
+     * @return matrix indexed [x][y]
+     */
+    int[][] getMatrix();
+
+    /**
+     * Removes all stones and resets the Ko state, the hash and the position
+     * history.
+     */
+    void clearBoard();
+}
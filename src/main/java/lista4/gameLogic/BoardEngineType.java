@@ -0,0 +1,53 @@
+package lista4.gameLogic;
+
+import java.util.Locale;
+
+/**
+ * Available {@link BoardEngine} implementations, selected by the
+ * {@value #PROPERTY} configuration property.
+ */
+public enum BoardEngineType {
+    /** {@link Board}: object-based reference engine */
+    REFERENCE {
+        @Override
+        public BoardEngine create(int size) {
+            return new Board(size);
+        }
+    },
+
+    /** {@link BitBoard}: bit-mask engine without per-move allocation */
+    BITBOARD {
+        @Override
+        public BoardEngine create(int size) {
+            return new BitBoard(size);
+        }
+    };
+
+    /** Name of the configuration property choosing the engine */
+    public static final String PROPERTY = "go.board.engine";
+
+    /**
+     * Creates an empty board of this engine.
+     *
+     * @param size Number of fields per side (9, 13 or 19)
+     * @return New board engine
+     */
+    public abstract BoardEngine create(int size);
+
+    /**
+     * Finds the engine by its configuration name (case insensitive).
+     *
+     * @param name "reference" or "bitboard"
+     * @return Engine type
+     * @throws IllegalArgumentException if no engine has that name
+     */
+    public static BoardEngineType fromName(String name) {
+        for (BoardEngineType type : values()) {
+            if (type.name().equalsIgnoreCase(name.trim()))
+                return type;
+        }
+        throw new IllegalArgumentException("Nieznany silnik planszy: " + name
+                + " (dostępne: " + REFERENCE.name().toLowerCase(Locale.ROOT)
+                + ", " + BITBOARD.name().toLowerCase(Locale.ROOT) + ")");
+    }
+}
@@ -0,0 +1,119 @@
+package lista4.gameLogic;
+
+/**
+ * Precomputed adjacency tables of a square board of one size.
+ * <p>
+ * Neighbour indices and bit masks depend only on the board size, so they are
+ * built once per size and shared by every {@link Board} and {@link BitBoard}
+ * of that size instead of being recomputed per query. Points are indexed as
+ * {@code y * size + x}.
+ */
+public final class BoardGeometry {
+
+    /** Board size used when none is given */
+    public static final int DEFAULT_SIZE = 19;
+
+    private static final BoardGeometry[] CACHE = new BoardGeometry[Zobrist.MAX_SIZE + 1];
+
+    final int size;
+    final int points;
+    /** Number of longs in a mask covering the whole board */
+    final int words;
+
+    /** Mask of all points lying on the board. */
+    final long[] onBoard;
+    /** Mask of all points except the first column (x == 0). */
+    final long[] notFirstColumn;
+    /** Mask of all points except the last column (x == size - 1). */
+    final long[] notLastColumn;
+    /** Neighbour mask of every point. */
+    final long[][] neighbourMasks;
+    /** Indices of the up to four neighbours of every point, -1 where missing. */
+    final int[] neighbours;
+
+    private BoardGeometry(int size) {
+        this.size = size;
+        points = size * size;
+        words = (points + 63) >>> 6;
+        onBoard = new long[words];
+        notFirstColumn = new long[words];
+        notLastColumn = new long[words];
+        neighbourMasks = new long[points][words];
+        neighbours = new int[points * 4];
+
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int p = y * size + x;
+                setBit(onBoard, p);
+                if (x > 0)
+                    setBit(notFirstColumn, p);
+                if (x < size - 1)
+                    setBit(notLastColumn, p);
+
+                int d = 0;
+                for (Board.Direction direction : Board.Direction.values()) {
+                    int nx = x + direction.getX();
+                    int ny = y + direction.getY();
+                    if (nx < 0 || ny < 0 || nx >= size || ny >= size) {
+                        neighbours[p * 4 + d++] = -1;
+                        continue;
+                    }
+                    int q = ny * size + nx;
+                    neighbours[p * 4 + d++] = q;
+                    setBit(neighbourMasks[p], q);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the shared geometry of the given board size.
+     *
+     * @param size Number of fields per side
+     * @return Geometry of that size
+     * @throws IllegalArgumentException if the size is not supported
+     */
+    public static BoardGeometry forSize(int size) {
+        if (!isSupported(size))
+            throw new IllegalArgumentException("Nieobsługiwany rozmiar planszy: " + size + " (dostępne 9, 13, 19)");
+        synchronized (CACHE) {
+            if (CACHE[size] == null)
+                CACHE[size] = new BoardGeometry(size);
+            return CACHE[size];
+        }
+    }
+
+    /**
+     * Checks whether games can be played on a board of the given size.
+     *
+     * @param size Number of fields per side
+     * @return true for 9, 13 and 19
+     */
+    public static boolean isSupported(int size) {
+        return size == 9 || size == 13 || size == 19;
+    }
+
+    /**
+     * Returns the number of fields per side.
+     *
+     * @return board size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the index of the d-th neighbour of point p.
+     *
+     * @param p Point index ({@code y * size + x})
+     * @param d Direction index, in the order of {@link Board.Direction}
+     * @return Neighbour index, or -1 if it lies outside the board
+     */
+    public int neighbour(int p, int d) {
+        return neighbours[p * 4 + d];
+    }
+
+    private static void setBit(long[] mask, int p) {
+        mask[p >>> 6] |= 1L << p;
+    }
+}
@@ -0,0 +1,21 @@
+package lista4.gameLogic;
+
+/**
+ * Receives notifications about stones removed from the board by a capture.
+ * <p>
+ * Lets the game keep its score without the board reaching back into
+ * {@link GameManager}, so boards used for analysis or search have no side
+ * effects on the running game.
+ */
+@FunctionalInterface
+public interface CaptureListener {
+
+    /**
+     * Called for every captured stone.
+     *
+     * @param x     X coordinate of the captured stone
+     * @param y     Y coordinate of the captured stone
+     * @param color Color of the captured stone
+     */
+    void stoneCaptured(int x, int y, PlayerColor color);
+}
@@ -1,6 +1,6 @@
 package lista4.gameLogic;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -15,6 +15,9 @@ public class Field {
     private final int x;
     private final int y;
 
+    /** Neighbouring fields, set by the board */
+    private List<Field> neighbours;
+
     /**
      * Creates a new field at the specified coordinates on the given board.
      *
@@ -49,21 +52,26 @@ public class Field {
     /**
      * Returns a list of neighboring fields (up, down, left, right) that are within
      * the bounds of the board.
+     * <p>
+     * The list is built once by the {@link Board} from the precomputed
+     * {@link BoardGeometry} and shared afterwards, so it must not be modified by
+     * the caller.
      *
      * @return List of neighboring Field objects
      */
     public List<Field> getNeighbours(){
-        ArrayList<Field> neighbours = new ArrayList<Field>();
-
-        for(Board.Direction direction : Board.Direction.values()){
-            Field neighbour = board.getField(x + direction.getX(), y + direction.getY());
-            if(neighbour == null) continue;
-
-            neighbours.add(neighbour);
-        }
         return neighbours;
     }
 
+    /**
+     * Sets the neighbouring fields, called once by the board when it is created.
+     *
+     * @param neighbours Fields adjacent to this one
+     */
+    void setNeighbours(List<Field> neighbours) {
+        this.neighbours = Collections.unmodifiableList(neighbours);
+    }
+
     /**
      * Returns the X-coordinate of this field.
      *
@@ -0,0 +1,142 @@
+package lista4.gameLogic;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Queue of the commands of one game, run one at a time in the order of
+ * submission.
+ * <p>
+ * The mailbox has no thread of its own: when a command arrives and the
+ * mailbox is idle, one drain is scheduled on the underlying executor, which
+ * runs the queued commands in a batch of at most {@link #getBatchSize()} and
+ * schedules itself again if more are waiting. Thousands of games share a few
+ * threads this way, one game never runs on two threads at once, and a busy
+ * game cannot keep a thread from the others for longer than one batch.
+ * </p>
+ */
+public final class GameMailbox implements Executor {
+
+    /** Default number of commands run in one drain */
+    public static final int DEFAULT_BATCH_SIZE = 32;
+
+    /** Threads of all mailboxes, one virtual thread per drain */
+    private static final ExecutorService SHARED = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Executor executor;
+    private final int batchSize;
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    /**
+     * Creates a mailbox draining on the shared virtual threads.
+     */
+    public GameMailbox() {
+        this(SHARED, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param executor  Runs the drains of the mailbox; a drain may run there
+     *                  with other work wrapped around it, e.g. holding a lock
+     *                  for the whole batch
+     * @param batchSize Most commands run in one drain
+     */
+    public GameMailbox(Executor executor, int batchSize) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("Rozmiar partii musi być dodatni: " + batchSize);
+        this.executor = executor;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Returns the threads on which mailboxes created without an executor drain.
+     *
+     * @return Shared executor
+     */
+    public static Executor shared() {
+        return SHARED;
+    }
+
+    /**
+     * Queues a command of the game.
+     *
+     * @param command Command, run after all commands queued before it
+     */
+    @Override
+    public void execute(Runnable command) {
+        queue.add(command);
+        schedule();
+    }
+
+    private void schedule() {
+        if (!queue.isEmpty() && scheduled.compareAndSet(false, true))
+            executor.execute(this::drain);
+    }
+
+    private void drain() {
+        int count = 0;
+        Runnable command;
+        try {
+            while (count < batchSize && (command = queue.poll()) != null) {
+                count++;
+                try {
+                    command.run();
+                } catch (RuntimeException e) {
+                    // Błąd jednej komendy nie zatrzymuje gry
+                    System.err.println("Błąd komendy gry: " + e.getMessage());
+                }
+            }
+        } finally {
+            processed.addAndGet(count);
+            batches.incrementAndGet();
+            scheduled.set(false);
+            // Komendy dodane w trakcie albo ponad partię idą w kolejnym przebiegu
+            schedule();
+        }
+    }
+
+    /**
+     * Returns the most commands run in one drain.
+     *
+     * @return Batch size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Returns the number of commands waiting.
+     *
+     * @return Queue length
+     */
+    public int getQueueLength() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the number of commands run so far.
+     *
+     * @return Processed commands
+     */
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    /**
+     * Returns the number of drains so far; with {@link #getProcessed()} it
+     * gives the average batch.
+     *
+     * @return Drains
+     */
+    public long getBatches() {
+        return batches.get();
+    }
+}
@@ -1,6 +1,10 @@
 package lista4.gameLogic;
 
 import lista4.backend.BotService;
+import lista4.backend.BotStrategy;
+import lista4.backend.bot.BotExecutor;
+import lista4.backend.bot.BotTask;
+import lista4.backend.bot.OpeningBook;
 import lista4.dbModel.GameEntity;
 import lista4.dbModel.MoveEntity;
 import lista4.dbRepositories.GameRepository;
@@ -15,24 +19,44 @@ import org.springframework.beans.factory.annotation.Autowired;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Singleton class responsible for managing the overall game flow.
+ * Class responsible for managing the flow of one game.
  * 
- * It maintains the board, current game context, and communicates with the
+ * {@link #getInstance()} is the default game, which also holds the settings
+ * copied to the games of further rooms. It maintains the board, current game context, and communicates with the
  * output adapter.
  * Handles starting/stopping the game, player moves, and turn management.
+ * <p>
+ * Commands of clients and results of the bot go through the
+ * {@link GameMailbox} of the game, which runs them one at a time. Public
+ * methods changing the game also hold the lock of the manager, so calls made
+ * outside the mailbox (setup, tests) are serialized with it; inside the
+ * mailbox the lock is taken once per batch and never contended. The bot
+ * thinks on a {@link BotExecutor} and its move is applied back through the
+ * mailbox, only if the game has not moved on in the meantime.
  */
 public class GameManager {
 
-    /** Singleton instance of the GameManager */
+    /** Default instance of the GameManager */
     private static GameManager instance = new GameManager();
 
+    /**
+     * Serialized context of the game. A lock instead of the monitor, because
+     * commands write to sockets and the database while holding it, which would
+     * pin the carrier of a virtual thread.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
     /** Game context, storing the current state and current player */
     private final GameContext gameContext;
 
-    /** The board on which the game is played */
-    private final Board board;
+    /** The board on which the game is played, replaced when the size or engine changes */
+    private BoardEngine board;
+
+    /** Implementation used for new boards */
+    private BoardEngineType engineType = BoardEngineType.REFERENCE;
 
     /** Adapter used to send updates to clients (GUI/console) */
     private GameOutputAdapter outAdapter;
@@ -49,28 +73,222 @@ public class GameManager {
     private boolean vsBot = false;
     private PlayerColor botColor;
 
+    /** Settings applied to every new bot */
+    private BotStrategy botStrategy = BotStrategy.INFLUENCE;
+    private long botMoveTimeMillis = BotService.DEFAULT_MOVE_TIME_MILLIS;
+
+    /** Threads computing bot moves, shared by default with other games */
+    private BotExecutor botExecutor;
+    private long botDelayMillis = BotExecutor.DEFAULT_DELAY_MILLIS;
+    private long botDeadlineMillis = BotExecutor.DEFAULT_DEADLINE_MILLIS;
+    private boolean botPondering;
+    private OpeningBook openingBook;
+
+    /** Bot move being computed, null if none */
+    private BotTask botTask;
+
+    /** Bot pondering during the opponent's turn, null if none */
+    private BotTask ponderTask;
+
+    /**
+     * Commands of the game (client commands and bot results), run one at a
+     * time; a batch of queued commands runs under one acquisition of the lock
+     */
+    private final GameMailbox mailbox = new GameMailbox(drain -> GameMailbox.shared().execute(() -> {
+        lock.lock();
+        try {
+            drain.run();
+        } finally {
+            lock.unlock();
+        }
+    }), GameMailbox.DEFAULT_BATCH_SIZE);
+
+    /**
+     * Returns the queue through which every command of the game should be
+     * run, so that commands of both players and the bot are applied one at a
+     * time in the order of arrival.
+     *
+     * @return Mailbox of the game
+     */
+    public GameMailbox getMailbox() {
+        return mailbox;
+    }
+
+    /**
+     * Sets the algorithm and thinking time of bots activated later.
+     *
+     * @param strategy       Move selection algorithm
+     * @param moveTimeMillis Thinking time per move (MCTS)
+     */
+    public void setBotSettings(BotStrategy strategy, long moveTimeMillis) {
+        this.botStrategy = strategy;
+        this.botMoveTimeMillis = moveTimeMillis;
+    }
+
+    /**
+     * Sets where and when bot moves are computed.
+     *
+     * @param executor       Executor computing the moves
+     * @param delayMillis    Pause before the bot starts thinking
+     * @param deadlineMillis Time after which the bot passes instead, 0 for no
+     *                       limit
+     */
+    public void setBotExecutor(BotExecutor executor, long delayMillis, long deadlineMillis) {
+        lock.lock();
+        try {
+            this.botExecutor = executor;
+            this.botDelayMillis = delayMillis;
+            this.botDeadlineMillis = deadlineMillis;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Switches thinking of bots activated later during the opponent's turn.
+     *
+     * @param pondering true to ponder
+     */
+    public void setBotPondering(boolean pondering) {
+        lock.lock();
+        try {
+            this.botPondering = pondering;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sets the opening book of bots activated later.
+     *
+     * @param openingBook Book, null for none
+     */
+    public void setOpeningBook(OpeningBook openingBook) {
+        lock.lock();
+        try {
+            this.openingBook = openingBook;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the executor computing bot moves of this game.
+     *
+     * @return Executor set with {@link #setBotExecutor}, or the shared one
+     */
+    public BotExecutor getBotExecutor() {
+        lock.lock();
+        try {
+            if (botExecutor == null)
+                botExecutor = BotExecutor.shared();
+            return botExecutor;
+        } finally {
+            lock.unlock();
+        }
+    }
+
     // Metoda wołana z ClientThread, gdy gracz wpisze "bot"
     public void activateBot(PlayerColor color) {
-        this.vsBot = true;
-        this.botColor = color;
-        botService = new BotService();
-        System.out.println("Bot aktywowany jako: " + color);
-        if (gameContext.getCurPlayerColor() == botColor) {
-            triggerBotMove();
+        lock.lock();
+        try {
+            this.vsBot = true;
+            this.botColor = color;
+            botService = new BotService();
+            botService.setStrategy(botStrategy);
+            botService.setBudget(botMoveTimeMillis, 0);
+            botService.setPondering(botPondering);
+            botService.setOpeningBook(openingBook);
+            // Wątki wyszukiwania i tablica transpozycji wspólne dla botów wszystkich gier
+            BotExecutor executor = getBotExecutor();
+            botService.setSearchPool(executor.getSearchPool(), executor.getTranspositionTable());
+            System.out.println("Bot aktywowany jako: " + color);
+            scheduleBotMove();
+        } finally {
+            lock.unlock();
         }
     }
 
     public void deActivateBot(PlayerColor color) {
-        this.vsBot = false;
-        this.botColor = null;
-        botService = null;
-        System.out.println("Bot dekatywowany " + color);
+        lock.lock();
+        try {
+            cancelBotMove();
+            this.vsBot = false;
+            this.botColor = null;
+            if (botService != null)
+                botService.shutdown();
+            botService = null;
+            System.out.println("Bot dekatywowany " + color);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Starts computing the bot move if it is the bot's turn in a running game.
+     * The bot works on a copy of the board, so the game is not blocked while it
+     * thinks.
+     */
+    private void scheduleBotMove() {
+        if (!vsBot || gameContext.getCurPlayerColor() != botColor
+                || gameContext.getGameState() != GameState.GAME_RUNNING)
+            return;
+        cancelBotMove();
+        BotExecutor executor = getBotExecutor();
+        BotService bot = botService;
+        PlayerColor color = botColor;
+        // Kopia z KO i historią pozycji: bot nie zaproponuje zakazanego odbicia
+        BoardEngine snapshot = new BitBoard(board);
+        BotTask[] task = new BotTask[1];
+        task[0] = executor.submit((time, threads) -> bot.calculateBestMove(snapshot, color, time, threads),
+                botMoveTimeMillis, botDelayMillis, botDeadlineMillis, mailbox, move -> applyBotMove(task[0], move));
+        botTask = task[0];
+    }
+
+    /**
+     * Cancels the bot move being computed, if any.
+     */
+    private void cancelBotMove() {
+        if (botTask != null)
+            botTask.cancel();
+        botTask = null;
+        if (ponderTask != null)
+            ponderTask.cancel();
+        ponderTask = null;
+        if (botService != null)
+            botService.stopPondering();
     }
 
-    private void triggerBotMove() {
-        // 1. Bot wylicza ruch (przekazujemy mu obecną macierz planszy)
+    /**
+     * Lets the bot think about the opponent's replies while the opponent
+     * moves, as background work of the bot executor: it runs on a copy of the
+     * board only when no bot move is waiting for a thread.
+     */
+    private void schedulePonder() {
+        BotService bot = botService;
+        // Tylko MCTS_TREE korzysta z rozważania - inaczej bez kopii planszy i zadania
+        if (!bot.canPonder())
+            return;
+        PlayerColor opponent = botColor.other();
+        BoardEngine snapshot = new BitBoard(board);
+        ponderTask = getBotExecutor().submitBackground((time, threads) -> {
+            bot.ponder(snapshot, opponent, threads);
+            return null;
+        }, mailbox, move -> { });
+    }
+
+    // Wołane w kontekście gry (pod blokadą), gdy bot skończy liczyć
+    private void applyBotMove(BotTask task, String bestMoveCoords) {
+        // Wynik przeterminowany: gra poszła dalej albo bot został wyłączony
+        if (task != botTask || !vsBot || gameContext.getCurPlayerColor() != botColor
+                || gameContext.getGameState() != GameState.GAME_RUNNING)
+            return;
+        botTask = null;
+        if (bestMoveCoords == null) {
+            passMove(botColor);
+            return;
+        }
         try {
-            String bestMoveCoords = botService.calculateBestMove(board.getMatrix(), botColor);
             String[] coords = bestMoveCoords.split(" ");
             int x = Integer.parseInt(coords[0]);
             int y = Integer.parseInt(coords[1]);
@@ -80,8 +298,8 @@ public class GameManager {
                 return;
             }
 
-            // 3. Wykonaj logikę ruchu
             executeMoveLogic(new Move(x, y, botColor));
+            schedulePonder();
         } catch (Exception e) {
             // Jeśli bot się pomyli (np. samobójstwo), niech spasuje
             System.err.println("Bot popełnił błąd, pasuje: " + e.getMessage());
@@ -90,13 +308,113 @@ public class GameManager {
     }
 
     /**
-     * Private constructor for singleton pattern.
+     * Private constructor of the default instance.
      * Initializes the board and sets the initial player.
      */
     private GameManager() {
         gameContext = new GameContext(GameState.GAME_NOT_INITIALIZED);
         gameContext.setCurPlayerColor(PlayerColor.BLACK);
-        board = new Board();
+        board = createBoard(BoardGeometry.DEFAULT_SIZE);
+    }
+
+    /**
+     * Creates the manager of another, independent game with the settings of an
+     * existing one: repositories, board engine and bot configuration. The
+     * board, state and players are not shared.
+     *
+     * @param settings Manager whose settings are copied, usually
+     *                 {@link #getInstance()}
+     */
+    public GameManager(GameManager settings) {
+        this();
+        settings.lock.lock();
+        try {
+            gameRepository = settings.gameRepository;
+            moveRepository = settings.moveRepository;
+            engineType = settings.engineType;
+            botStrategy = settings.botStrategy;
+            botMoveTimeMillis = settings.botMoveTimeMillis;
+            botExecutor = settings.botExecutor;
+            botDelayMillis = settings.botDelayMillis;
+            botDeadlineMillis = settings.botDeadlineMillis;
+            botPondering = settings.botPondering;
+            openingBook = settings.openingBook;
+        } finally {
+            settings.lock.unlock();
+        }
+        board = createBoard(BoardGeometry.DEFAULT_SIZE);
+    }
+
+    private BoardEngine createBoard(int size) {
+        BoardEngine created = engineType.create(size);
+        created.setCaptureListener((x, y, color) -> addCaptured(color));
+        return created;
+    }
+
+    /**
+     * Changes the size of the board for the next game.
+     * The size cannot be changed while a game is running or negotiated.
+     *
+     * @param size Number of fields per side (9, 13 or 19)
+     * @return true if the board has the requested size afterwards
+     * @throws IllegalArgumentException if the size is not supported
+     */
+    public boolean setBoardSize(int size) {
+        lock.lock();
+        try {
+            if (!BoardGeometry.isSupported(size))
+                throw new IllegalArgumentException("Nieobsługiwany rozmiar planszy: " + size + " (dostępne 9, 13, 19)");
+            if (board.getSize() == size)
+                return true;
+            GameState state = gameContext.getGameState();
+            if (state == GameState.GAME_RUNNING || state == GameState.NEGOTIATIONS)
+                return false;
+            board = createBoard(size);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Changes the board implementation used by the game.
+     * The engine cannot be changed while a game is running or negotiated.
+     *
+     * @param type Engine to use
+     * @return true if the board uses the requested engine afterwards
+     */
+    public boolean setBoardEngine(BoardEngineType type) {
+        lock.lock();
+        try {
+            if (engineType == type)
+                return true;
+            GameState state = gameContext.getGameState();
+            if (state == GameState.GAME_RUNNING || state == GameState.NEGOTIATIONS)
+                return false;
+            engineType = type;
+            board = createBoard(board.getSize());
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the board implementation used by the game.
+     *
+     * @return Engine type
+     */
+    public BoardEngineType getBoardEngine() {
+        return engineType;
+    }
+
+    /**
+     * Returns the size of the current board.
+     *
+     * @return Number of fields per side
+     */
+    public int getBoardSize() {
+        return board.getSize();
     }
 
     public void setRepositories(GameRepository gameRepository, MoveRepository moveRepository) {
@@ -148,9 +466,9 @@ public class GameManager {
     /**
      * Returns the board object.
      * 
-     * @return Current Board
+     * @return Current board engine
      */
-    public Board getBoard() {
+    public BoardEngine getBoard() {
         return board;
     }
 
@@ -160,42 +478,85 @@ public class GameManager {
      * @param color PlayerColor who should receive the board update
      */
     public void sendBoard(PlayerColor color) {
-        outAdapter.sendBoard(board, color);
+        lock.lock();
+        try {
+            outAdapter.sendBoard(board, color);
+        } finally {
+            lock.unlock();
+        }
     }
 
     // ---------------------- Game start/stop ----------------------------
 
     /**
-     * Starts the game and notifies all players.
+     * Starts the game and notifies all players; does nothing if the game is
+     * already running.
+     *
+     * @return true if this call started the game
      */
-    public void startGame() {
-        if (gameContext.getGameState() == GameState.GAME_NOT_INITIALIZED) {
-            GameEntity gameEntity = new GameEntity();
-            gameEntity.setStartTime(LocalDateTime.now());
-            gameRepository.save(gameEntity);
-            gameContext.setCurGameEntity(gameEntity);
-        }
-        gameContext.startGame();
+    public boolean startGame() {
+        lock.lock();
+        try {
+            if (gameContext.getGameState() == GameState.GAME_RUNNING)
+                return false;
+            if (gameContext.getGameState() == GameState.GAME_NOT_INITIALIZED) {
+                GameEntity gameEntity = new GameEntity();
+                gameEntity.setStartTime(LocalDateTime.now());
+                gameEntity.setBoardSize(board.getSize());
+                gameRepository.save(gameEntity);
+                gameContext.setCurGameEntity(gameEntity);
+            }
+            gameContext.startGame();
 
-        outAdapter.sendState(gameContext.getGameState(), PlayerColor.BOTH);
-        outAdapter.sendCurrentPlayer(gameContext.getCurPlayerColor());
+            outAdapter.sendState(gameContext.getGameState(), PlayerColor.BOTH);
+            outAdapter.sendCurrentPlayer(gameContext.getCurPlayerColor());
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
 
+    /**
+     * Sends the current game state to one player, e.g. one joining a game that
+     * is already running.
+     *
+     * @param color PlayerColor who should receive the state
+     */
+    public void sendState(PlayerColor color) {
+        lock.lock();
+        try {
+            outAdapter.sendState(gameContext.getGameState(), color);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
      * Ends the game and notifies all players.
      */
     public void endGame() {
-        gameContext.finishGame();
-        outAdapter.sendState(gameContext.getGameState(), PlayerColor.BOTH);
+        lock.lock();
+        try {
+            cancelBotMove();
+            gameContext.finishGame();
+            outAdapter.sendState(gameContext.getGameState(), PlayerColor.BOTH);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
      * Pauses the game (wait state) and notifies all players.
      */
     public void waitGame() {
-        gameContext.finishGame();
-        outAdapter.sendState(gameContext.getGameState(), PlayerColor.BOTH);
+        lock.lock();
+        try {
+            cancelBotMove();
+            gameContext.finishGame();
+            outAdapter.sendState(gameContext.getGameState(), PlayerColor.BOTH);
+        } finally {
+            lock.unlock();
+        }
     }
 
     // ---------------------- Moves / Turns ------------------------------
@@ -244,9 +605,8 @@ public class GameManager {
         if (canMakeMove != null)
             throw canMakeMove;
 
-        // 2. Logika na planszy
-        Stone stone = new Stone(move.x, move.y, move.playerColor, board);
-        board.putStone(move.x, move.y, stone);
+        // 2. Logika na planszy (nielegalny ruch nie zmienia planszy)
+        board.place(move.x, move.y, move.playerColor);
 
         // 3. Zapis do DB (używamy wstrzykniętego moveRepository)
         MoveEntity moveEntity = new MoveEntity();
@@ -256,6 +616,7 @@ public class GameManager {
         moveEntity.setY(move.y);
         moveEntity.setColor(move.playerColor.toString());
         moveEntity.setPass(false);
+        moveEntity.setPositionHash(board.getHash());
         moveRepository.save(moveEntity);
 
         // 4. Komunikacja
@@ -273,22 +634,17 @@ public class GameManager {
      * @param move Move that is meant to be done
      */
     public void makeMove(Move move) {
+        lock.lock();
         try {
-            executeMoveLogic(move);
-
-            if (vsBot && gameContext.getCurPlayerColor() == botColor
-                    && gameContext.getGameState() == GameState.GAME_RUNNING) {
-                new Thread(() -> {
-                    try {
-                        Thread.sleep(400);
-                    } catch (InterruptedException e) {
-                    }
-                    triggerBotMove();
-                }).start();
-            }
+            try {
+                executeMoveLogic(move);
+                scheduleBotMove();
 
-        } catch (Exception e) {
-            outAdapter.sendExceptionMessage(e, move.playerColor);
+            } catch (Exception e) {
+                outAdapter.sendExceptionMessage(e, move.playerColor);
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -299,42 +655,39 @@ public class GameManager {
      * @param playerColor Player who passes
      */
     public void passMove(PlayerColor playerColor) {
+        lock.lock();
         try {
-            Exception canMakeMove = canMakeMove(playerColor);
-            if (canMakeMove != null)
-                throw canMakeMove;
-
-            gameContext.passNextPlayer();
-
-            MoveEntity move = new MoveEntity();
-            move.setGame(gameContext.getCurGameEntity());
-            move.setMoveNumber(gameContext.getMoveNumber());
-            move.setX(-1);
-            move.setY(-1);
-            move.setColor(playerColor.toString());
-            move.setPass(true);
-            moveRepository.save(move);
-
-            if (gameContext.getConsecutivePasses() == 2) {
-                gameContext.startNegotiations();
-                gameContext.resetPasses();
-                outAdapter.sendState(gameContext.getGameState(), PlayerColor.BOTH);
-            } else {
-                outAdapter.sendCurrentPlayer(playerColor.other());
-            }
-            if (vsBot && gameContext.getCurPlayerColor() == botColor
-                    && gameContext.getGameState() == GameState.GAME_RUNNING) {
-                new Thread(() -> {
-                    try {
-                        Thread.sleep(400);
-                    } catch (InterruptedException e) {
-                    }
-                    triggerBotMove();
-                }).start();
-            }
+            try {
+                Exception canMakeMove = canMakeMove(playerColor);
+                if (canMakeMove != null)
+                    throw canMakeMove;
+
+                gameContext.passNextPlayer();
+
+                MoveEntity move = new MoveEntity();
+                move.setGame(gameContext.getCurGameEntity());
+                move.setMoveNumber(gameContext.getMoveNumber());
+                move.setX(-1);
+                move.setY(-1);
+                move.setColor(playerColor.toString());
+                move.setPass(true);
+                move.setPositionHash(board.getHash());
+                moveRepository.save(move);
+
+                if (gameContext.getConsecutivePasses() == 2) {
+                    gameContext.startNegotiations();
+                    gameContext.resetPasses();
+                    outAdapter.sendState(gameContext.getGameState(), PlayerColor.BOTH);
+                } else {
+                    outAdapter.sendCurrentPlayer(playerColor.other());
+                }
+                scheduleBotMove();
 
-        } catch (Exception e) {
-            outAdapter.sendExceptionMessage(e, playerColor);
+            } catch (Exception e) {
+                outAdapter.sendExceptionMessage(e, playerColor);
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -347,14 +700,20 @@ public class GameManager {
      * @param playerColor - player who stopped negotiations
      */
     public void resumeGame(PlayerColor playerColor) {
+        lock.lock();
+        try {
 
-        gameContext.setCurPlayerColor(playerColor.other());
-        outAdapter.sendState(gameContext.getGameState(), PlayerColor.BOTH);
-        outAdapter.sendBroadcast("RESUME_GAME");
-        outAdapter.resumeGame(board);
-        gameContext.clearTerritories();
-        gameContext.resumeGame();
-        outAdapter.sendCurrentPlayer(playerColor.other());
+            gameContext.setCurPlayerColor(playerColor.other());
+            outAdapter.sendState(gameContext.getGameState(), PlayerColor.BOTH);
+            outAdapter.sendBroadcast("RESUME_GAME");
+            outAdapter.resumeGame(board);
+            gameContext.clearTerritories();
+            gameContext.resumeGame();
+            outAdapter.sendCurrentPlayer(playerColor.other());
+            scheduleBotMove();
+        } finally {
+            lock.unlock();
+        }
     }
 
     // Uruchamiane gdy jeden z graczy zakończył negocjacje i czeka na drugiego
@@ -365,8 +724,13 @@ public class GameManager {
      * @param playerColor - player who ended negotiations
      */
     public void proposeFinishNegotiation(PlayerColor playerColor) {
-        outAdapter.sendEndOfNegotiationToPlayer(playerColor.other());
-        colorOfProposal = playerColor;
+        lock.lock();
+        try {
+            outAdapter.sendEndOfNegotiationToPlayer(playerColor.other());
+            colorOfProposal = playerColor;
+        } finally {
+            lock.unlock();
+        }
     }
 
     // Gdy 2 się zgodzi negocjacje się kończą
@@ -378,12 +742,17 @@ public class GameManager {
      *              who made proposal)
      */
     public void finishNegotiation(PlayerColor color) {
-        if (colorOfProposal != color) {
-            PlayerColor winner = calculateWining();
-            outAdapter.sendWiningMassage(winner, gameContext.whitePoints(), gameContext.blackPoints(), false);
-            gameContext.finishGame();
-        } else {
-            outAdapter.sendToTarget("To jest Twoja propozycja", color);
+        lock.lock();
+        try {
+            if (colorOfProposal != color) {
+                PlayerColor winner = calculateWining();
+                outAdapter.sendWiningMassage(winner, gameContext.whitePoints(), gameContext.blackPoints(), false);
+                gameContext.finishGame();
+            } else {
+                outAdapter.sendToTarget("To jest Twoja propozycja", color);
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -395,9 +764,15 @@ public class GameManager {
      * @param playerColor - player who gives up
      */
     public void giveUpGame(PlayerColor playerColor) {
-        outAdapter.sendWiningMassage(playerColor.other(), 0, 0, true);
+        lock.lock();
+        try {
+            cancelBotMove();
+            outAdapter.sendWiningMassage(playerColor.other(), 0, 0, true);
 
-        gameContext.finishGame();
+            gameContext.finishGame();
+        } finally {
+            lock.unlock();
+        }
     }
 
     // Dodaj terytorium
@@ -410,13 +785,18 @@ public class GameManager {
      * @param y           - y cord of territory
      */
     public void addTerritory(PlayerColor playerColor, int x, int y) {
-        if (gameContext.getGameState() != GameState.NEGOTIATIONS) {
-            outAdapter.sendExceptionMessage(new NegotiationsNotPresent(""), playerColor);
-            return;
-        }
+        lock.lock();
+        try {
+            if (gameContext.getGameState() != GameState.NEGOTIATIONS) {
+                outAdapter.sendExceptionMessage(new NegotiationsNotPresent(""), playerColor);
+                return;
+            }
 
-        gameContext.addTerritory(playerColor, x, y);
-        outAdapter.sendTeritoryUpdate(x, y, playerColor, "+");
+            gameContext.addTerritory(playerColor, x, y);
+            outAdapter.sendTeritoryUpdate(x, y, playerColor, "+");
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -427,13 +807,18 @@ public class GameManager {
      * @param y           - y cord of territory
      */
     public void removeTerritory(PlayerColor playerColor, int x, int y) {
-        if (gameContext.getGameState() != GameState.NEGOTIATIONS) {
-            outAdapter.sendExceptionMessage(new NegotiationsNotPresent(""), playerColor);
-            return;
-        }
+        lock.lock();
+        try {
+            if (gameContext.getGameState() != GameState.NEGOTIATIONS) {
+                outAdapter.sendExceptionMessage(new NegotiationsNotPresent(""), playerColor);
+                return;
+            }
 
-        gameContext.removeTerritory(playerColor, x, y);
-        outAdapter.sendTeritoryUpdate(x, y, playerColor, "-");
+            gameContext.removeTerritory(playerColor, x, y);
+            outAdapter.sendTeritoryUpdate(x, y, playerColor, "-");
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -455,31 +840,52 @@ public class GameManager {
     }
 
     public void loadGame(GameEntity gameEntity) {
-        board.clearBoard();
-        gameContext.setCurGameEntity(gameEntity);
-        gameContext.setGameState(GameState.GAME_RUNNING);
-        List<MoveEntity> moves = moveRepository.findByGameOrderByMoveNumberAsc(gameEntity);
-        for (MoveEntity move : moves) {
-            if (move.isPass()) {
+        lock.lock();
+        try {
+            cancelBotMove();
+            int size = gameEntity.getBoardSize() != null ? gameEntity.getBoardSize() : BoardGeometry.DEFAULT_SIZE;
+            if (board.getSize() != size) {
+                board = createBoard(size);
+                outAdapter.sendBoardSize(size, PlayerColor.BOTH);
+            }
+            board.clearBoard();
+            gameContext.setCurGameEntity(gameEntity);
+            gameContext.setGameState(GameState.GAME_RUNNING);
+            List<MoveEntity> moves = moveRepository.findByGameOrderByMoveNumberAsc(gameEntity);
+            for (MoveEntity move : moves) {
+                if (move.isPass()) {
+                    gameContext.setCurPlayerColor(PlayerColor.valueOf(move.getColor()).other());
+                    continue;
+                }
+                board.place(move.getX(), move.getY(), PlayerColor.valueOf(move.getColor()));
                 gameContext.setCurPlayerColor(PlayerColor.valueOf(move.getColor()).other());
-                continue;
             }
-            Stone stone = new Stone(move.getX(), move.getY(), PlayerColor.valueOf(move.getColor()), board);
-            board.putStone(move.getX(), move.getY(), stone);
-            gameContext.setCurPlayerColor(PlayerColor.valueOf(move.getColor()).other());
+            sendBoard(PlayerColor.BOTH);
+            scheduleBotMove();
+        } finally {
+            lock.unlock();
         }
-        sendBoard(PlayerColor.BOTH);
     }
 
     public void sendGameList(PlayerColor playerColor) {
-        List<GameEntity> games = gameRepository.findAll();
-        outAdapter.sendGamesList(games, playerColor);
+        lock.lock();
+        try {
+            List<GameEntity> games = gameRepository.findAll();
+            outAdapter.sendGamesList(games, playerColor);
+        } finally {
+            lock.unlock();
+        }
     }
 
     public void loadGameById(Long gameId) {
-        GameEntity gameEntity = gameRepository.findById(gameId).orElse(null);
-        if (gameEntity != null) {
-            loadGame(gameEntity);
+        lock.lock();
+        try {
+            GameEntity gameEntity = gameRepository.findById(gameId).orElse(null);
+            if (gameEntity != null) {
+                loadGame(gameEntity);
+            }
+        } finally {
+            lock.unlock();
         }
     }
 }
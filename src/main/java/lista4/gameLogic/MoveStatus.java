@@ -0,0 +1,61 @@
+package lista4.gameLogic;
+
+import lista4.gameLogic.gameExceptions.CaptureInKoException;
+import lista4.gameLogic.gameExceptions.FieldNotAvailableException;
+import lista4.gameLogic.gameExceptions.FieldOcupiedException;
+import lista4.gameLogic.gameExceptions.SuicideException;
+import lista4.gameLogic.gameExceptions.SuperkoException;
+
+/**
+ * Result of a legality check of a move, see {@link Board#checkLegal(int, int, PlayerColor)}.
+ * <p>
+ * Checking returns a constant instead of throwing, so rejecting a move costs no
+ * allocation; the matching exception is created only when an error has to be
+ * reported to a player.
+ */
+public enum MoveStatus {
+    /** The move is legal */
+    OK,
+
+    /** The field is taken or lies outside the board */
+    OCCUPIED,
+
+    /** The move leaves its own chain without breaths and captures nothing */
+    SUICIDE,
+
+    /** The move would immediately recapture in Ko */
+    KO,
+
+    /** The move would repeat an earlier position */
+    SUPERKO;
+
+    /**
+     * Checks whether the status means a legal move.
+     *
+     * @return true for {@link #OK}
+     */
+    public boolean isLegal() {
+        return this == OK;
+    }
+
+    /**
+     * Creates the exception reported to the player for an illegal move.
+     *
+     * @param move The rejected move
+     * @return Exception describing the status, or null for {@link #OK}
+     */
+    public FieldNotAvailableException toException(Move move) {
+        switch (this) {
+            case OCCUPIED:
+                return new FieldOcupiedException(move);
+            case SUICIDE:
+                return new SuicideException(move);
+            case KO:
+                return new CaptureInKoException();
+            case SUPERKO:
+                return new SuperkoException(move);
+            default:
+                return null;
+        }
+    }
+}
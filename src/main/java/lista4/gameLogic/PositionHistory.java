@@ -0,0 +1,156 @@
+package lista4.gameLogic;
+
+import java.util.Arrays;
+
+/**
+ * Set of position hashes seen during a game, used to enforce positional superko.
+ * <p>
+ * Hashes are stored in an open-addressing table of primitive longs, so recording
+ * and looking up a position does not box or allocate. The value 0 (hash of the
+ * empty board) is tracked by a separate flag because it marks free slots.
+ */
+public class PositionHistory {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] table = new long[INITIAL_CAPACITY];
+    private int count;
+    private boolean hasEmpty;
+
+    /**
+     * Records a position hash.
+     *
+     * @param hash Zobrist hash of the position
+     * @return true if the hash was not recorded before
+     */
+    public boolean add(long hash) {
+        if (hash == 0) {
+            boolean added = !hasEmpty;
+            hasEmpty = true;
+            return added;
+        }
+        if ((count + 1) * 2 > table.length) {
+            grow();
+        }
+        int mask = table.length - 1;
+        int i = slot(hash, mask);
+        while (table[i] != 0) {
+            if (table[i] == hash)
+                return false;
+            i = (i + 1) & mask;
+        }
+        table[i] = hash;
+        count++;
+        return true;
+    }
+
+    /**
+     * Checks whether the position hash has been recorded.
+     *
+     * @param hash Zobrist hash of the position
+     * @return true if the position has already occurred
+     */
+    public boolean contains(long hash) {
+        if (hash == 0)
+            return hasEmpty;
+        int mask = table.length - 1;
+        int i = slot(hash, mask);
+        while (table[i] != 0) {
+            if (table[i] == hash)
+                return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Removes a position hash, e.g. when a move is taken back.
+     *
+     * @param hash Zobrist hash of the position
+     * @return true if the hash was recorded
+     */
+    public boolean remove(long hash) {
+        if (hash == 0) {
+            boolean removed = hasEmpty;
+            hasEmpty = false;
+            return removed;
+        }
+        int mask = table.length - 1;
+        int i = slot(hash, mask);
+        while (table[i] != 0) {
+            if (table[i] == hash) {
+                deleteSlot(i, mask);
+                count--;
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Forgets all recorded positions.
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        count = 0;
+        hasEmpty = false;
+    }
+
+    /**
+     * Replaces the content of this history with a copy of another one.
+     *
+     * @param other history to copy
+     */
+    public void copyFrom(PositionHistory other) {
+        if (table.length != other.table.length) {
+            table = new long[other.table.length];
+        }
+        System.arraycopy(other.table, 0, table, 0, table.length);
+        count = other.count;
+        hasEmpty = other.hasEmpty;
+    }
+
+    /**
+     * Returns the number of recorded positions.
+     *
+     * @return number of positions
+     */
+    public int size() {
+        return count + (hasEmpty ? 1 : 0);
+    }
+
+    private void grow() {
+        long[] old = table;
+        table = new long[old.length * 2];
+        count = 0;
+        for (long hash : old) {
+            if (hash != 0)
+                add(hash);
+        }
+    }
+
+    /**
+     * Empties slot i and shifts back following entries of the probe sequence, so
+     * lookups never stop at a hole left by the removal.
+     */
+    private void deleteSlot(int i, int mask) {
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (table[j] == 0)
+                break;
+            int home = slot(table[j], mask);
+            boolean between = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+            if (!between) {
+                table[i] = table[j];
+                i = j;
+            }
+        }
+        table[i] = 0;
+    }
+
+    private static int slot(long hash, int mask) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -31,9 +31,12 @@ public class Stone {
     /** Set of empty adjacent fields ("breaths") */
     private final Set<Field> breaths;
 
-    /** The chain this stone belongs to */
+    /** The chain this stone belongs to (may point at a non-root chain until resolved) */
     private StoneChain chain;
 
+    /** Next stone in the linked list of stones kept by the chain */
+    Stone nextInChain;
+
     /**
      * Creates a new stone at the specified position and color.
      *
@@ -46,7 +49,6 @@ public class Stone {
     public Stone(int x, int y, PlayerColor playerColor, Board board) throws IllegalStoneOfBothColorsException {
         this.x = x;
         this.y = y;
-        this.chain = new StoneChain(this);
 
         if (playerColor == PlayerColor.BOTH) {
             throw new IllegalStoneOfBothColorsException();
@@ -57,6 +59,7 @@ public class Stone {
         this.field = board.getField(x, y);
         breaths = new HashSet<>();
         updateBreaths();
+        this.chain = new StoneChain(this);
     }
 
     /**
@@ -68,10 +71,14 @@ public class Stone {
 
     /**
      * Returns the {@link StoneChain} this stone belongs to.
+     * The reference is resolved to the root chain and cached.
      *
      * @return The stone chain, or null if not assigned
      */
-    public StoneChain getChain() { return chain; }
+    public StoneChain getChain() {
+        if (chain != null) chain = chain.find();
+        return chain;
+    }
 
     /**
      * Returns the current set of empty adjacent fields ("breaths").
@@ -109,6 +116,9 @@ public class Stone {
     /** Returns the board this stone belongs to */
     public Board getBoard() { return board; }
 
+    /** Returns the field this stone occupies */
+    public Field getField() { return field; }
+
     public int getBreathCount(){
         updateBreaths();
         return breaths.size();
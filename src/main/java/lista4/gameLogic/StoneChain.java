@@ -1,6 +1,7 @@
 package lista4.gameLogic;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -9,19 +10,66 @@ import java.util.Set;
  * A StoneChain keeps track of all stones in the chain and allows operations
  * such as merging with another chain, checking if the chain is dead (no breaths),
  * and capturing (removing) the stones from the board.
+ * <p>
+ * The set of breaths is kept up to date by the {@link Board} as stones are
+ * placed, merged and captured, so breath queries never rescan the stones.
+ * <p>
+ * Chains form a disjoint-set forest (union by size, path compression): merging
+ * links the smaller chain under the larger one and splices their stone lists,
+ * instead of copying stones and rewriting every {@link Stone#getChain()}
+ * reference. Only the root of a tree holds valid stones and breaths, so every
+ * public method first resolves the root with {@link #find()}.
  */
 public class StoneChain {
 
-    /** Set of stones belonging to this chain */
-    private final Set<Stone> stones = new HashSet<>();
+    /** Parent in the disjoint-set forest, this for the root */
+    private StoneChain parent = this;
+
+    /** Number of stones in the chain (valid for the root) */
+    private int size;
+
+    /** First and last stone of the singly linked list of stones (valid for the root) */
+    private Stone head;
+    private Stone tail;
+
+    /** Set of empty fields adjacent to any stone of the chain (valid for the root) */
+    private Set<Field> breaths = new HashSet<>();
+
+    /** XOR of Zobrist keys of all stones in the chain (valid for the root) */
+    private long hash;
+
+    // Stan potrzebny do cofnięcia scalenia (ważny tylko dla łańcucha dołączonego)
+    private StoneChain mergedInto;
+    private Stone splicedAfter;
+    private boolean breathsSwapped;
+    private int addedBreathCount;
 
     /**
      * Creates a new stone chain with a single initial stone.
+     * Breaths of the chain start as the empty neighbours of that stone.
      *
      * @param initial The initial stone to start the chain
      */
     public StoneChain(Stone initial) {
         addStone(initial);
+        for (Field neighbour : initial.getField().getNeighbours()) {
+            if (neighbour.getStone() == null) breaths.add(neighbour);
+        }
+    }
+
+    /**
+     * Returns the representative (root) chain of this chain, compressing the path
+     * on the way.
+     *
+     * @return Root chain holding the stones and breaths
+     */
+    public StoneChain find() {
+        StoneChain chain = this;
+        while (chain.parent != chain) {
+            chain.parent = chain.parent.parent;
+            chain = chain.parent;
+        }
+        return chain;
     }
 
     /**
@@ -31,32 +79,135 @@ public class StoneChain {
      * @param s The stone to add
      */
     public void addStone(Stone s) {
-        stones.add(s);
-        s.setChain(this);
+        StoneChain root = find();
+        s.nextInChain = null;
+        if (root.head == null) {
+            root.head = s;
+        } else {
+            root.tail.nextInChain = s;
+        }
+        root.tail = s;
+        root.size++;
+        root.hash ^= Zobrist.key(s.getX(), s.getY(), s.getPlayerColor());
+        s.setChain(root);
     }
 
     /**
      * Merges another StoneChain into this one.
-     * All stones in the other chain are added to this chain.
+     * The smaller chain is linked under the larger one; stone lists are spliced
+     * and breaths of the smaller set are added to the larger one.
      *
      * @param other The other chain to merge
      */
     public void merge(StoneChain other) {
-        for (Stone s : other.stones) addStone(s);
+        merge(other, null);
+    }
+
+    /**
+     * Merges another chain into this one and remembers how to take it back.
+     *
+     * @param other        The other chain to merge
+     * @param addedBreaths List receiving the breaths that were new to the resulting
+     *                     chain, or null if the merge will not be undone
+     * @return The chain linked under the other one, or null if both were already
+     *         the same chain
+     */
+    StoneChain merge(StoneChain other, List<Field> addedBreaths) {
+        StoneChain root = find();
+        StoneChain child = other.find();
+        if (root == child) return null;
+        if (root.size < child.size) {
+            StoneChain swap = root;
+            root = child;
+            child = swap;
+        }
+
+        child.parent = root;
+        child.mergedInto = root;
+        child.splicedAfter = root.tail;
+        root.size += child.size;
+        root.tail.nextInChain = child.head;
+        root.tail = child.tail;
+        root.hash ^= child.hash;
+
+        child.breathsSwapped = root.breaths.size() < child.breaths.size();
+        if (child.breathsSwapped) {
+            Set<Field> swap = root.breaths;
+            root.breaths = child.breaths;
+            child.breaths = swap;
+        }
+        if (addedBreaths == null) {
+            root.breaths.addAll(child.breaths);
+        } else {
+            child.addedBreathCount = 0;
+            for (Field breath : child.breaths) {
+                if (root.breaths.add(breath)) {
+                    addedBreaths.add(breath);
+                    child.addedBreathCount++;
+                }
+            }
+        }
+        return child;
+    }
+
+    /**
+     * Reverts {@link #merge(StoneChain, List)} which linked this chain under
+     * another one. Merges done later must be reverted first.
+     *
+     * @param addedBreaths The list passed to the merge; breaths added by it are
+     *                     taken from its end
+     */
+    void unmerge(List<Field> addedBreaths) {
+        StoneChain root = mergedInto;
+        root.size -= size;
+        root.hash ^= hash;
+        root.tail = splicedAfter;
+        splicedAfter.nextInChain = null;
+
+        for (int i = 0; i < addedBreathCount; i++) {
+            root.breaths.remove(addedBreaths.remove(addedBreaths.size() - 1));
+        }
+        if (breathsSwapped) {
+            Set<Field> swap = root.breaths;
+            root.breaths = breaths;
+            breaths = swap;
+        }
+
+        parent = this;
+        mergedInto = null;
+        splicedAfter = null;
+        // Kompresja ścieżek mogła przepiąć kamienie na korzeń, więc wracają tutaj
+        for (Stone stone = head; stone != null; stone = stone.nextInChain) {
+            stone.setChain(this);
+        }
     }
 
     /**
-     * Calculates the total number of "breaths" (empty neighboring fields)
+     * Marks the field as a breath of this chain (a neighbouring field became empty).
+     *
+     * @param field The field that became empty
+     */
+    void addBreath(Field field) {
+        find().breaths.add(field);
+    }
+
+    /**
+     * Removes the field from breaths of this chain (a stone was put on it).
+     *
+     * @param field The field that became occupied
+     */
+    void removeBreath(Field field) {
+        find().breaths.remove(field);
+    }
+
+    /**
+     * Returns the total number of "breaths" (empty neighboring fields)
      * for all stones in the chain.
      *
      * @return Number of breaths
      */
     public int getBreathCount() {
-        Set<Field> breaths = new HashSet<>();
-        for (Stone stoneElement : stones) {
-            breaths.addAll(stoneElement.getBreaths());
-        }
-        return breaths.size();
+        return find().breaths.size();
     }
 
     /**
@@ -65,25 +216,79 @@ public class StoneChain {
      * @return true if the chain is dead, false otherwise
      */
     public boolean isDead() {
-        return getBreathCount() == 0;
+        return find().breaths.isEmpty();
+    }
+
+    /**
+     * Returns the XOR of Zobrist keys of all stones in the chain, i.e. the change
+     * of the board hash when the chain is captured.
+     *
+     * @return Zobrist hash of the chain's stones
+     */
+    public long getHash() {
+        return find().hash;
+    }
+
+    /**
+     * Checks whether the stone belongs to this chain.
+     *
+     * @param stone The stone to check
+     * @return true if the stone is part of the chain
+     */
+    public boolean contains(Stone stone) {
+        return stone.getChain() == find();
     }
 
     /**
      * Captures all stones in this chain by removing them from the board.
+     * The board notifies its {@link CaptureListener} about every stone.
      */
     public void captureChain(){
-        for (Stone stone : stones){
+        for (Stone stone = find().head; stone != null; stone = stone.nextInChain){
             int x = stone.getX();
             int y = stone.getY();
             stone.getBoard().removeStone(x, y);
-            GameManager.getInstance().addCaptured(stone.getPlayerColor());
+            stone.getBoard().stoneCaptured(stone);
         }
     }
 
+    /**
+     * Puts the stones of a captured chain back on the board (undo of a capture).
+     * Fields of the restored stones stop being breaths of all adjacent chains.
+     */
+    void restore() {
+        StoneChain root = find();
+        for (Stone stone = root.head; stone != null; stone = stone.nextInChain) {
+            stone.getField().putStone(stone);
+        }
+        for (Stone stone = root.head; stone != null; stone = stone.nextInChain) {
+            for (Field neighbour : stone.getField().getNeighbours()) {
+                if (neighbour.getStone() != null)
+                    neighbour.getStone().getChain().removeBreath(stone.getField());
+            }
+        }
+    }
+
+    /**
+     * Returns the number of stones in this chain.
+     *
+     * @return Number of stones
+     */
+    public int size() {
+        return find().size;
+    }
+
     /**
      * Returns the set of stones in this chain.
+     * The set is a snapshot; later merges do not change it.
      *
      * @return Set of stones
      */
-    public Set<Stone> getStones() { return stones; }
+    public Set<Stone> getStones() {
+        Set<Stone> stones = new HashSet<>();
+        for (Stone stone = find().head; stone != null; stone = stone.nextInChain) {
+            stones.add(stone);
+        }
+        return stones;
+    }
 }
@@ -0,0 +1,54 @@
+package lista4.gameLogic;
+
+/**
+ * Zobrist keys shared by every board implementation.
+ * <p>
+ * Each (intersection, color) pair has a fixed random 64-bit key and the hash of
+ * a position is the XOR of keys of all stones on it, so it can be updated
+ * incrementally when a stone is placed or removed. Keys are generated from a
+ * constant seed, which keeps hashes stable between runs and lets them be stored
+ * (transposition tables, opening books, game archives).
+ */
+public final class Zobrist {
+
+    /** Largest supported board side; keys are indexed with this stride. */
+    public static final int MAX_SIZE = 19;
+
+    private static final long SEED = 0x5EED_60B0_A4D5_1234L;
+
+    private static final long[] BLACK_KEYS = new long[MAX_SIZE * MAX_SIZE];
+    private static final long[] WHITE_KEYS = new long[MAX_SIZE * MAX_SIZE];
+
+    static {
+        long state = SEED;
+        for (int i = 0; i < BLACK_KEYS.length; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            BLACK_KEYS[i] = mix(state);
+            state += 0x9E3779B97F4A7C15L;
+            WHITE_KEYS[i] = mix(state);
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Returns the key of a stone of the given color at (x, y).
+     *
+     * @param x     X coordinate
+     * @param y     Y coordinate
+     * @param color BLACK or WHITE
+     * @return 64-bit key
+     */
+    public static long key(int x, int y, PlayerColor color) {
+        int index = y * MAX_SIZE + x;
+        return color == PlayerColor.BLACK ? BLACK_KEYS[index] : WHITE_KEYS[index];
+    }
+
+    /** SplitMix64 finalizer. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,16 @@
+package lista4.gameLogic.gameExceptions;
+
+import lista4.gameLogic.Move;
+
+public class SuperkoException extends FieldNotAvailableException {
+    private final Move move;
+
+    public SuperkoException(Move move) {
+        super("Ruch powtarza wcześniejszą pozycję na planszy (superko).");
+        this.move = move;
+    }
+
+    public Move getMove() {
+        return move;
+    }
+}
@@ -0,0 +1,81 @@
+package lista4.adapters;
+
+import lista4.gameLogic.Board;
+import lista4.gameLogic.PlayerColor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GUIOutputGameAdapterTest {
+
+    private GUIOutputGameAdapter adapter;
+    private StringWriter black;
+    private StringWriter white;
+
+    @BeforeEach
+    void setup() {
+        adapter = new GUIOutputGameAdapter();
+        black = new StringWriter();
+        white = new StringWriter();
+        adapter.registerPlayer(PlayerColor.BLACK, new PrintWriter(black, true));
+        adapter.registerPlayer(PlayerColor.WHITE, new PrintWriter(white, true));
+    }
+
+    /** Zwraca linie wysłane od ostatniego wywołania i czyści bufor */
+    private static String[] take(StringWriter output) {
+        String text = output.toString();
+        output.getBuffer().setLength(0);
+        return text.isEmpty() ? new String[0] : text.split("\\R");
+    }
+
+    @Test
+    void broadcastsOnlyChangedIntersections() {
+        Board board = new Board(9);
+        board.place(4, 4, PlayerColor.BLACK);
+        adapter.sendBoard(board, PlayerColor.BOTH);
+        assertArrayEquals(new String[] { "DELTA 1 1", "UPDATE BLACK 4 4" }, take(black));
+        assertArrayEquals(new String[] { "DELTA 1 1", "UPDATE BLACK 4 4" }, take(white));
+
+        // Bicie: postawiony kamień i zdjęty kamień w jednej wersji
+        board.place(1, 0, PlayerColor.BLACK);
+        board.place(0, 0, PlayerColor.WHITE);
+        adapter.sendBoard(board, PlayerColor.BOTH);
+        take(black);
+        board.place(0, 1, PlayerColor.BLACK);
+        adapter.sendBoard(board, PlayerColor.BOTH);
+        assertArrayEquals(new String[] { "DELTA 3 2", "UPDATE BLANK 0 0", "UPDATE BLACK 0 1" }, take(black));
+
+        // Bez zmian nic nie wychodzi
+        adapter.sendBoard(board, PlayerColor.BOTH);
+        assertEquals(0, take(black).length);
+    }
+
+    @Test
+    void sendsWholeBoardOnlyToRequestingPlayer() {
+        Board board = new Board(9);
+        board.place(2, 3, PlayerColor.WHITE);
+        adapter.sendBoard(board, PlayerColor.BOTH);
+        take(black);
+        take(white);
+
+        adapter.sendBoard(board, PlayerColor.WHITE);
+        assertEquals(0, take(black).length);
+        String[] snapshot = take(white);
+        assertEquals(1 + 81, snapshot.length);
+        assertEquals("SNAPSHOT 1", snapshot[0]);
+        assertEquals("UPDATE WHITE 2 3", snapshot[1 + 3 * 9 + 2]);
+        assertEquals("UPDATE BLANK 0 0", snapshot[1]);
+
+        // Zmiana jeszcze nierozesłana trafia do obu przed migawką
+        board.place(5, 5, PlayerColor.BLACK);
+        adapter.sendBoard(board, PlayerColor.BLACK);
+        assertArrayEquals(new String[] { "DELTA 2 1", "UPDATE BLACK 5 5" }, take(white));
+        String[] lines = take(black);
+        assertEquals("DELTA 2 1", lines[0]);
+        assertEquals("SNAPSHOT 2", lines[2]);
+    }
+}
@@ -0,0 +1,112 @@
+package lista4.backend;
+
+import lista4.gameLogic.PlayerColor;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BotServiceTest {
+
+    @Test
+    void influenceMatchesDoubleMapVersion() {
+        BotService botService = new BotService();
+        Random random = new Random(3);
+        for (int size : new int[] { 9, 13, 19 }) {
+            for (int game = 0; game < 20; game++) {
+                int[][] board = new int[size][size];
+                int stones = random.nextInt(size * size / 2);
+                for (int i = 0; i < stones; i++) {
+                    board[random.nextInt(size)][random.nextInt(size)] = 1 + random.nextInt(2);
+                }
+                for (PlayerColor color : new PlayerColor[] { PlayerColor.BLACK, PlayerColor.WHITE }) {
+                    assertEquals(reference(board, color), botService.calculateBestMove(board, color),
+                            "size " + size + " game " + game);
+                }
+            }
+        }
+    }
+
+    @Test
+    void incrementalUpdateMatchesFullComputation() {
+        Random random = new Random(5);
+        for (int size : new int[] { 9, 19 }) {
+            InfluenceMap incremental = new InfluenceMap();
+            InfluenceMap full = new InfluenceMap();
+            int[][] board = new int[size][size];
+            incremental.update(board);
+            for (int move = 0; move < 300; move++) {
+                // ruch, czasem ze zbiciem kilku kamieni
+                board[random.nextInt(size)][random.nextInt(size)] = 1 + random.nextInt(2);
+                if (random.nextInt(5) == 0) {
+                    for (int i = random.nextInt(4); i >= 0; i--) {
+                        board[random.nextInt(size)][random.nextInt(size)] = 0;
+                    }
+                }
+                int computed = incremental.update(board);
+                full.compute(board);
+                assertTrue(computed < size * size * InfluenceMap.ITERATIONS, "move " + move);
+                for (int y = 0; y < size; y++) {
+                    for (int x = 0; x < size; x++) {
+                        assertEquals(full.get(x, y), incremental.get(x, y), "move " + move);
+                    }
+                }
+            }
+            assertEquals(0, incremental.update(board));
+        }
+    }
+
+    @Test
+    void fullBoardMeansPass() {
+        int[][] board = new int[9][9];
+        for (int[] column : board) {
+            java.util.Arrays.fill(column, 1);
+        }
+        assertEquals("-1 -1", new BotService().calculateBestMove(board, PlayerColor.WHITE));
+    }
+
+    /** The original algorithm on double[][], allocating a map per step */
+    private static String reference(int[][] board, PlayerColor botColor) {
+        int size = board.length;
+        double[][] map = new double[size][size];
+        for (int iter = -1; iter < 8; iter++) {
+            if (iter >= 0) {
+                double[][] next = new double[size][size];
+                for (int y = 0; y < size; y++) {
+                    for (int x = 0; x < size; x++) {
+                        double sum = map[x][y];
+                        int count = 1;
+                        if (x > 0) { sum += map[x - 1][y]; count++; }
+                        if (x < size - 1) { sum += map[x + 1][y]; count++; }
+                        if (y > 0) { sum += map[x][y - 1]; count++; }
+                        if (y < size - 1) { sum += map[x][y + 1]; count++; }
+                        next[x][y] = Math.round(sum / count);
+                    }
+                }
+                map = next;
+            }
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) {
+                    if (board[x][y] == 1) map[x][y] = 128;
+                    else if (board[x][y] == 2) map[x][y] = -128;
+                }
+            }
+        }
+        int bestX = -1, bestY = -1;
+        double max = -Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (board[j][i] == 0) {
+                    double val = botColor == PlayerColor.BLACK ? map[j][i] : -map[j][i];
+                    if (val > max) {
+                        max = val;
+                        bestX = j;
+                        bestY = i;
+                    }
+                }
+            }
+        }
+        return bestX + " " + bestY;
+    }
+}
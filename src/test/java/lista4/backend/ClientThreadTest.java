@@ -2,6 +2,7 @@ package lista4.backend;
 
 import lista4.gameInterface.GameInputAdapter;
 import lista4.gameInterface.GameOutputAdapter;
+import lista4.gameLogic.GameMailbox;
 import lista4.gameLogic.GameManager;
 import lista4.gameLogic.PlayerColor;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,6 +12,7 @@ import org.mockito.Mockito;
 import java.io.*;
 import java.net.Socket;
 import java.util.ArrayList;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -78,6 +80,8 @@ class ClientThreadTest {
     void shouldSelectGUIAdapterAndRegisterPlayer() throws IOException {
         // Mocking GameManager instead of using the singleton instance
         GameManager mockGameManager = mock(GameManager.class);
+        // Komendy wykonywane od razu w wątku klienta
+        when(mockGameManager.getMailbox()).thenReturn(new GameMailbox(Runnable::run, 1));
 
         // Simulating data: first GUI selection, then board request, then exit
         String inputData = "GUI\nGETBOARD\nquit\n";
@@ -97,6 +101,7 @@ class ClientThreadTest {
                 outAdapters,
                 PlayerColor.BLACK,
                 gamers,
+                new ReentrantLock(),
                 mockGameManager);
 
         // Execution of the thread logic
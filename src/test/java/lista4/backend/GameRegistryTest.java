@@ -0,0 +1,119 @@
+package lista4.backend;
+
+import lista4.dbRepositories.GameRepository;
+import lista4.dbRepositories.MoveRepository;
+import lista4.gameLogic.GameManager;
+import lista4.gameLogic.PlayerColor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class GameRegistryTest {
+
+    private GameManager defaultGame;
+
+    @BeforeEach
+    void setup() {
+        GameManager.resetForTests();
+        defaultGame = GameManager.getInstance();
+        defaultGame.setRepositories(mock(GameRepository.class), mock(MoveRepository.class));
+    }
+
+    /** Dołącza gracza konsolowego i wysyła powitanie */
+    private ClientSession connect(GameRegistry.Seat seat, StringWriter output) {
+        ClientSession session = seat.room().openSession(new PrintWriter(output, true), seat.color());
+        session.onLine("console");
+        return session;
+    }
+
+    /** Czeka, aż gra w pokoju wykona komendy z kolejki */
+    private void settle(GameRoom room) {
+        CompletableFuture.runAsync(() -> {
+        }, room.getGameManager().getMailbox()).join();
+    }
+
+    @Test
+    void pairsPlayersIntoSeparateRooms() {
+        GameRegistry registry = new GameRegistry(defaultGame, 10);
+        GameRegistry.Seat[] seats = new GameRegistry.Seat[4];
+        StringWriter[] outputs = new StringWriter[4];
+        ClientSession[] sessions = new ClientSession[4];
+        for (int i = 0; i < 4; i++) {
+            seats[i] = registry.join();
+            outputs[i] = new StringWriter();
+            sessions[i] = connect(seats[i], outputs[i]);
+        }
+
+        assertSame(registry.getDefaultRoom(), seats[0].room());
+        assertSame(seats[0].room(), seats[1].room());
+        assertSame(seats[2].room(), seats[3].room());
+        assertNotSame(seats[0].room(), seats[2].room());
+        assertSame(defaultGame, seats[0].room().getGameManager());
+        assertNotSame(defaultGame, seats[2].room().getGameManager());
+        assertEquals(PlayerColor.BLACK, seats[2].color());
+        assertEquals(PlayerColor.WHITE, seats[3].color());
+        assertEquals(2, registry.size());
+
+        // Ruch w drugim pokoju nie trafia do graczy pierwszego
+        settle(seats[0].room());
+        int before = outputs[0].toString().length();
+        sessions[2].onLine("D 4");
+        settle(seats[2].room());
+        assertEquals(before, outputs[0].toString().length());
+        assertEquals(PlayerColor.BLACK, seats[2].room().getGameManager().getBoard().getStoneColor(3, 3));
+        assertNull(defaultGame.getBoard().getStoneColor(3, 3));
+
+        // Pusty pokój znika, domyślny zostaje
+        sessions[2].close().join();
+        sessions[3].close().join();
+        assertEquals(1, registry.size());
+        assertNull(registry.getRoom(seats[2].room().getId()));
+        sessions[1].close().join();
+        sessions[0].close().join();
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void joinsWaitingPlayerBeforeOpeningRoomAndRefusesWhenFull() {
+        GameRegistry registry = new GameRegistry(defaultGame, 2);
+        connect(registry.join(), new StringWriter());
+        connect(registry.join(), new StringWriter());
+        GameRegistry.Seat third = registry.join();
+        ClientSession waiting = connect(third, new StringWriter());
+        assertNotSame(registry.getDefaultRoom(), third.room());
+
+        // Czekający gracz dostaje przeciwnika, potem nie ma już miejsc ani pokojów
+        GameRegistry.Seat fourth = registry.join();
+        assertSame(third.room(), fourth.room());
+        assertEquals(PlayerColor.WHITE, fourth.color());
+        assertNull(registry.join());
+
+        // Zwolnione miejsce zajmuje następny gracz
+        waiting.close().join();
+        GameRegistry.Seat again = registry.join();
+        assertNotNull(again);
+        assertSame(third.room(), again.room());
+        assertEquals(PlayerColor.BLACK, again.color());
+    }
+
+    @Test
+    void startsGameOnceWhenRoomFills() {
+        GameRegistry registry = new GameRegistry(defaultGame, 10);
+        StringWriter first = new StringWriter();
+        StringWriter second = new StringWriter();
+        GameRegistry.Seat seat = registry.join();
+        connect(seat, first);
+        connect(registry.join(), second);
+        settle(seat.room());
+
+        // Stan gry wysłany raz, niezależnie od kolejności powitań
+        assertEquals(1, first.toString().split("STATUS: GAME_RUNNING", -1).length - 1);
+        assertEquals(1, second.toString().split("STATUS: GAME_RUNNING", -1).length - 1);
+    }
+}
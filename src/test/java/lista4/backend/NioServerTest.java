@@ -0,0 +1,134 @@
+package lista4.backend;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NioServerTest {
+
+    private NioServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null)
+            server.close();
+    }
+
+    /** Odsyła każdą linię z przedrostkiem, "quit" kończy połączenie */
+    private NioServer echoServer(AtomicInteger closed) throws IOException {
+        NioServer nio = new NioServer(0, 2, out -> new NioServer.LineHandler() {
+            @Override
+            public boolean onLine(String line) {
+                if (line.equals("quit"))
+                    return false;
+                out.println("ECHO " + line);
+                return true;
+            }
+
+            @Override
+            public void onClose() {
+                closed.incrementAndGet();
+            }
+        });
+        nio.start();
+        return nio;
+    }
+
+    @Test
+    void servesManyConnectionsWithFewThreads() throws Exception {
+        AtomicInteger closed = new AtomicInteger();
+        server = echoServer(closed);
+        int clients = 200;
+        List<Socket> sockets = new ArrayList<>();
+        try {
+            for (int i = 0; i < clients; i++) {
+                Socket socket = new Socket("127.0.0.1", server.getPort());
+                sockets.add(socket);
+                OutputStream out = socket.getOutputStream();
+                // Linia w dwóch kawałkach i zakończenie CRLF
+                out.write(("klient " + i).getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                out.write(" żółw\r\n".getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+            for (int i = 0; i < clients; i++) {
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(sockets.get(i).getInputStream(), StandardCharsets.UTF_8));
+                assertEquals("ECHO klient " + i + " żółw", in.readLine());
+            }
+
+            Socket first = sockets.get(0);
+            first.getOutputStream().write("a\nb\nquit\nc\n".getBytes(StandardCharsets.UTF_8));
+            BufferedReader in = new BufferedReader(new InputStreamReader(first.getInputStream(), StandardCharsets.UTF_8));
+            assertEquals("ECHO a", in.readLine());
+            assertEquals("ECHO b", in.readLine());
+            assertNull(in.readLine(), "po quit serwer zamyka połączenie");
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (closed.get() < clients && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(clients, closed.get());
+    }
+
+    @Test
+    void refusedConnectionGetsMessageAndIsClosed() throws Exception {
+        AtomicInteger opened = new AtomicInteger();
+        server = new NioServer(0, 1, out -> {
+            if (opened.incrementAndGet() > 1) {
+                out.println(Server.FULL_MESSAGE);
+                return null;
+            }
+            return new NioServer.LineHandler() {
+                @Override
+                public boolean onLine(String line) {
+                    return true;
+                }
+
+                @Override
+                public void onClose() {
+                }
+            };
+        });
+        server.start();
+
+        try (Socket player = new Socket("127.0.0.1", server.getPort());
+                Socket extra = new Socket("127.0.0.1", server.getPort())) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(extra.getInputStream(), StandardCharsets.UTF_8));
+            assertEquals(Server.FULL_MESSAGE, in.readLine());
+            assertNull(in.readLine());
+            new PrintWriter(player.getOutputStream(), true).println("ruch");
+            assertTrue(player.isConnected());
+        }
+    }
+
+    @Test
+    void disconnectsClientSendingTooLongLine() throws Exception {
+        server = echoServer(new AtomicInteger());
+        try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+            byte[] line = new byte[NioServer.MAX_LINE_BYTES + 1];
+            Arrays.fill(line, (byte) 'x');
+            socket.getOutputStream().write(line);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            assertEquals("Zbyt długa linia, rozłączam.", in.readLine());
+            assertNull(in.readLine());
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package lista4.backend.bot;
+
+import lista4.gameLogic.BitBoard;
+import lista4.gameLogic.PlayerColor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BotExecutorTest {
+
+    private static final String NONE = "none";
+
+    private BotExecutor executor;
+    private BlockingQueue<String> results;
+    private AtomicReference<String> callbackThread;
+    private Executor gameExecutor;
+
+    @BeforeEach
+    void setup() {
+        executor = new BotExecutor(1, 1);
+        results = new ArrayBlockingQueue<>(10);
+        callbackThread = new AtomicReference<>();
+        gameExecutor = command -> {
+            callbackThread.set(Thread.currentThread().getName());
+            command.run();
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void resultIsHandedToTheGameExecutor() throws Exception {
+        long start = System.nanoTime();
+        executor.submit((time, threads) -> "3 4", 0, 50, 0, gameExecutor, this::record);
+        assertEquals("3 4", results.poll(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= 50_000_000L, "delay");
+        assertNotNull(callbackThread.get());
+    }
+
+    @Test
+    void cancelledJobReportsNothing() throws Exception {
+        BotTask task = executor.submit((time, threads) -> "3 4", 0, 200, 0, gameExecutor, this::record);
+        assertTrue(task.cancel());
+        assertFalse(task.cancel());
+        assertNull(results.poll(400, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void jobPastDeadlineIsInterrupted() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        executor.submit((time, threads) -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "3 4";
+        }, 0, 0, 100, gameExecutor, this::record);
+        assertEquals(NONE, results.poll(5, TimeUnit.SECONDS));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertNull(results.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void fullQueueRejectsJobs() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit((time, threads) -> {
+            release.await();
+            return "0 0";
+        }, 0, 0, 0, gameExecutor, this::record);
+        Thread.sleep(100);
+        executor.submit((time, threads) -> "1 1", 0, 0, 0, gameExecutor, this::record);
+        executor.submit((time, threads) -> "2 2", 0, 0, 0, gameExecutor, this::record);
+
+        // Jeden wątek zajęty, jedno miejsce w kolejce - trzecie zadanie odrzucone
+        assertEquals(NONE, results.poll(5, TimeUnit.SECONDS));
+        release.countDown();
+        assertEquals("0 0", results.poll(5, TimeUnit.SECONDS));
+        assertEquals("1 1", results.poll(5, TimeUnit.SECONDS));
+        Thread.sleep(50); // licznik rośnie po przekazaniu wyniku
+        BotMetrics metrics = executor.getMetrics();
+        assertEquals(1, metrics.getRejected());
+        assertEquals(2, metrics.getCompleted());
+        assertEquals(0, metrics.getQueueDepth());
+    }
+
+    @Test
+    void earlierDueJobsRunFirstWithShorterThinkingUnderLoad() throws Exception {
+        BotExecutor busy = new BotExecutor(1, 10);
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            busy.submit((time, threads) -> {
+                release.await();
+                return "0 0";
+            }, 0, 0, 0, gameExecutor, this::record);
+            Thread.sleep(100);
+            // Gra z długim czasem na ruch nie blokuje gier z krótkim
+            busy.submit((time, threads) -> "slow " + time, 2000, 0, 0, gameExecutor, this::record);
+            Thread.sleep(20);
+            busy.submit((time, threads) -> "fast " + time, 400, 0, 0, gameExecutor, this::record);
+            Thread.sleep(20);
+            assertEquals(2, busy.getMetrics().getQueueDepth());
+            release.countDown();
+
+            assertEquals("0 0", results.poll(5, TimeUnit.SECONDS));
+            String fast = results.poll(5, TimeUnit.SECONDS);
+            String slow = results.poll(5, TimeUnit.SECONDS);
+            assertTrue(fast.startsWith("fast "), fast);
+            assertTrue(slow.startsWith("slow "), slow);
+            // Dwa zadania na jeden wątek - co najwyżej połowa czasu
+            assertTrue(Long.parseLong(fast.substring(5)) <= 200, fast);
+            assertTrue(Long.parseLong(slow.substring(5)) < 2000, slow);
+            assertTrue(busy.getMetrics().getMaxWaitMillis() >= 20);
+        } finally {
+            busy.shutdown();
+        }
+    }
+
+    @Test
+    void cancellingJobStopsAllThreadsOfItsSearch() throws Exception {
+        BotExecutor pooled = new BotExecutor(4, 10);
+        try {
+            // Dwie gry na wspólnych wątkach wyszukiwania
+            MctsEngine first = new MctsEngine(pooled.getSearchPool(), MctsEngine.DEFAULT_KOMI);
+            MctsEngine second = new MctsEngine(pooled.getSearchPool(), MctsEngine.DEFAULT_KOMI);
+            CountDownLatch stopped = new CountDownLatch(2);
+            AtomicReference<Integer> granted = new AtomicReference<>();
+            BotTask[] tasks = new BotTask[2];
+            MctsEngine[] engines = { first, second };
+            for (int i = 0; i < 2; i++) {
+                MctsEngine engine = engines[i];
+                tasks[i] = pooled.submit((time, threads) -> {
+                    granted.compareAndSet(null, threads);
+                    // Bez limitu czasu: kończy tylko anulowanie
+                    engine.search(new BitBoard(9), PlayerColor.BLACK, 0, Integer.MAX_VALUE, threads);
+                    stopped.countDown();
+                    return "0 0";
+                }, 0, 0, 0, gameExecutor, this::record);
+            }
+            Thread.sleep(200);
+            assertTrue(granted.get() >= 1 && granted.get() <= 4);
+            tasks[0].cancel();
+            tasks[1].cancel();
+            assertTrue(stopped.await(5, TimeUnit.SECONDS), "wyszukiwanie nie zatrzymało się");
+            assertNull(results.poll(100, TimeUnit.MILLISECONDS));
+        } finally {
+            pooled.shutdown();
+        }
+    }
+
+    @Test
+    void moveJobPreemptsBackgroundJob() throws Exception {
+        CountDownLatch pondering = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        BotTask background = executor.submitBackground((time, threads) -> {
+            pondering.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "bg";
+        }, gameExecutor, this::record);
+        assertTrue(pondering.await(5, TimeUnit.SECONDS));
+
+        // Jedyny wątek rozważa - ruch gry go odbiera
+        executor.submit((time, threads) -> "3 4", 0, 0, 0, gameExecutor, this::record);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertEquals("3 4", results.poll(5, TimeUnit.SECONDS));
+        assertTrue(background.isDone());
+        assertNull(results.poll(100, TimeUnit.MILLISECONDS));
+        Thread.sleep(50); // licznik rośnie po przekazaniu wyniku
+        assertEquals(1, executor.getMetrics().getCompleted());
+    }
+
+    @Test
+    void moveOfAnotherGameIsNotDelayedByPondering() throws Exception {
+        BotExecutor pooled = new BotExecutor(4, 64);
+        try {
+            TreeParallelMcts pondering = new TreeParallelMcts(pooled.getSearchPool(), MctsEngine.DEFAULT_KOMI,
+                    1 << 20, null);
+            MctsEngine moving = new MctsEngine(pooled.getSearchPool(), MctsEngine.DEFAULT_KOMI);
+            BitBoard board = new BitBoard(9);
+            board.putStone(4, 4, PlayerColor.BLACK);
+            pondering.search(board, PlayerColor.WHITE, 0, 200);
+
+            // Gra A rozważa na wszystkich wątkach wyszukiwania
+            AtomicInteger granted = new AtomicInteger();
+            CountDownLatch ponderEnded = new CountDownLatch(1);
+            BotTask ponder = pooled.submitBackground((time, threads) -> {
+                granted.set(threads);
+                pondering.ponder(board, PlayerColor.BLACK, 15_000, threads);
+                ponderEnded.countDown();
+                return null;
+            }, gameExecutor, move -> { });
+            Thread.sleep(200);
+            assertEquals(4, granted.get());
+
+            // Ruch gry B dostaje wątki zamiast czekać do końca rozważania
+            long start = System.nanoTime();
+            pooled.submit((time, threads) -> moving.search(new BitBoard(9), PlayerColor.BLACK, time, 0, threads)
+                    .toMoveString(), 300, 0, BotExecutor.DEFAULT_DEADLINE_MILLIS, gameExecutor, this::record);
+            String move = results.poll(5, TimeUnit.SECONDS);
+            assertNotNull(move);
+            assertNotEquals(NONE, move);
+            assertTrue(System.nanoTime() - start < 3_000_000_000L);
+            // Rozważanie oddało wątki, a nie biegnie do swojego limitu
+            assertTrue(ponderEnded.await(1, TimeUnit.SECONDS));
+            assertTrue(ponder.isDone());
+        } finally {
+            pooled.shutdown();
+        }
+    }
+
+    private void record(String move) {
+        results.add(move == null ? NONE : move);
+    }
+}
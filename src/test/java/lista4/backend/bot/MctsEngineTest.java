@@ -0,0 +1,76 @@
+package lista4.backend.bot;
+
+import lista4.gameLogic.BitBoard;
+import lista4.gameLogic.MoveStatus;
+import lista4.gameLogic.PlayerColor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MctsEngineTest {
+
+    private MctsEngine engine;
+
+    @BeforeEach
+    void setup() {
+        engine = new MctsEngine(2, MctsEngine.DEFAULT_KOMI);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void capturesStoneThatDecidesTheGame() {
+        // Czarne kolumny 0-4, białe 5-8, po dwa oczy; biały kamień (2, 3) w atari.
+        // Bez bicia wygrywają białe dzięki komi, po biciu czarne.
+        int[][] matrix = new int[9][9];
+        for (int x = 0; x < 9; x++) {
+            for (int y = 0; y < 9; y++) {
+                matrix[x][y] = x <= 4 ? 1 : 2;
+            }
+        }
+        matrix[1][1] = 0;
+        matrix[1][6] = 0;
+        matrix[7][1] = 0;
+        matrix[7][6] = 0;
+        matrix[2][3] = 2;
+        matrix[1][3] = 0;
+        BitBoard board = new BitBoard(9);
+        board.setPosition(matrix);
+
+        MctsResult result = engine.search(board, PlayerColor.BLACK, 0, 2000);
+        assertEquals("1 3", result.toMoveString(), result.toString());
+        assertEquals(2000, result.getPlayouts());
+        assertTrue(result.getWinRate() > 0.9, result.toString());
+    }
+
+    @Test
+    void neverPlaysKoRecapture() {
+        BitBoard board = new BitBoard(9);
+        board.putStone(1, 0, PlayerColor.BLACK);
+        board.putStone(0, 1, PlayerColor.BLACK);
+        board.putStone(1, 2, PlayerColor.BLACK);
+        board.putStone(2, 0, PlayerColor.WHITE);
+        board.putStone(3, 1, PlayerColor.WHITE);
+        board.putStone(2, 2, PlayerColor.WHITE);
+        board.putStone(1, 1, PlayerColor.WHITE);
+        board.putStone(2, 1, PlayerColor.BLACK);
+        assertEquals(MoveStatus.KO, board.checkLegal(1, 1, PlayerColor.WHITE));
+
+        for (int i = 0; i < 5; i++) {
+            MctsResult result = engine.search(board, PlayerColor.WHITE, 0, 300);
+            assertFalse(result.getX() == 1 && result.getY() == 1, result.toString());
+            assertTrue(result.isPass() || board.checkLegal(result.getX(), result.getY(), PlayerColor.WHITE).isLegal());
+        }
+    }
+
+    @Test
+    void budgetIsRequired() {
+        assertThrows(IllegalArgumentException.class,
+                () -> engine.search(new BitBoard(9), PlayerColor.BLACK, 0, 0));
+    }
+}
@@ -0,0 +1,80 @@
+package lista4.backend.bot;
+
+import lista4.backend.BotService;
+import lista4.gameLogic.BitBoard;
+import lista4.gameLogic.Move;
+import lista4.gameLogic.PlayerColor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpeningBookTest {
+
+    private Path file;
+
+    @BeforeEach
+    void setup() throws Exception {
+        file = Files.createTempFile("opening-book", ".bin");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void symmetriesAreUndoneByTheirInverse() {
+        for (int s = 0; s < OpeningBook.SYMMETRIES; s++) {
+            for (int p = 0; p < 81; p++) {
+                int image = OpeningBook.transform(s, p % 9, p / 9, 9);
+                assertEquals(p, OpeningBook.transform(OpeningBook.inverse(s), image % 9, image / 9, 9));
+            }
+        }
+    }
+
+    @Test
+    void openingIsFoundInEveryCorner() throws Exception {
+        OpeningBookBuilder builder = new OpeningBookBuilder(4);
+        // Dwie partie w jednym rogu, jedna inaczej i jedna obrócona
+        builder.addGame(9, List.of(new Move(2, 2, PlayerColor.BLACK), new Move(6, 6, PlayerColor.WHITE)));
+        builder.addGame(9, List.of(new Move(2, 2, PlayerColor.BLACK), new Move(6, 6, PlayerColor.WHITE)));
+        builder.addGame(9, List.of(new Move(2, 2, PlayerColor.BLACK), new Move(2, 6, PlayerColor.WHITE)));
+        builder.addGame(9, List.of(new Move(6, 6, PlayerColor.BLACK), new Move(2, 2, PlayerColor.WHITE)));
+        builder.write(file);
+
+        OpeningBook book = OpeningBook.open(file);
+        assertEquals(builder.size(), book.size());
+
+        // Pusta plansza: 3-3 w którymkolwiek rogu
+        int first = book.lookup(new BitBoard(9), PlayerColor.BLACK);
+        assertTrue(first % 9 == 2 || first % 9 == 6, "" + first);
+        assertTrue(first / 9 == 2 || first / 9 == 6, "" + first);
+
+        // Czarny kamień w innym rogu: najczęstsza odpowiedź to róg naprzeciw
+        BitBoard board = new BitBoard(9);
+        board.putStone(6, 2, PlayerColor.BLACK);
+        assertEquals(6 * 9 + 2, book.lookup(board, PlayerColor.WHITE));
+
+        // Pozycja spoza książki i zła strona do ruchu
+        assertEquals(-1, book.lookup(board, PlayerColor.BLACK));
+        board.putStone(4, 4, PlayerColor.WHITE);
+        assertEquals(-1, book.lookup(board, PlayerColor.BLACK));
+    }
+
+    @Test
+    void botAnswersFromTheBook() throws Exception {
+        OpeningBookBuilder builder = new OpeningBookBuilder();
+        builder.addGame(9, List.of(new Move(4, 4, PlayerColor.BLACK)));
+        builder.write(file);
+
+        BotService botService = new BotService();
+        botService.setOpeningBook(OpeningBook.open(file));
+        assertEquals("4 4", botService.calculateBestMove(new BitBoard(9), PlayerColor.BLACK));
+    }
+}
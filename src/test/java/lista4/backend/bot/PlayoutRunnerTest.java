@@ -0,0 +1,64 @@
+package lista4.backend.bot;
+
+import lista4.gameLogic.BitBoard;
+import lista4.gameLogic.PlayerColor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayoutRunnerTest {
+
+    private PlayoutRunner runner;
+
+    @BeforeEach
+    void setup() {
+        runner = new PlayoutRunner(2, MctsEngine.DEFAULT_KOMI);
+    }
+
+    @AfterEach
+    void tearDown() {
+        runner.shutdown();
+    }
+
+    @Test
+    void playoutsKeepThePosition() {
+        BitBoard board = new BitBoard(9);
+        board.putStone(4, 4, PlayerColor.BLACK);
+        long hash = board.getHash();
+
+        PlayoutStats stats = runner.run(board, PlayerColor.WHITE, 0, 300);
+        assertEquals(300, stats.getPlayouts());
+        assertTrue(stats.getPlayoutsPerSecond() > 0);
+        assertTrue(stats.getBlackWinRate() >= 0 && stats.getBlackWinRate() <= 1);
+        assertEquals(hash, board.getHash());
+
+        // Kolejna partia używa tych samych plansz wątków
+        assertEquals(100, runner.run(board, PlayerColor.WHITE, 0, 100).getPlayouts());
+        assertEquals(10, runner.run(new BitBoard(19), PlayerColor.BLACK, 0, 10).getPlayouts());
+    }
+
+    @Test
+    void finishedGameIsScoredByArea() {
+        // Czarne kolumny 0-4 i białe 5-8, po dwa oczy: zostają tylko pasy
+        int[][] matrix = new int[9][9];
+        for (int x = 0; x < 9; x++) {
+            for (int y = 0; y < 9; y++) {
+                matrix[x][y] = x <= 4 ? 1 : 2;
+            }
+        }
+        matrix[1][1] = 0;
+        matrix[1][6] = 0;
+        matrix[7][1] = 0;
+        matrix[7][6] = 0;
+        BitBoard board = new BitBoard(9);
+        board.setPosition(matrix);
+
+        PlayoutStats stats = runner.run(board, PlayerColor.BLACK, 0, 50);
+        assertEquals(45 - 36 - MctsEngine.DEFAULT_KOMI, stats.getMeanScore(), 1e-9);
+        assertEquals(1.0, stats.getBlackWinRate(), 1e-9);
+        assertEquals(1.0, stats.getOwnership(1, 1), 1e-9);
+        assertEquals(-1.0, stats.getOwnership(8, 8), 1e-9);
+    }
+}
@@ -0,0 +1,85 @@
+package lista4.backend.bot;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchPoolTest {
+
+    private SearchPool pool;
+
+    @BeforeEach
+    void setup() {
+        pool = new SearchPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void runsHelpersAndWaitsForThem() {
+        CountDownLatch helper = new CountDownLatch(1);
+        List<Integer> results = pool.run(2, new AtomicBoolean(), i -> {
+            if (i == 1)
+                helper.countDown();
+            else
+                awaitQuietly(helper);
+            return i;
+        });
+        assertEquals(List.of(0, 1), results.stream().sorted().toList());
+    }
+
+    @Test
+    void stoppedSearchDoesNotWaitForBusyHelpers() throws Exception {
+        // Jedyny pomocnik zajęty przez inne wyszukiwanie
+        CountDownLatch busy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean otherStop = new AtomicBoolean();
+        Thread other = new Thread(() -> pool.run(2, otherStop, i -> {
+            if (i == 1)
+                busy.countDown();
+            awaitQuietly(release);
+            return i;
+        }));
+        other.start();
+        assertTrue(busy.await(5, TimeUnit.SECONDS));
+
+        // Anulowane wyszukiwanie wraca od razu, jego pomocnik nigdy nie rusza
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicInteger started = new AtomicInteger();
+        long begin = System.nanoTime();
+        Thread.currentThread().interrupt();
+        List<Integer> results = pool.run(2, stop, i -> {
+            started.incrementAndGet();
+            return SearchPool.running(stop) ? i : -1;
+        });
+        assertTrue(Thread.interrupted(), "przerwanie zachowane");
+        assertTrue(stop.get());
+        assertEquals(List.of(-1), results);
+        assertTrue(System.nanoTime() - begin < 1_000_000_000L);
+
+        release.countDown();
+        other.join(5000);
+        assertFalse(other.isAlive());
+        Thread.sleep(50);
+        assertEquals(1, started.get());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
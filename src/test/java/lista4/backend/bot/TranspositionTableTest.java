@@ -0,0 +1,102 @@
+package lista4.backend.bot;
+
+import lista4.gameLogic.BitBoard;
+import lista4.gameLogic.PlayerColor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+
+    @Test
+    void storesAndFindsPositions() {
+        TranspositionTable table = new TranspositionTable(1000);
+        assertEquals(1024, table.capacity());
+        long key = TranspositionTable.key(0x1234_5678_9ABC_DEF0L, PlayerColor.BLACK);
+        assertEquals(TranspositionTable.MISS, table.probe(key));
+
+        table.store(key, 10, 7);
+        long data = table.probe(key);
+        assertEquals(10, TranspositionTable.visits(data));
+        assertEquals(7, TranspositionTable.wins(data));
+        // Te same kamienie, ale ruch białych, to inna pozycja
+        assertEquals(TranspositionTable.MISS,
+                table.probe(TranspositionTable.key(0x1234_5678_9ABC_DEF0L, PlayerColor.WHITE)));
+
+        table.store(key, 12, 8);
+        assertEquals(12, TranspositionTable.visits(table.probe(key)));
+        assertEquals(1, table.used());
+        table.clear();
+        assertEquals(0, table.used());
+    }
+
+    @Test
+    void replacesOldAndRarelyVisitedEntriesFirst() {
+        // Jeden kubeł: każdy klucz trafia w te same cztery wpisy
+        TranspositionTable table = new TranspositionTable(4);
+        table.store(1, 100, 50);
+        table.newGeneration();
+        table.store(2, 5, 1);
+        table.store(3, 50, 1);
+        table.store(4, 60, 1);
+
+        table.store(5, 1, 1); // wypiera wpis z poprzedniego przebiegu
+        assertEquals(TranspositionTable.MISS, table.probe(1));
+        table.store(6, 1, 1); // potem najrzadziej odwiedzany
+        assertEquals(TranspositionTable.MISS, table.probe(5));
+        assertEquals(5, TranspositionTable.visits(table.probe(2)));
+        assertEquals(1, TranspositionTable.visits(table.probe(6)));
+    }
+
+    @Test
+    void concurrentWritesNeverReturnForeignData() throws Exception {
+        TranspositionTable table = new TranspositionTable(64);
+        AtomicInteger errors = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            long seed = t;
+            Thread thread = new Thread(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 200_000; i++) {
+                    long key = random.nextInt(1000) * 0x9E3779B97F4A7C15L;
+                    table.store(key, visitsOf(key), 0);
+                    long data = table.probe(random.nextInt(1000) * 0x9E3779B97F4A7C15L);
+                    if (data != TranspositionTable.MISS && TranspositionTable.visits(data) == 0)
+                        errors.incrementAndGet();
+                    long own = table.probe(key);
+                    if (own != TranspositionTable.MISS && TranspositionTable.visits(own) != visitsOf(key))
+                        errors.incrementAndGet();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, errors.get());
+    }
+
+    @Test
+    void searchFillsTheTable() {
+        TranspositionTable table = new TranspositionTable(1 << 12);
+        TreeParallelMcts engine = new TreeParallelMcts(2, MctsEngine.DEFAULT_KOMI, 1 << 16, table);
+        try {
+            BitBoard board = new BitBoard(9);
+            board.putStone(4, 4, PlayerColor.BLACK);
+            engine.search(board, PlayerColor.WHITE, 0, 300);
+            assertTrue(table.used() > 0);
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    private static int visitsOf(long key) {
+        return 1 + (int) ((key >>> 40) & 0xFFFF);
+    }
+}
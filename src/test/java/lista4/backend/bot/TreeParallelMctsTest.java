@@ -0,0 +1,98 @@
+package lista4.backend.bot;
+
+import lista4.gameLogic.BitBoard;
+import lista4.gameLogic.Board;
+import lista4.gameLogic.PlayerColor;
+import lista4.gameLogic.Stone;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TreeParallelMctsTest {
+
+    private TreeParallelMcts engine;
+
+    @BeforeEach
+    void setup() {
+        engine = new TreeParallelMcts(4, MctsEngine.DEFAULT_KOMI, 1 << 16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void capturesStoneThatDecidesTheGame() {
+        // Ta sama pozycja co w MctsEngineTest: wygrywa tylko bicie w (1, 3)
+        int[][] matrix = new int[9][9];
+        for (int x = 0; x < 9; x++) {
+            for (int y = 0; y < 9; y++) {
+                matrix[x][y] = x <= 4 ? 1 : 2;
+            }
+        }
+        matrix[1][1] = 0;
+        matrix[1][6] = 0;
+        matrix[7][1] = 0;
+        matrix[7][6] = 0;
+        matrix[2][3] = 2;
+        matrix[1][3] = 0;
+        BitBoard board = new BitBoard(9);
+        board.setPosition(matrix);
+
+        MctsResult result = engine.search(board, PlayerColor.BLACK, 0, 2000);
+        assertEquals("1 3", result.toMoveString(), result.toString());
+        assertEquals(2000, result.getPlayouts());
+        assertTrue(result.getWinRate() > 0.9, result.toString());
+    }
+
+    @Test
+    void searchesReferenceBoardWithinArena() {
+        Board board = new Board();
+        board.putStone(3, 3, new Stone(3, 3, PlayerColor.BLACK, board));
+        board.putStone(15, 15, new Stone(15, 15, PlayerColor.WHITE, board));
+        long hash = board.getHash();
+
+        MctsResult result = engine.search(board, PlayerColor.BLACK, 0, 400);
+        assertEquals(400, result.getPlayouts());
+        assertTrue(result.isPass() || board.isEmpty(result.getX(), result.getY()));
+        assertEquals(hash, board.getHash());
+        assertTrue(engine.getTreeSize() <= 1 << 16);
+
+        // Drugie wyszukiwanie zaczyna od pustego drzewa
+        assertEquals(100, engine.search(board, PlayerColor.WHITE, 0, 100).getPlayouts());
+    }
+
+    @Test
+    void reusesTreeOfPonderedReply() throws Exception {
+        BitBoard board = new BitBoard(9);
+        board.putStone(4, 4, PlayerColor.BLACK);
+        MctsResult first = engine.search(board, PlayerColor.WHITE, 0, 500);
+        assertEquals(0, engine.getReusedPlayouts());
+        board.play(first.getX(), first.getY(), PlayerColor.WHITE);
+
+        // Czarne myślą, bot rozważa ich odpowiedzi
+        boolean[] pondered = new boolean[1];
+        Thread ponder = new Thread(() -> pondered[0] = engine.ponder(board, PlayerColor.BLACK, 5000, 4));
+        ponder.start();
+        Thread.sleep(200);
+        engine.stopPonder();
+        ponder.join(5000);
+        assertFalse(ponder.isAlive());
+        assertTrue(pondered[0]);
+        assertTrue(engine.getReusedPlayouts() > 0, "drzewo po ruchu bota");
+
+        board.play(first.getX() == 0 ? 1 : 0, 0, PlayerColor.BLACK);
+        MctsResult second = engine.search(board, PlayerColor.WHITE, 0, 100);
+        assertTrue(engine.getReusedPlayouts() > 0, "drzewo po ruchu czarnych");
+        assertEquals(100, second.getPlayouts());
+
+        // Pozycja spoza drzewa zaczyna od nowa
+        BitBoard other = new BitBoard(9);
+        other.putStone(0, 0, PlayerColor.WHITE);
+        engine.search(other, PlayerColor.BLACK, 0, 100);
+        assertEquals(0, engine.getReusedPlayouts());
+    }
+}
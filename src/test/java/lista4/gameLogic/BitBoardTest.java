@@ -0,0 +1,213 @@
+package lista4.gameLogic;
+
+import lista4.gameLogic.gameExceptions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitBoardTest {
+
+    private BitBoard board;
+
+    @BeforeEach
+    void setup() {
+        board = new BitBoard();
+    }
+
+    @Test
+    void cannotPlaceStoneOnOccupiedField() {
+        board.putStone(0, 0, PlayerColor.BLACK);
+        assertThrows(FieldOcupiedException.class, () -> board.putStone(0, 0, PlayerColor.WHITE));
+        assertThrows(FieldOcupiedException.class, () -> board.putStone(19, 0, PlayerColor.WHITE));
+    }
+
+    @Test
+    void capture() {
+        board.putStone(0, 1, PlayerColor.BLACK);
+        board.putStone(1, 0, PlayerColor.BLACK);
+        board.putStone(2, 1, PlayerColor.BLACK);
+        board.putStone(1, 1, PlayerColor.WHITE);
+
+        assertEquals(1, board.putStone(1, 2, PlayerColor.BLACK));
+        assertNull(board.getStoneColor(1, 1));
+    }
+
+    @Test
+    void suicideMoveIsForbidden() {
+        board.putStone(0, 1, PlayerColor.BLACK);
+        board.putStone(1, 0, PlayerColor.BLACK);
+        board.putStone(2, 1, PlayerColor.BLACK);
+        board.putStone(1, 2, PlayerColor.BLACK);
+
+        assertThrows(SuicideException.class, () -> board.putStone(1, 1, PlayerColor.WHITE));
+        assertTrue(board.isEmpty(1, 1));
+    }
+
+    @Test
+    void koRulePreventsImmediateRecapture() {
+        board.putStone(1, 0, PlayerColor.WHITE);
+        board.putStone(0, 1, PlayerColor.WHITE);
+        board.putStone(2, 1, PlayerColor.WHITE);
+
+        board.putStone(1, 1, PlayerColor.BLACK);
+        board.putStone(0, 2, PlayerColor.BLACK);
+        board.putStone(2, 2, PlayerColor.BLACK);
+        board.putStone(1, 3, PlayerColor.BLACK);
+
+        board.putStone(1, 2, PlayerColor.WHITE);
+
+        assertThrows(CaptureInKoException.class, () -> board.putStone(1, 1, PlayerColor.BLACK));
+    }
+
+    @Test
+    void breathCountOfChain() {
+        board.putStone(0, 0, PlayerColor.BLACK);
+        assertEquals(2, board.getBreathCount(0, 0));
+        board.putStone(0, 1, PlayerColor.BLACK);
+        assertEquals(3, board.getBreathCount(0, 0));
+        // Łańcuch przy krawędzi między wierszami (x = 18 i x = 0 nie mogą się łączyć)
+        board.putStone(18, 3, PlayerColor.WHITE);
+        board.putStone(0, 4, PlayerColor.WHITE);
+        assertEquals(3, board.getBreathCount(18, 3));
+    }
+
+    @Test
+    void behavesLikeReferenceBoard() {
+        compareWithReference(19, 42, 3000);
+    }
+
+    @Test
+    void behavesLikeReferenceBoardOnSmallerSizes() {
+        compareWithReference(9, 3, 800);
+        compareWithReference(13, 4, 1500);
+    }
+
+    private void compareWithReference(int size, long seed, int moves) {
+        Random random = new Random(seed);
+        BitBoard board = new BitBoard(size);
+        Board reference = new Board(size);
+        PlayerColor color = PlayerColor.BLACK;
+
+        for (int i = 0; i < moves; i++) {
+            int x = random.nextInt(size);
+            int y = random.nextInt(size);
+
+            assertEquals(reference.checkLegal(x, y, color), board.checkLegal(x, y, color), "move " + i);
+
+            Class<?> expected = null;
+            try {
+                reference.putStone(x, y, new Stone(x, y, color, reference));
+            } catch (FieldNotAvailableException e) {
+                expected = e.getClass();
+            }
+
+            Class<?> actual = null;
+            try {
+                board.putStone(x, y, color);
+            } catch (FieldNotAvailableException e) {
+                actual = e.getClass();
+            }
+
+            assertEquals(expected, actual, "move " + i);
+            assertTrue(java.util.Arrays.deepEquals(reference.getMatrix(), board.getMatrix()), "move " + i);
+            assertEquals(reference.getHash(), board.getHash(), "hash after move " + i);
+            if (expected == null) {
+                color = color.other();
+            }
+        }
+    }
+
+    @Test
+    void unsupportedSizeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new BitBoard(7));
+        assertThrows(IllegalArgumentException.class, () -> board.copyFrom(new BitBoard(9)));
+    }
+
+    @Test
+    void repeatedPositionIsForbidden() {
+        board.putStone(3, 3, PlayerColor.BLACK);
+        board.removeStone(3, 3);
+        assertEquals(0L, board.getHash());
+
+        assertThrows(SuperkoException.class, () -> board.putStone(3, 3, PlayerColor.BLACK));
+        assertTrue(board.isEmpty(3, 3));
+    }
+
+    @Test
+    void playAndUndoMatchReferenceBoard() {
+        Random random = new Random(11);
+        Board reference = new Board();
+        PlayerColor color = PlayerColor.BLACK;
+
+        for (int i = 0; i < 2000; i++) {
+            // Co jakiś czas cofa kilka ruchów na obu planszach
+            if (board.getUndoDepth() > 0 && random.nextInt(4) == 0) {
+                int steps = 1 + random.nextInt(Math.min(5, board.getUndoDepth()));
+                for (int k = 0; k < steps; k++) {
+                    board.undo();
+                    reference.undo();
+                    color = color.other();
+                }
+            } else {
+                Move move = new Move(random.nextInt(19), random.nextInt(19), color);
+                Class<?> expected = null;
+                try {
+                    reference.play(move);
+                } catch (FieldNotAvailableException e) {
+                    expected = e.getClass();
+                }
+                Class<?> actual = null;
+                try {
+                    board.play(move);
+                } catch (FieldNotAvailableException e) {
+                    actual = e.getClass();
+                }
+                assertEquals(expected, actual, "move " + i);
+                if (expected == null) {
+                    color = color.other();
+                }
+            }
+            assertTrue(java.util.Arrays.deepEquals(reference.getMatrix(), board.getMatrix()), "step " + i);
+            assertEquals(reference.getHash(), board.getHash(), "hash after step " + i);
+            assertEquals(reference.getUndoDepth(), board.getUndoDepth());
+        }
+    }
+
+    @Test
+    void legalMovesStayInSyncWithCheckLegal() {
+        Random random = new Random(5);
+        Board reference = new Board();
+        long[] moves = new long[board.getMaskLength()];
+        long[] expected = new long[reference.getMaskLength()];
+        PlayerColor color = PlayerColor.BLACK;
+
+        for (int i = 0; i < 600; i++) {
+            for (PlayerColor side : new PlayerColor[] {PlayerColor.BLACK, PlayerColor.WHITE}) {
+                int count = board.legalMoves(side, moves);
+                assertEquals(reference.legalMoves(side, expected), count, "step " + i);
+                assertTrue(java.util.Arrays.equals(expected, moves), "step " + i);
+            }
+
+            if (board.getUndoDepth() > 0 && random.nextInt(5) == 0) {
+                board.undo();
+                reference.undo();
+                color = color.other();
+                continue;
+            }
+            // Losuje jeden z legalnych ruchów
+            int pick = random.nextInt(Math.max(1, board.legalMoves(color, moves)));
+            for (int p = 0; p < 361; p++) {
+                if ((moves[p >>> 6] & (1L << p)) != 0 && pick-- == 0) {
+                    Move move = new Move(p % 19, p / 19, color);
+                    board.play(move);
+                    reference.play(move);
+                    break;
+                }
+            }
+            color = color.other();
+        }
+    }
+}
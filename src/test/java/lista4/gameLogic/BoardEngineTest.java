@@ -0,0 +1,56 @@
+package lista4.gameLogic;
+
+import lista4.gameLogic.gameExceptions.FieldNotAvailableException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardEngineTest {
+
+    @Test
+    void enginesAgreeOnRandomGame() {
+        for (int size : new int[] { 9, 19 }) {
+            BoardEngine reference = BoardEngineType.REFERENCE.create(size);
+            BoardEngine bitboard = BoardEngineType.BITBOARD.create(size);
+            int[] referenceCaptured = new int[2];
+            int[] bitboardCaptured = new int[2];
+            reference.setCaptureListener((x, y, color) -> referenceCaptured[color.ordinal()]++);
+            bitboard.setCaptureListener((x, y, color) -> bitboardCaptured[color.ordinal()]++);
+
+            Random random = new Random(size);
+            PlayerColor color = PlayerColor.BLACK;
+            for (int i = 0; i < 600; i++) {
+                int x = random.nextInt(size);
+                int y = random.nextInt(size);
+                PlayerColor mover = color;
+                MoveStatus status = reference.checkLegal(x, y, mover);
+                assertEquals(status, bitboard.checkLegal(x, y, mover), "move " + i);
+                if (!status.isLegal()) {
+                    assertThrows(FieldNotAvailableException.class, () -> bitboard.place(x, y, mover));
+                    long hash = reference.getHash();
+                    assertThrows(FieldNotAvailableException.class, () -> reference.place(x, y, mover));
+                    assertEquals(hash, reference.getHash(), "move " + i);
+                    continue;
+                }
+                assertEquals(reference.place(x, y, mover), bitboard.place(x, y, mover), "move " + i);
+                assertEquals(reference.getHash(), bitboard.getHash(), "move " + i);
+                color = color.other();
+            }
+
+            assertTrue(Arrays.deepEquals(reference.getMatrix(), bitboard.getMatrix()));
+            assertTrue(Arrays.equals(referenceCaptured, bitboardCaptured));
+            assertTrue(referenceCaptured[0] + referenceCaptured[1] > 0);
+        }
+    }
+
+    @Test
+    void engineIsChosenByName() {
+        assertEquals(BoardEngineType.BITBOARD, BoardEngineType.fromName("BitBoard"));
+        assertEquals(BoardEngineType.REFERENCE, BoardEngineType.fromName(" reference "));
+        assertThrows(IllegalArgumentException.class, () -> BoardEngineType.fromName("gpu"));
+        assertEquals(13, BoardEngineType.BITBOARD.create(13).getSize());
+    }
+}
@@ -5,7 +5,11 @@ import lista4.gameLogic.gameExceptions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -34,6 +38,19 @@ class BoardTest {
         assertFalse(board.inBoardBoundries(-1,5));
     }
 
+    @Test
+    void testSmallBoard() {
+        Board small = new Board(9);
+        assertEquals(9, small.getSize());
+        assertTrue(small.inBoardBoundries(8, 8));
+        assertFalse(small.inBoardBoundries(9, 0));
+        assertEquals(9, small.getMatrix().length);
+
+        small.putStone(8, 8, new Stone(8, 8, PlayerColor.BLACK, small));
+        assertEquals(2, small.getStone(8, 8).getChain().getBreathCount());
+        assertThrows(IllegalArgumentException.class, () -> new Board(7));
+    }
+
     @Test
     void testPutStoneOccupied() throws IllegalStoneOfBothColorsException {
         Stone black = new Stone(0,0,PlayerColor.BLACK, board);
@@ -42,4 +59,85 @@ class BoardTest {
         Stone white = new Stone(0,0,PlayerColor.WHITE, board);
         assertThrows(FieldOcupiedException.class, () -> board.putStone(0,0,white));
     }
+
+    @Test
+    void testCheckLegalLeavesBoardUntouched() {
+        board.putStone(0, 1, new Stone(0, 1, PlayerColor.BLACK, board));
+        board.putStone(1, 0, new Stone(1, 0, PlayerColor.BLACK, board));
+        long hash = board.getHash();
+
+        assertEquals(MoveStatus.OCCUPIED, board.checkLegal(0, 1, PlayerColor.WHITE));
+        assertEquals(MoveStatus.OCCUPIED, board.checkLegal(19, 0, PlayerColor.WHITE));
+        assertEquals(MoveStatus.SUICIDE, board.checkLegal(0, 0, PlayerColor.WHITE));
+        assertEquals(MoveStatus.OK, board.checkLegal(0, 0, PlayerColor.BLACK));
+
+        assertTrue(board.isEmpty(0, 0));
+        assertEquals(hash, board.getHash());
+        assertEquals(3, board.getStone(0, 1).getChain().getBreathCount());
+    }
+
+    @Test
+    void testUndoRestoresCapturedStones() {
+        board.putStone(0, 1, new Stone(0, 1, PlayerColor.BLACK, board));
+        board.putStone(1, 0, new Stone(1, 0, PlayerColor.BLACK, board));
+        board.putStone(2, 1, new Stone(2, 1, PlayerColor.BLACK, board));
+        board.putStone(1, 1, new Stone(1, 1, PlayerColor.WHITE, board));
+        long hash = board.getHash();
+
+        board.play(new Move(1, 2, PlayerColor.BLACK));
+        assertTrue(board.isEmpty(1, 1));
+        board.undo();
+
+        assertTrue(board.isEmpty(1, 2));
+        assertEquals(PlayerColor.WHITE, board.getStone(1, 1).getPlayerColor());
+        assertEquals(1, board.getStone(1, 1).getChain().getBreathCount());
+        assertEquals(2, board.getStone(1, 0).getChain().getBreathCount());
+        assertEquals(hash, board.getHash());
+        assertThrows(IllegalStateException.class, () -> board.undo());
+    }
+
+    @Test
+    void testRandomPlayAndUndoRoundTrip() {
+        Random random = new Random(7);
+        List<int[][]> matrices = new ArrayList<>();
+        List<int[][]> breaths = new ArrayList<>();
+        List<Long> hashes = new ArrayList<>();
+        PlayerColor color = PlayerColor.BLACK;
+
+        for (int i = 0; i < 400; i++) {
+            matrices.add(board.getMatrix());
+            breaths.add(breathMatrix());
+            hashes.add(board.getHash());
+            while (true) {
+                int x = random.nextInt(19);
+                int y = random.nextInt(19);
+                try {
+                    board.play(new Move(x, y, color));
+                    break;
+                } catch (FieldNotAvailableException e) {
+                    // nielegalny ruch niczego nie zmienia, losujemy dalej
+                }
+            }
+            color = color.other();
+        }
+
+        for (int i = matrices.size() - 1; i >= 0; i--) {
+            board.undo();
+            assertTrue(Arrays.deepEquals(matrices.get(i), board.getMatrix()), "depth " + i);
+            assertTrue(Arrays.deepEquals(breaths.get(i), breathMatrix()), "depth " + i);
+            assertEquals(hashes.get(i).longValue(), board.getHash(), "depth " + i);
+        }
+        assertEquals(0, board.getUndoDepth());
+    }
+
+    private int[][] breathMatrix() {
+        int[][] result = new int[19][19];
+        for (int x = 0; x < 19; x++) {
+            for (int y = 0; y < 19; y++) {
+                Stone stone = board.getStone(x, y);
+                result[x][y] = stone == null ? -1 : stone.getChain().getBreathCount();
+            }
+        }
+        return result;
+    }
 }
@@ -0,0 +1,97 @@
+package lista4.gameLogic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameMailboxTest {
+
+    @Test
+    void runsQueuedCommandsInBatches() {
+        List<Runnable> drains = new ArrayList<>();
+        GameMailbox mailbox = new GameMailbox(drains::add, 10);
+        List<Integer> done = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            int command = i;
+            mailbox.execute(() -> done.add(command));
+        }
+        // Jeden zaplanowany przebieg na całą kolejkę
+        assertEquals(1, drains.size());
+        assertEquals(25, mailbox.getQueueLength());
+
+        drains.remove(0).run();
+        assertEquals(10, done.size());
+        assertEquals(1, drains.size(), "reszta w kolejnym przebiegu");
+        drains.remove(0).run();
+        drains.remove(0).run();
+        assertTrue(drains.isEmpty());
+        assertEquals(25, done.size());
+        for (int i = 0; i < 25; i++) {
+            assertEquals(i, (int) done.get(i));
+        }
+        assertEquals(25, mailbox.getProcessed());
+        assertEquals(3, mailbox.getBatches());
+    }
+
+    @Test
+    void runsCommandsOneAtATimeInOrderOfEachSender() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        ExecutorService senders = Executors.newFixedThreadPool(4);
+        try {
+            GameMailbox mailbox = new GameMailbox(pool, 8);
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger overlaps = new AtomicInteger();
+            int[] last = new int[4];
+            AtomicInteger outOfOrder = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            List<CompletableFuture<Void>> sent = new ArrayList<>();
+            for (int s = 0; s < 4; s++) {
+                int sender = s;
+                sent.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    for (int i = 1; i <= 1000; i++) {
+                        int seq = i;
+                        mailbox.execute(() -> {
+                            if (running.incrementAndGet() > 1)
+                                overlaps.incrementAndGet();
+                            // Bez synchronizacji: komendy gry nie biegną równolegle
+                            if (last[sender] != seq - 1)
+                                outOfOrder.incrementAndGet();
+                            last[sender] = seq;
+                            running.decrementAndGet();
+                        });
+                    }
+                }, senders));
+            }
+            start.countDown();
+            CompletableFuture.allOf(sent.toArray(new CompletableFuture[0])).join();
+            CompletableFuture.runAsync(() -> {
+            }, mailbox).join();
+
+            assertEquals(0, overlaps.get());
+            assertEquals(0, outOfOrder.get());
+            // Licznik rośnie po zakończeniu przebiegu
+            long deadline = System.currentTimeMillis() + 2000;
+            while (mailbox.getProcessed() < 4001 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(4001, mailbox.getProcessed());
+            assertTrue(mailbox.getBatches() >= 4001 / 8);
+        } finally {
+            pool.shutdown();
+            senders.shutdown();
+        }
+    }
+}
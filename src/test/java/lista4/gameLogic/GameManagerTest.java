@@ -0,0 +1,54 @@
+package lista4.gameLogic;
+
+import lista4.dbRepositories.GameRepository;
+import lista4.dbRepositories.MoveRepository;
+import lista4.gameInterface.GameOutputAdapter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class GameManagerTest {
+
+    private GameManager manager;
+
+    @BeforeEach
+    void setup() {
+        GameManager.resetForTests();
+        manager = GameManager.getInstance();
+        manager.setRepositories(mock(GameRepository.class), mock(MoveRepository.class));
+        manager.setAdapter(mock(GameOutputAdapter.class));
+        manager.setBoardEngine(BoardEngineType.REFERENCE);
+        manager.startGame();
+    }
+
+    @Test
+    void botSnapshotOfReferenceBoardKeepsKo() {
+        // Walka o KO: białe w (1, 2) biją czarny kamień w (1, 1)
+        int[][] moves = { { 1, 1 }, { 1, 0 }, { 0, 2 }, { 0, 1 }, { 2, 2 }, { 2, 1 }, { 1, 3 }, { 1, 2 } };
+        PlayerColor color = PlayerColor.BLACK;
+        for (int[] move : moves) {
+            manager.makeMove(new Move(move[0], move[1], color));
+            color = color.other();
+        }
+        BoardEngine board = manager.getBoard();
+        assertInstanceOf(Board.class, board);
+        assertNull(board.getStoneColor(1, 1));
+        assertEquals(MoveStatus.KO, board.checkLegal(1, 1, PlayerColor.BLACK));
+
+        // Kopia dla bota zna KO i historię pozycji gry
+        BitBoard snapshot = new BitBoard(board);
+        assertEquals(board.getHash(), snapshot.getHash());
+        assertEquals(MoveStatus.KO, snapshot.checkLegal(1, 1, PlayerColor.BLACK));
+        long[] legal = new long[snapshot.getMaskLength()];
+        snapshot.legalMoves(PlayerColor.BLACK, legal);
+        int koPoint = 1 * board.getSize() + 1;
+        assertEquals(0L, legal[koPoint >> 6] & (1L << koPoint));
+
+        // Po ruchu gdzie indziej KO znika w obu planszach
+        manager.makeMove(new Move(10, 10, PlayerColor.BLACK));
+        manager.makeMove(new Move(10, 11, PlayerColor.WHITE));
+        assertEquals(MoveStatus.OK, new BitBoard(manager.getBoard()).checkLegal(1, 1, PlayerColor.BLACK));
+    }
+}
@@ -107,4 +107,19 @@ class RulesTest {
                 () -> board.putStone(1, 1, illegalRecapture)
         );
     }
+
+    @Test
+    void superkoForbidsRepeatedPosition() throws Exception {
+        board.putStone(3, 3, new Stone(3, 3, PlayerColor.BLACK, board));
+        long afterMove = board.getHash();
+        board.removeStone(3, 3);
+        assertEquals(0L, board.getHash());
+
+        assertThrows(
+                SuperkoException.class,
+                () -> board.putStone(3, 3, new Stone(3, 3, PlayerColor.BLACK, board))
+        );
+        assertTrue(board.isEmpty(3, 3));
+        assertNotEquals(0L, afterMove);
+    }
 }
@@ -43,4 +43,43 @@ class StoneAndChainTest {
         chain.captureChain();
         assertTrue(board.isEmpty(0,0));
     }
+
+    @Test
+    void testChainBreathsFollowMoves() throws Exception {
+        board.putStone(0, 0, black);
+        Stone blackNext = new Stone(0, 1, PlayerColor.BLACK, board);
+        board.putStone(0, 1, blackNext);
+        assertEquals(3, blackNext.getChain().getBreathCount());
+
+        board.putStone(1, 0, new Stone(1, 0, PlayerColor.WHITE, board));
+        assertEquals(2, blackNext.getChain().getBreathCount());
+
+        // Biały kamień na (1,0) zostaje zbity, pole wraca jako oddech czarnych
+        board.putStone(2, 0, new Stone(2, 0, PlayerColor.BLACK, board));
+        board.putStone(1, 1, new Stone(1, 1, PlayerColor.BLACK, board));
+        assertNull(board.getStone(1, 0));
+        assertEquals(4, blackNext.getChain().getBreathCount());
+    }
+
+    @Test
+    void testLongWallMergesIntoOneChain() throws Exception {
+        // Dwie połowy muru łączone na końcu jednym kamieniem
+        for (int x = 0; x < 19; x++) {
+            if (x == 9) continue;
+            board.putStone(x, 5, new Stone(x, 5, PlayerColor.BLACK, board));
+        }
+        board.putStone(9, 5, new Stone(9, 5, PlayerColor.BLACK, board));
+
+        StoneChain wall = board.getStone(0, 5).getChain();
+        assertEquals(19, wall.size());
+        assertEquals(38, wall.getBreathCount());
+        for (int x = 0; x < 19; x++) {
+            assertSame(wall, board.getStone(x, 5).getChain());
+        }
+
+        wall.captureChain();
+        for (int x = 0; x < 19; x++) {
+            assertTrue(board.isEmpty(x, 5));
+        }
+    }
 }